@@ -0,0 +1,192 @@
+package clasesmodelo;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Bucles de {@link CarteraColumnar} con la Vector API del JDK: procesan tantas cuotas por instrucción como
+ * longs entran en el vector preferido del procesador, y las posiciones que sobran al final con el bucle escalar.
+ * <p>
+ * Necesita el módulo incubado {@code jdk.incubator.vector}, por eso está fuera de {@code src/}: el resto
+ * del sistema compila sin él. Se compila aparte, sobre las clases ya compiladas, y solo se usa si la JVM
+ * se inicia con el módulo:
+ * <pre>
+ *   javac -d out $(find src -name '*.java')
+ *   javac --add-modules jdk.incubator.vector -cp out -d out src-vector/clasesmodelo/*.java
+ *   java --add-modules jdk.incubator.vector -cp out ...
+ * </pre>
+ * {@link CarteraColumnar} obtiene los bucles por reflexión con {@link #crear()} y, si esta clase o el
+ * módulo no están, o el vector preferido no tiene entre 2 y 8 longs, usa los bucles escalares.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+final class KernelsCarteraVectoriales implements KernelsCartera {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    /** Estados de a 8, la menor forma de vector; cada bloque se expande a {@link #PARTES} vectores de longs. */
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_64;
+    /** Los bloques de estados se reparten en vectores de longs enteros: hacen falta entre 2 y 8 carriles. */
+    private static final boolean SOPORTADO = LONGS.length() >= 2 && LONGS.length() <= BYTES.length();
+    private static final int PARTES = SOPORTADO ? BYTES.length() / LONGS.length() : 0;
+    /**
+     * 1,5 * 2^52: sumado a un double de valor absoluto menor que 2^51 lo redondea al entero más cercano,
+     * que queda en los bits bajos de la mantisa.
+     */
+    private static final double REDONDEO = 0x1.8p52;
+    private static final long BITS_REDONDEO = Double.doubleToRawLongBits(REDONDEO);
+    /** Vencimientos con la misma cantidad de carriles que {@link #LONGS}. */
+    private static final VectorSpecies<Integer> INTS = SOPORTADO
+            ? VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.length() * Integer.SIZE))
+            : null;
+
+    private KernelsCarteraVectoriales() {
+    }
+
+    /**
+     * @return los bucles vectoriales, o {@code null} si el vector preferido del procesador no tiene entre
+     *         2 y 8 longs; en ese caso conviene usar los bucles escalares.
+     */
+    static KernelsCartera crear() {
+        return SOPORTADO ? new KernelsCarteraVectoriales() : null;
+    }
+
+    @Override
+    public long sumar(long[] valores) {
+        LongVector acumulado = LongVector.zero(LONGS);
+        int i = 0;
+        for (int limite = LONGS.loopBound(valores.length); i < limite; i += LONGS.length()) {
+            acumulado = acumulado.add(LongVector.fromArray(LONGS, valores, i));
+        }
+        long total = acumulado.reduceLanes(VectorOperators.ADD);
+        for (; i < valores.length; i++) {
+            total += valores[i];
+        }
+        return total;
+    }
+
+    @Override
+    public long saldoPendiente(long[] montoOriginal, long[] montoPagado, long[] penalidad, byte[] estado, int desde, int hasta) {
+        LongVector acumulado = LongVector.zero(LONGS);
+        int i = desde;
+        for (int limite = desde + BYTES.loopBound(hasta - desde); i < limite; i += BYTES.length()) {
+            ByteVector estados = ByteVector.fromArray(BYTES, estado, i);
+            for (int parte = 0; parte < PARTES; parte++) {
+                int j = i + parte * LONGS.length();
+                VectorMask<Long> noPagada = aLongs(estados, parte).compare(VectorOperators.NE, PAGADA);
+                acumulado = acumulado.add(saldos(montoOriginal, montoPagado, penalidad, j), noPagada);
+            }
+        }
+        long total = acumulado.reduceLanes(VectorOperators.ADD);
+        for (; i < hasta; i++) {
+            long saldo = Math.max(0, montoOriginal[i] + penalidad[i] - montoPagado[i]);
+            total += estado[i] != PAGADA ? saldo : 0;
+        }
+        return total;
+    }
+
+    @Override
+    public long penalidadesNuevas(long[] montoOriginal, int[] vencimiento, byte[] estado, long dia) {
+        long mitad = Dinero.PUNTOS_BASICOS / 2;
+        LongVector acumulado = LongVector.zero(LONGS);
+        int i = 0;
+        for (int limite = BYTES.loopBound(estado.length); i < limite; i += BYTES.length()) {
+            ByteVector estados = ByteVector.fromArray(BYTES, estado, i);
+            for (int parte = 0; parte < PARTES; parte++) {
+                int j = i + parte * LONGS.length();
+                LongVector estadosParte = aLongs(estados, parte);
+                VectorMask<Long> entraEnMora = estadosParte.compare(VectorOperators.NE, PAGADA)
+                        .and(estadosParte.compare(VectorOperators.NE, MORA))
+                        .and(vencimientos(vencimiento, j).compare(VectorOperators.LT, dia));
+                LongVector producto = LongVector.fromArray(LONGS, montoOriginal, j)
+                        .mul(Cuota.PENALIDAD_MORA_PUNTOS_BASICOS)
+                        .add(mitad);
+                LongVector penalidadNueva = dividir(producto, Dinero.PUNTOS_BASICOS);
+                acumulado = acumulado.add(penalidadNueva, entraEnMora);
+            }
+        }
+        long total = acumulado.reduceLanes(VectorOperators.ADD);
+        for (; i < estado.length; i++) {
+            boolean entraEnMora = estado[i] != PAGADA && estado[i] != MORA && dia > vencimiento[i];
+            long penalidadNueva = (montoOriginal[i] * Cuota.PENALIDAD_MORA_PUNTOS_BASICOS + mitad) / Dinero.PUNTOS_BASICOS;
+            total += entraEnMora ? penalidadNueva : 0;
+        }
+        return total;
+    }
+
+    @Override
+    public long cobranza(long[] montoOriginal, long[] montoPagado, long[] penalidad, int[] vencimiento, byte[] estado,
+                         long primerDia, long ultimoDia) {
+        LongVector acumulado = LongVector.zero(LONGS);
+        int i = 0;
+        for (int limite = BYTES.loopBound(estado.length); i < limite; i += BYTES.length()) {
+            ByteVector estados = ByteVector.fromArray(BYTES, estado, i);
+            for (int parte = 0; parte < PARTES; parte++) {
+                int j = i + parte * LONGS.length();
+                LongVector vencimientos = vencimientos(vencimiento, j);
+                VectorMask<Long> enPeriodo = aLongs(estados, parte).compare(VectorOperators.NE, PAGADA)
+                        .and(vencimientos.compare(VectorOperators.GE, primerDia))
+                        .and(vencimientos.compare(VectorOperators.LE, ultimoDia));
+                acumulado = acumulado.add(saldos(montoOriginal, montoPagado, penalidad, j), enPeriodo);
+            }
+        }
+        long total = acumulado.reduceLanes(VectorOperators.ADD);
+        for (; i < estado.length; i++) {
+            boolean enPeriodo = estado[i] != PAGADA && vencimiento[i] >= primerDia && vencimiento[i] <= ultimoDia;
+            total += enPeriodo ? Math.max(0, montoOriginal[i] + penalidad[i] - montoPagado[i]) : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Helper privado que devuelve {@code max(0, montoOriginal + penalidad - montoPagado)} de las cuotas desde la posición indicada.
+     */
+    private static LongVector saldos(long[] montoOriginal, long[] montoPagado, long[] penalidad, int posicion) {
+        return LongVector.fromArray(LONGS, montoOriginal, posicion)
+                .add(LongVector.fromArray(LONGS, penalidad, posicion))
+                .sub(LongVector.fromArray(LONGS, montoPagado, posicion))
+                .max(0);
+    }
+
+    /**
+     * Helper privado que divide cada carril como la división entera de Java (truncando hacia cero).
+     * La división de longs no tiene instrucción vectorial: el cociente se estima en double, se lleva a long
+     * sumando {@link #REDONDEO} y reinterpretando los bits (la conversión directa tampoco es vectorial), y se
+     * corrige con el resto exacto. La estimación difiere del cociente en una unidad como mucho si el cociente
+     * es menor que 2^51, lo que vale para cualquier dividendo long con divisores desde 2^12, como
+     * {@link Dinero#PUNTOS_BASICOS}.
+     */
+    private static LongVector dividir(LongVector dividendo, long divisor) {
+        LongVector cociente = ((DoubleVector) dividendo.convert(VectorOperators.L2D, 0))
+                .mul(1.0 / divisor)
+                .add(REDONDEO)
+                .reinterpretAsLongs()
+                .sub(BITS_REDONDEO);
+        LongVector resto = dividendo.sub(cociente.mul(divisor));
+        VectorMask<Long> negativo = dividendo.compare(VectorOperators.LT, 0);
+        VectorMask<Long> sobra = resto.compare(VectorOperators.GE, divisor).andNot(negativo)
+                .or(resto.compare(VectorOperators.GT, 0).and(negativo));
+        VectorMask<Long> falta = resto.compare(VectorOperators.LT, 0).andNot(negativo)
+                .or(resto.compare(VectorOperators.LE, -divisor).and(negativo));
+        return cociente.add(1, sobra).sub(1, falta);
+    }
+
+    /**
+     * Helper privado que expande una parte de un bloque de estados a longs, para compararlos junto con los montos.
+     */
+    private static LongVector aLongs(ByteVector estados, int parte) {
+        return (LongVector) estados.convertShape(VectorOperators.B2L, LONGS, parte);
+    }
+
+    /**
+     * Helper privado que carga los vencimientos desde la posición indicada como longs.
+     */
+    private static LongVector vencimientos(int[] vencimiento, int posicion) {
+        return (LongVector) IntVector.fromArray(INTS, vencimiento, posicion).convertShape(VectorOperators.I2L, LONGS, 0);
+    }
+}
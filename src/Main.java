@@ -1,16 +1,29 @@
+import clasesgestor.GeneradorReportesLote;
+import clasesgestor.GestorCheckpoint;
 import clasesgestor.GestorCliente;
 import clasesgestor.GestorPrestamo;
 import clasesgestor.GestorPago;
 import clasesgestor.GestorReportes;
+import clasesgestor.GestorSnapshot;
+import clasesgestor.IngestorPagosBancarios;
+import clasesgestor.PlanificadorMora;
+import clasesgestor.ResultadoAsignacionPago;
+import clasesgestor.ServidorHttp;
+import clasesgestor.TablaConsola;
 import clasesmodelo.Cliente;
 import clasesmodelo.Prestamo;
 import clasesmodelo.Cuota;
+import clasesmodelo.Dinero;
+import clasesmodelo.FormatoMoneda;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
-import java.text.NumberFormat;
-import java.util.Locale;
+import java.util.function.BiConsumer;
 
 /**
  * Clase principal que contiene el punto de entrada de la aplicación (`main`).
@@ -26,34 +39,121 @@ public class Main {
     private static GestorPrestamo GESTOR_PRESTAMO;
     private static GestorPago GESTOR_PAGO;
     private static GestorReportes GESTOR_REPORTES;
+    private static GestorSnapshot GESTOR_SNAPSHOT;
+    private static GestorCheckpoint GESTOR_CHECKPOINT;
+    private static PlanificadorMora PLANIFICADOR_MORA;
+    private static final int PUERTO_SERVIDOR_POR_DEFECTO = 8080;
+    /** Filas del listado resumido de préstamos que se muestran antes de pausar. */
+    private static final int PRESTAMOS_POR_PAGINA = 50;
+    /** Préstamos del listado con cuotas que se muestran antes de pausar. */
+    private static final int PRESTAMOS_CON_CUOTAS_POR_PAGINA = 5;
+    private static final TablaConsola TABLA_PRESTAMOS = new TablaConsola(
+            new String[]{"ID Préstamo", "DNI Cliente", "Monto", "Cuotas", "Tipo", "Fecha Inicio", "Saldo Pendiente", "Cuotas Mora", "Penalidades"},
+            new int[]{13, 13, 15, 8, 12, 14, 18, 12, 15},
+            new boolean[]{false, false, true, true, false, false, true, true, true});
+    private static final TablaConsola TABLA_CUOTAS = new TablaConsola(
+            new String[]{"Num", "Monto Original", "Monto Pagado", "Saldo Pendiente", "Penalidad", "Vencimiento", "Estado"},
+            new int[]{5, 17, 17, 18, 13, 14, 15},
+            new boolean[]{true, true, true, true, true, false, false});
 
     /**
      * Punto de entrada principal del programa.
-     * Llama a la inicialización de los gestores y luego muestra el menú principal.
-     * @param args Argumentos de la línea de comandos (no utilizados).
+     * Llama a la inicialización de los gestores y luego muestra el menú principal, o bien,
+     * con {@code --servidor [puerto]}, atiende las operaciones como servicio HTTP sin consola.
+     * @param args Argumentos de la línea de comandos: opcionalmente {@code --servidor [puerto]}.
      */
     public static void main(String[] args) {
         inicializarGestores();
-        mostrarMenuPrincipal();
+        if (args.length > 0 && args[0].equals("--servidor")) {
+            iniciarModoServidor(args.length > 1 ? args[1] : null);
+        } else {
+            mostrarMenuPrincipal();
+        }
+    }
+
+    /**
+     * Inicia el servidor HTTP y deja la aplicación atendiendo solicitudes hasta que el proceso
+     * reciba la señal de terminación; en ese momento se detiene el servidor y se guardan los datos.
+     * @param puertoIndicado El puerto recibido por línea de comandos, o {@code null} para usar el puerto por defecto.
+     */
+    private static void iniciarModoServidor(String puertoIndicado) {
+        int puerto = PUERTO_SERVIDOR_POR_DEFECTO;
+        if (puertoIndicado != null) {
+            try {
+                puerto = Integer.parseInt(puertoIndicado);
+            } catch (NumberFormatException e) {
+                System.err.println("Advertencia: Puerto inválido '" + puertoIndicado + "'. Se usará el puerto " + PUERTO_SERVIDOR_POR_DEFECTO + ".");
+            }
+        }
+        // Cada solicitud ya informa su resultado en la respuesta: los gestores no escriben en la consola
+        GESTOR_PRESTAMO.setMensajesEnConsola(false);
+        ServidorHttp servidor = new ServidorHttp(CLIENTES, GESTOR_PRESTAMO, GESTOR_CHECKPOINT, puerto);
+        try {
+            servidor.iniciar();
+        } catch (IOException e) {
+            System.err.println("Error al iniciar el servidor HTTP: " + e.getMessage());
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.detener(2);
+            guardarDatos();
+        }));
     }
 
     /**
      * Configura e inicializa todas las clases gestoras en el orden de dependencia correcto.
-     * Carga los datos existentes desde los archivos CSV para restaurar el estado del sistema.
+     * Restaura préstamos y pagos desde el snapshot binario si está actualizado; si no,
+     * carga los datos existentes desde los archivos CSV, restaura el último checkpoint de cuotas
+     * y reaplica solo los pagos registrados después de él.
      */
     private static void inicializarGestores() {
-        GESTOR_PAGO = new GestorPago();
-        GESTOR_PRESTAMO = new GestorPrestamo(GESTOR_PAGO);
+        GESTOR_PAGO = new GestorPago(false);
+        GESTOR_PRESTAMO = new GestorPrestamo(GESTOR_PAGO, false);
         CLIENTES = new GestorCliente(GESTOR_PRESTAMO);
         GESTOR_REPORTES = new GestorReportes();
+        GESTOR_SNAPSHOT = new GestorSnapshot();
+        GESTOR_CHECKPOINT = new GestorCheckpoint(GESTOR_PRESTAMO, GESTOR_PAGO);
 
         CLIENTES.cargarDesdeArchivoCSV("data/clientes.csv");
-        GESTOR_PRESTAMO.aplicarPagosCargadosACuotas();
-        GESTOR_PRESTAMO.verificarYAplicarMoraATodosLosPrestamos(LocalDate.now());
+        boolean desdeSnapshot = GESTOR_SNAPSHOT.cargar(GESTOR_PRESTAMO, GESTOR_PAGO);
+        if (!desdeSnapshot) {
+            GESTOR_PAGO.cargarDesdeArchivoCSV("data/pagos.csv");
+            GESTOR_PRESTAMO.cargarDesdeArchivoCSV("data/prestamos.csv");
+        }
+        GESTOR_CHECKPOINT.recuperarCheckpointPendiente();
+        if (!desdeSnapshot) {
+            GESTOR_CHECKPOINT.aplicarCheckpoint();
+            GESTOR_PRESTAMO.aplicarPagosCargadosACuotas();
+        }
+        PLANIFICADOR_MORA = new PlanificadorMora(GESTOR_PRESTAMO);
+        PLANIFICADOR_MORA.ejecutarAhora();
+        iniciarPlanificadorMora();
 
         System.out.println("Sistema inicializado. ¡Bienvenido!");
     }
 
+    /**
+     * Programa el barrido de mora en segundo plano: una vez por día, o cada tantos minutos si se
+     * indica la propiedad del sistema {@code mora.intervaloMinutos} (por ejemplo {@code -Dmora.intervaloMinutos=60}).
+     */
+    private static void iniciarPlanificadorMora() {
+        String minutos = System.getProperty("mora.intervaloMinutos");
+        if (minutos == null) {
+            PLANIFICADOR_MORA.iniciar();
+            return;
+        }
+        try {
+            long intervalo = Long.parseLong(minutos.trim());
+            if (intervalo <= 0) {
+                throw new NumberFormatException("debe ser positivo");
+            }
+            PLANIFICADOR_MORA.iniciar(Duration.ofMinutes(intervalo));
+        } catch (NumberFormatException e) {
+            System.err.println("Advertencia: Intervalo de mora inválido '" + minutos + "'. Se ejecutará una vez por día.");
+            PLANIFICADOR_MORA.iniciar();
+        }
+    }
+
     /**
      * Muestra el menú principal de la aplicación y gestiona la navegación
      * a los diferentes submenús según la elección del usuario.
@@ -66,6 +166,7 @@ public class Main {
             System.out.println("2. Gestión de Préstamos");
             System.out.println("3. Registrar Pago de Cuota");
             System.out.println("4. Ver Detalles de Préstamos (con Cuotas)");
+            System.out.println("5. Importar Pagos desde Archivo del Banco");
             System.out.println("0. Salir");
             System.out.print("Seleccione una opción: ");
             opcion = obtenerOpcion();
@@ -75,6 +176,7 @@ public class Main {
                 case 2: menuPrestamos(); break;
                 case 3: registrarPago(); break;
                 case 4: listarPrestamosConCuotas(); break;
+                case 5: importarPagosDelBanco(); break;
                 case 0: guardarYSalir(); break;
                 default: System.out.println("Opción inválida. Intente de nuevo.");
             }
@@ -94,6 +196,7 @@ public class Main {
             System.out.println("4. Eliminar Cliente");
             System.out.println("5. Listar Todos los Clientes");
             System.out.println("6. Generar Reporte PDF de Cliente");
+            System.out.println("7. Generar Estados de Cuenta de Todos los Clientes");
             System.out.println("0. Volver al Menú Principal");
             System.out.print("Seleccione una opción: ");
             opcion = obtenerOpcion();
@@ -104,6 +207,7 @@ public class Main {
                 case 4: eliminarCliente(); break;
                 case 5: listarClientes(); break;
                 case 6: generarReporteCliente(); break;
+                case 7: generarEstadosDeCuenta(); break;
                 case 0: System.out.println("Volviendo al Menú Principal..."); break;
                 default: System.out.println("Opción inválida. Intente de nuevo.");
             }
@@ -185,8 +289,6 @@ public class Main {
         }
         for (int i = 0; i < clientes.size(); i++) {
             System.out.println(clientes.get(i));
-            GESTOR_PRESTAMO.obtenerPrestamosPorCliente(clientes.get(i).getdni())
-                    .forEach(p -> p.verificarMoraDeCuotas(LocalDate.now()));
             if (i < clientes.size() - 1) {
                 System.out.println("----------------------------------------");
             }
@@ -232,10 +334,10 @@ public class Main {
             return;
         }
 
-        double monto = 0;
+        long monto = 0;
         try {
             System.out.print("Monto: $");
-            monto = Double.parseDouble(scanner.nextLine());
+            monto = Dinero.parsear(scanner.nextLine());
             if (monto <= 0) {
                 System.out.println("Error: El monto debe ser un número positivo.");
                 return;
@@ -277,14 +379,13 @@ public class Main {
      * Muestra un resumen de todos los préstamos registrados en formato de tabla.
      */
     private static void listarPrestamos() {
-        GESTOR_PRESTAMO.verificarYAplicarMoraATodosLosPrestamos(LocalDate.now());
         List<Prestamo> prestamos = GESTOR_PRESTAMO.listarPrestamos();
         if (prestamos.isEmpty()) {
             System.out.println("No hay préstamos registrados.");
             return;
         }
         System.out.println("\n--- Listado de Préstamos (Resumen) ---");
-        dibujarTablaPrestamos(prestamos);
+        mostrarPaginado(prestamos, PRESTAMOS_POR_PAGINA, TABLA_PRESTAMOS, Main::escribirFilaPrestamo);
     }
 
     /**
@@ -299,8 +400,6 @@ public class Main {
             System.out.println("Error: Préstamo con ID '" + idPrestamo + "' no encontrado.");
             return;
         }
-        prestamo.verificarMoraDeCuotas(LocalDate.now());
-
         System.out.println("\n--- Detalles del Préstamo: " + prestamo.getIdPrestamo() + " ---");
         dibujarTablaPrestamos(List.of(prestamo));
         System.out.println("\n--- Cuotas del Préstamo: " + prestamo.getIdPrestamo() + " ---");
@@ -311,21 +410,20 @@ public class Main {
      * Muestra un listado completo de todos los préstamos con el detalle de cada una de sus cuotas.
      */
     private static void listarPrestamosConCuotas() {
-        GESTOR_PRESTAMO.verificarYAplicarMoraATodosLosPrestamos(LocalDate.now());
         List<Prestamo> prestamos = GESTOR_PRESTAMO.listarPrestamos();
         if (prestamos.isEmpty()) {
             System.out.println("No hay préstamos registrados para mostrar con detalles de cuotas.");
             return;
         }
         System.out.println("\n--- Listado Completo de Préstamos con Cuotas ---");
-        for (Prestamo prestamo : prestamos) {
-            System.out.println("\n" + prestamo.getIdPrestamo() + " - DNI: " + prestamo.getDniCliente() + " (Monto: " + prestamo.getMontoFormateado() + ")");
-            System.out.println("  Saldo Pendiente Total: " + NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(prestamo.calcularSaldoPendienteTotal()));
-            System.out.println("  Cuotas en Mora: " + prestamo.getCuotasEnMora().size() + (prestamo.getTotalPenalidadesAcumuladas() > 0 ? " (Penalidades Acumuladas: " + NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(prestamo.getTotalPenalidadesAcumuladas()) + ")" : ""));
-            System.out.println("  --------------------------------------------------");
-            dibujarTablaCuotas(prestamo.getCuotas());
-            System.out.println("======================================================================");
-        }
+        mostrarPaginado(prestamos, PRESTAMOS_CON_CUOTAS_POR_PAGINA, null, (salida, prestamo) -> {
+            salida.println("\n" + prestamo.getIdPrestamo() + " - DNI: " + prestamo.getDniCliente() + " (Monto: " + prestamo.getMontoFormateado() + ")");
+            salida.println("  Saldo Pendiente Total: " + FormatoMoneda.formatear(prestamo.calcularSaldoPendienteTotalCentavos()));
+            salida.println("  Cuotas en Mora: " + prestamo.getCantidadCuotasEnMora() + (prestamo.getTotalPenalidadesAcumuladas() > 0 ? " (Penalidades Acumuladas: " + FormatoMoneda.formatear(prestamo.getTotalPenalidadesAcumuladasCentavos()) + ")" : ""));
+            salida.println("  --------------------------------------------------");
+            escribirTablaCuotas(salida, prestamo.getCuotas());
+            salida.println("======================================================================");
+        });
     }
 
     /**
@@ -339,7 +437,8 @@ public class Main {
 
     /**
      * Gestiona el flujo de la consola para registrar un pago en una cuota.
-     * Incluye una lógica para manejar pagos excedentes y aplicarlos a cuotas futuras.
+     * Si el monto supera el saldo de la cuota, el excedente se aplica a las cuotas siguientes
+     * y todas las transacciones se registran juntas.
      */
     private static void registrarPago() {
         System.out.print("ID del préstamo a registrar pago: ");
@@ -350,8 +449,6 @@ public class Main {
             System.out.println("Error: Préstamo con ID " + idPrestamoPago + " no encontrado.");
             return;
         }
-        prestamo.verificarMoraDeCuotas(LocalDate.now());
-
         System.out.println("\n--- Cuotas del Préstamo " + idPrestamoPago + " ---");
         dibujarTablaCuotas(prestamo.getCuotas());
         System.out.println("----------------------------------------");
@@ -370,17 +467,17 @@ public class Main {
             return;
         }
 
-        Cuota cuotaActual = prestamo.getCuotas().get(numCuota - 1);
+        Cuota cuotaActual = prestamo.getCuota(numCuota);
         if (cuotaActual.getEstado() == Cuota.EstadoCuota.PAGADA) {
             System.out.println("Error: La cuota #" + numCuota + " ya está completamente pagada.");
             return;
         }
 
-        double montoAPagarDeCuota = cuotaActual.getSaldoPendiente();
-        double montoPagadoInput = 0;
+        long montoAPagarDeCuota = cuotaActual.getSaldoPendienteCentavos();
+        long montoPagadoInput = 0;
         try {
             System.out.print("Monto a pagar para la cuota #" + numCuota + " (Saldo pendiente: " + cuotaActual.getSaldoPendienteFormateado() + "): $");
-            montoPagadoInput = Double.parseDouble(scanner.nextLine());
+            montoPagadoInput = Dinero.parsear(scanner.nextLine());
             if (montoPagadoInput <= 0) {
                 System.out.println("Error: El monto a pagar debe ser un número positivo.");
                 return;
@@ -390,55 +487,94 @@ public class Main {
             return;
         }
 
-        double excedente = 0;
         if (montoPagadoInput > montoAPagarDeCuota) {
-            excedente = montoPagadoInput - montoAPagarDeCuota;
-            System.out.println("Se detectó un excedente de pago de: " + NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(excedente));
-            if (GESTOR_PRESTAMO.registrarPago(idPrestamoPago, numCuota, montoAPagarDeCuota)) {
-                System.out.println("Cuota #" + numCuota + " saldada.");
-            } else {
-                System.out.println("Error al saldar la cuota #" + numCuota + " con el monto exacto.");
-                return;
-            }
-        } else {
-            if (!GESTOR_PRESTAMO.registrarPago(idPrestamoPago, numCuota, montoPagadoInput)) {
-                System.out.println("No se pudo registrar el pago. Verifique los datos o el estado de la cuota.");
-                return;
-            }
+            System.out.println("Se detectó un excedente de pago de: " + FormatoMoneda.formatear(montoPagadoInput - montoAPagarDeCuota));
+        }
+        ResultadoAsignacionPago resultado = GESTOR_PRESTAMO.registrarPagoConExcedente(idPrestamoPago, numCuota, montoPagadoInput);
+        if (resultado == null) {
+            System.out.println("No se pudo registrar el pago. Verifique los datos o el estado de la cuota.");
+            return;
         }
 
-        if (excedente > 0) {
+        List<ResultadoAsignacionPago.Asignacion> asignaciones = resultado.getAsignaciones();
+        if (montoPagadoInput > montoAPagarDeCuota) {
+            System.out.println("Cuota #" + numCuota + " saldada.");
             System.out.println("Aplicando excedente a cuotas futuras...");
-            for (int i = numCuota; i < prestamo.getCuotas().size() && excedente > 0; i++) {
-                Cuota siguienteCuota = prestamo.getCuotas().get(i);
-                if (siguienteCuota.getEstado() != Cuota.EstadoCuota.PAGADA) {
-                    double saldoPendienteSiguiente = siguienteCuota.getSaldoPendiente();
-                    if (excedente >= saldoPendienteSiguiente) {
-                        GESTOR_PRESTAMO.registrarPago(idPrestamoPago, siguienteCuota.getNumeroCuota(), saldoPendienteSiguiente);
-                        excedente -= saldoPendienteSiguiente;
-                        System.out.println("  Cuota #" + siguienteCuota.getNumeroCuota() + " pagada con excedente. Restante del excedente: " + NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(excedente));
-                    } else {
-                        GESTOR_PRESTAMO.registrarPago(idPrestamoPago, siguienteCuota.getNumeroCuota(), excedente);
-                        System.out.println("  Se aplicó " + NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(excedente) + " a la cuota #" + siguienteCuota.getNumeroCuota() + ". Cuota ahora en estado: " + siguienteCuota.getEstado());
-                        excedente = 0;
-                    }
+            long excedente = montoPagadoInput - asignaciones.get(0).getMontoAplicadoCentavos();
+            for (ResultadoAsignacionPago.Asignacion asignacion : asignaciones.subList(1, asignaciones.size())) {
+                excedente -= asignacion.getMontoAplicadoCentavos();
+                if (asignacion.getEstadoResultante() == Cuota.EstadoCuota.PAGADA) {
+                    System.out.println("  Cuota #" + asignacion.getNumeroCuota() + " pagada con excedente. Restante del excedente: " + FormatoMoneda.formatear(excedente));
+                } else {
+                    System.out.println("  Se aplicó " + FormatoMoneda.formatear(asignacion.getMontoAplicadoCentavos()) + " a la cuota #" + asignacion.getNumeroCuota() + ". Cuota ahora en estado: " + asignacion.getEstadoResultante());
                 }
             }
-            if (excedente > 0) {
-                System.out.println("Advertencia: Quedó un excedente de " + NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(excedente) + " que no pudo aplicarse a ninguna cuota futura.");
+            if (resultado.getExcedenteSinAplicarCentavos() > 0) {
+                System.out.println("Advertencia: Quedó un excedente de " + FormatoMoneda.formatear(resultado.getExcedenteSinAplicarCentavos()) + " que no pudo aplicarse a ninguna cuota futura.");
             }
         }
+        GESTOR_CHECKPOINT.realizarCheckpointSiCorresponde();
     }
 
     /**
-     * Guarda el estado de todos los gestores en sus respectivos archivos CSV y cierra la aplicación.
+     * Genera los estados de cuenta en PDF del mes actual para todos los clientes, en paralelo.
+     * Si una generación anterior del mismo mes quedó incompleta, continúa desde donde se detuvo.
+     */
+    private static void generarEstadosDeCuenta() {
+        GeneradorReportesLote generador = new GeneradorReportesLote(CLIENTES, GESTOR_PRESTAMO, GESTOR_REPORTES);
+        GeneradorReportesLote.ResultadoLote resultado =
+                generador.generarTodos(YearMonth.now(), Runtime.getRuntime().availableProcessors());
+        System.out.println("Estados de cuenta generados: " + resultado.getGenerados()
+                + ". Ya existentes: " + resultado.getOmitidos()
+                + ". Con errores: " + resultado.getFallidos()
+                + ". Tiempo: " + resultado.getMilisegundos() + " ms.");
+    }
+
+    /**
+     * Maneja la importación de un archivo de pagos del banco. Los pagos aceptados se registran
+     * en un solo lote y el resultado de cada fila queda en un reporte junto al archivo original.
+     */
+    private static void importarPagosDelBanco() {
+        System.out.print("Ruta del archivo de pagos del banco: ");
+        String archivoBanco = scanner.nextLine().trim();
+        String base = archivoBanco.toLowerCase().endsWith(".csv")
+                ? archivoBanco.substring(0, archivoBanco.length() - 4) : archivoBanco;
+        String archivoReporte = base + "_reporte.csv";
+
+        IngestorPagosBancarios.ResultadoIngesta resultado =
+                new IngestorPagosBancarios(GESTOR_PRESTAMO, GESTOR_PAGO).ingerir(archivoBanco, archivoReporte);
+        if (resultado == null) {
+            return;
+        }
+        GESTOR_CHECKPOINT.realizarCheckpointSiCorresponde();
+        System.out.println("Filas leídas: " + resultado.getFilasLeidas()
+                + ". Aceptadas: " + resultado.getAceptadas()
+                + " (" + FormatoMoneda.formatear(resultado.getMontoAceptadoCentavos()) + ")"
+                + ". Rechazadas: " + resultado.getRechazadas() + ".");
+        System.out.println("Reporte generado en " + archivoReporte + ".");
+    }
+
+    /**
+     * Guarda el estado de todos los gestores en sus respectivos archivos CSV, escribe el
+     * snapshot binario para el próximo inicio y cierra la aplicación.
      */
     private static void guardarYSalir() {
+        guardarDatos();
+        scanner.close();
+    }
+
+    /**
+     * Helper que guarda clientes y préstamos en CSV, compacta el libro de pagos y escribe el snapshot.
+     * Se usa al salir del menú y al detener el modo servidor.
+     */
+    private static void guardarDatos() {
         System.out.println("\nGuardando datos...");
         CLIENTES.guardarEnArchivoCSV("data/clientes.csv");
         GESTOR_PRESTAMO.guardarEnArchivoCSV("data/prestamos.csv");
+        GESTOR_PAGO.compactarJournal();
+        GESTOR_CHECKPOINT.realizarCheckpointSiCorresponde();
+        GESTOR_SNAPSHOT.guardar(GESTOR_PRESTAMO, GESTOR_PAGO);
         System.out.println("Datos guardados exitosamente. ¡Hasta pronto!");
-        scanner.close();
     }
 
     /**
@@ -473,30 +609,31 @@ public class Main {
      * @param prestamos La lista de préstamos a mostrar.
      */
     private static void dibujarTablaPrestamos(List<Prestamo> prestamos) {
-        String[] headers = {"ID Préstamo", "DNI Cliente", "Monto", "Cuotas", "Tipo", "Fecha Inicio", "Saldo Pendiente", "Cuotas Mora", "Penalidades"};
-        int[] widths = {13, 13, 15, 8, 12, 14, 18, 12, 15};
-
-        imprimirLineaSeparadora(widths);
-        imprimirFila(headers, widths, false, new boolean[headers.length]);
-        imprimirLineaSeparadora(widths);
-
-        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "AR"));
-        boolean[] alignRight = {false, false, true, true, false, false, true, true, true};
+        PrintWriter salida = TablaConsola.abrirSalidaConsola();
+        TABLA_PRESTAMOS.escribirEncabezado(salida);
         for (Prestamo p : prestamos) {
-            String[] rowData = {
-                    p.getIdPrestamo(),
-                    p.getDniCliente(),
-                    currencyFormat.format(p.getMonto()),
-                    String.valueOf(p.getNumeroCuotas()),
-                    p.getTipoPrestamoString(),
-                    p.getFechaInicio().toString(),
-                    currencyFormat.format(p.calcularSaldoPendienteTotal()),
-                    String.valueOf(p.getCuotasEnMora().size()),
-                    currencyFormat.format(p.getTotalPenalidadesAcumuladas())
-            };
-            imprimirFila(rowData, widths, false, alignRight);
-        }
-        imprimirLineaSeparadora(widths);
+            escribirFilaPrestamo(salida, p);
+        }
+        TABLA_PRESTAMOS.escribirCierre(salida);
+        salida.flush();
+    }
+
+    /**
+     * Escribe la fila de un préstamo en la tabla de préstamos.
+     * @param salida La salida donde se escribe.
+     * @param p El préstamo a mostrar.
+     */
+    private static void escribirFilaPrestamo(PrintWriter salida, Prestamo p) {
+        TABLA_PRESTAMOS.escribirFila(salida,
+                p.getIdPrestamo(),
+                p.getDniCliente(),
+                p.getMontoFormateado(),
+                String.valueOf(p.getNumeroCuotas()),
+                p.getTipoPrestamoString(),
+                p.getFechaInicio().toString(),
+                FormatoMoneda.formatear(p.calcularSaldoPendienteTotalCentavos()),
+                String.valueOf(p.getCantidadCuotasEnMora()),
+                FormatoMoneda.formatear(p.getTotalPenalidadesAcumuladasCentavos()));
     }
 
     /**
@@ -504,52 +641,74 @@ public class Main {
      * @param cuotas La lista de cuotas a mostrar.
      */
     private static void dibujarTablaCuotas(List<Cuota> cuotas) {
-        String[] headers = {"Num", "Monto Original", "Monto Pagado", "Saldo Pendiente", "Penalidad", "Vencimiento", "Estado"};
-        int[] widths = {5, 17, 17, 18, 13, 14, 15};
-
-        imprimirLineaSeparadora(widths);
-        imprimirFila(headers, widths, false, new boolean[headers.length]);
-        imprimirLineaSeparadora(widths);
+        PrintWriter salida = TablaConsola.abrirSalidaConsola();
+        escribirTablaCuotas(salida, cuotas);
+        salida.flush();
+    }
 
-        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "AR"));
-        boolean[] alignRight = {true, true, true, true, true, false, false};
+    /**
+     * Escribe la tabla completa de cuotas de un préstamo.
+     * @param salida La salida donde se escribe.
+     * @param cuotas La lista de cuotas a mostrar.
+     */
+    private static void escribirTablaCuotas(PrintWriter salida, List<Cuota> cuotas) {
+        TABLA_CUOTAS.escribirEncabezado(salida);
         for (Cuota c : cuotas) {
-            String penalidadStr = (c.getMontoPenalidadAcumulada() > 0) ? currencyFormat.format(c.getMontoPenalidadAcumulada()) : "-";
-            String[] rowData = {
+            String penalidadStr = (c.getMontoPenalidadAcumuladaCentavos() > 0) ? c.getMontoPenalidadAcumuladaFormateado() : "-";
+            TABLA_CUOTAS.escribirFila(salida,
                     String.valueOf(c.getNumeroCuota()),
-                    currencyFormat.format(c.getMontoOriginal()),
-                    currencyFormat.format(c.getMontoPagado()),
-                    currencyFormat.format(c.getSaldoPendiente()),
+                    c.getMontoOriginalFormateado(),
+                    c.getMontoPagadoFormateado(),
+                    c.getSaldoPendienteFormateado(),
                     penalidadStr,
                     c.getFechaVencimiento().toString(),
-                    c.getEstado().name()
-            };
-            imprimirFila(rowData, widths, false, alignRight);
+                    c.getEstado().name());
         }
-        imprimirLineaSeparadora(widths);
+        TABLA_CUOTAS.escribirCierre(salida);
     }
 
     /**
-     * Imprime una fila de una tabla en la consola con el formato y alineación especificados.
-     * @param data Array de Strings con los datos de cada celda.
-     * @param widths Array de enteros con el ancho de cada columna.
-     * @param alignAllRight Booleano obsoleto para alinear todo a la derecha.
-     * @param alignRightSpecific Array booleano que indica qué columnas específicas alinear a la derecha.
+     * Muestra un listado largo de a una página por vez. Entre páginas el usuario puede seguir con Enter,
+     * mostrar todo lo que resta sin pausas con 't' o volver al menú con 'q'. Si el listado entra en una
+     * página se muestra completo, sin preguntar.
+     * @param elementos Los elementos a listar.
+     * @param porPagina La cantidad de elementos por página.
+     * @param tabla La tabla cuya cabecera y cierre rodean cada tramo mostrado, o {@code null} si no hay tabla.
+     * @param escribir Escribe un elemento en la salida.
+     * @param <T> El tipo de los elementos listados.
      */
-    private static void imprimirFila(String[] data, int[] widths, boolean alignAllRight, boolean[] alignRightSpecific) {
-        StringBuilder row = new StringBuilder("|");
-        for (int i = 0; i < data.length; i++) {
-            String cell = data[i];
-            int width = widths[i];
-            boolean shouldAlignRight = (alignRightSpecific != null && i < alignRightSpecific.length && alignRightSpecific[i]);
-
-            if (shouldAlignRight) {
-                row.append(String.format(" %" + (width - 1) + "s |", cell));
-            } else {
-                row.append(String.format(" %-" + (width - 1) + "s |", cell));
+    private static <T> void mostrarPaginado(List<T> elementos, int porPagina, TablaConsola tabla, BiConsumer<PrintWriter, T> escribir) {
+        PrintWriter salida = TablaConsola.abrirSalidaConsola();
+        TablaConsola.Cursor<T> cursor = new TablaConsola.Cursor<>(elementos, porPagina);
+        boolean pausar = true;
+        if (tabla != null) {
+            tabla.escribirEncabezado(salida);
+        }
+        while (cursor.hayMas()) {
+            for (T elemento : cursor.siguientePagina()) {
+                escribir.accept(salida, elemento);
+            }
+            if (pausar && cursor.hayMas()) {
+                if (tabla != null) {
+                    tabla.escribirCierre(salida);
+                }
+                salida.flush();
+                System.out.print("-- Mostrados " + cursor.getPosicion() + " de " + cursor.getTotal()
+                        + ". Enter: página siguiente, 't': mostrar todo, 'q': volver -- ");
+                String respuesta = scanner.nextLine().trim();
+                if (respuesta.equalsIgnoreCase("q")) {
+                    return;
+                }
+                pausar = !respuesta.equalsIgnoreCase("t");
+                if (tabla != null) {
+                    tabla.escribirEncabezado(salida);
+                }
             }
         }
-        System.out.println(row.toString());
+        if (tabla != null) {
+            tabla.escribirCierre(salida);
+        }
+        salida.flush();
     }
 
     /**
@@ -566,20 +725,6 @@ public class Main {
         }
 
         List<Prestamo> prestamos = GESTOR_PRESTAMO.obtenerPrestamosPorCliente(dni);
-        prestamos.forEach(p -> p.verificarMoraDeCuotas(LocalDate.now()));
         GESTOR_REPORTES.generarReporteCliente(cliente, prestamos);
     }
-
-    /**
-     * Imprime una línea separadora para una tabla en la consola (ej: +-----+------+).
-     * @param widths Array de enteros con el ancho de cada columna para dibujar la línea.
-     */
-    private static void imprimirLineaSeparadora(int[] widths) {
-        StringBuilder line = new StringBuilder("+");
-        for (int width : widths) {
-            line.append("-".repeat(width));
-            line.append("+");
-        }
-        System.out.println(line.toString());
-    }
-}
\ No newline at end of file
+}
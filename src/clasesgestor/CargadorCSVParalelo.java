@@ -0,0 +1,227 @@
+package clasesgestor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Cargador de archivos CSV compartido por los gestores.
+ * Mapea el archivo en memoria, lo divide en bloques alineados a fin de línea y parsea
+ * los bloques en paralelo sobre el ForkJoinPool común, cada uno con su propio {@link EscanerCSV}.
+ * Los resultados se combinan en el orden del archivo, por lo que la carga es determinista,
+ * y las advertencias de líneas mal formadas se informan con su número de línea.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+final class CargadorCSVParalelo {
+
+    /**
+     * Convierte una línea del CSV en un objeto.
+     * @param <T> El tipo de objeto que produce la línea.
+     */
+    @FunctionalInterface
+    interface ParserLinea<T> {
+        /**
+         * Parsea una línea de datos.
+         * @param linea El escáner posicionado al comienzo de la línea, sin el salto de línea final.
+         * @param advertencias Destino de los mensajes de advertencia si la línea se omite.
+         * @return el objeto parseado, o {@code null} si la línea se omite.
+         */
+        T parsear(EscanerCSV linea, Consumer<String> advertencias);
+    }
+
+    /** Por debajo de este tamaño el archivo se lee en un único bloque, sin mapearlo. */
+    private static final long UMBRAL_MAPEO = 8L * 1024 * 1024;
+    /** Tamaño aproximado de cada bloque que se parsea en paralelo. */
+    private static final long TAMANIO_BLOQUE = 4L * 1024 * 1024;
+
+    private CargadorCSVParalelo() {
+    }
+
+    /**
+     * Carga todas las líneas de datos de un archivo CSV.
+     *
+     * @param archivo El archivo a cargar.
+     * @param saltarCabecera {@code true} si la primera línea es una cabecera que debe omitirse.
+     * @param parser El parser de cada línea.
+     * @param <T> El tipo de objeto que produce cada línea.
+     * @return los objetos parseados, en el mismo orden que en el archivo.
+     * @throws IOException Si ocurre un error de lectura.
+     */
+    static <T> List<T> cargar(File archivo, boolean saltarCabecera, ParserLinea<T> parser) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio == 0) {
+                return new ArrayList<>();
+            }
+
+            long[] limites = calcularLimites(canal, tamanio);
+            List<ForkJoinTask<Bloque<T>>> tareas = new ArrayList<>();
+            for (int i = 0; i < limites.length - 1; i++) {
+                final long inicio = limites[i];
+                final long fin = limites[i + 1];
+                final boolean conCabecera = saltarCabecera && i == 0;
+                tareas.add(ForkJoinPool.commonPool().submit(() -> parsearBloque(canal, inicio, fin, conCabecera, parser)));
+            }
+
+            List<T> resultado = new ArrayList<>();
+            int lineasPrevias = 0;
+            for (ForkJoinTask<Bloque<T>> tarea : tareas) {
+                Bloque<T> bloque = obtener(tarea);
+                resultado.addAll(bloque.elementos);
+                for (int j = 0; j < bloque.mensajes.size(); j++) {
+                    int numeroLinea = lineasPrevias + bloque.lineasDeMensajes.get(j) + 1;
+                    System.err.println(bloque.mensajes.get(j) + " (" + archivo.getName() + ", línea " + numeroLinea + ")");
+                }
+                lineasPrevias += bloque.cantidadLineas;
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Calcula los desplazamientos de inicio de cada bloque, siempre justo después de un salto de línea.
+     * El último elemento del arreglo es el tamaño del archivo.
+     */
+    private static long[] calcularLimites(FileChannel canal, long tamanio) throws IOException {
+        if (tamanio < UMBRAL_MAPEO) {
+            return new long[]{0, tamanio};
+        }
+        int maxBloques = Math.max(1, ForkJoinPool.getCommonPoolParallelism() * 4);
+        int cantidad = (int) Math.min(maxBloques, (tamanio + TAMANIO_BLOQUE - 1) / TAMANIO_BLOQUE);
+        long tamanioBloque = Math.max(TAMANIO_BLOQUE, (tamanio + cantidad - 1) / cantidad);
+
+        List<Long> limites = new ArrayList<>();
+        limites.add(0L);
+        ByteBuffer ventana = ByteBuffer.allocate(8192);
+        long posicion = tamanioBloque;
+        while (posicion < tamanio) {
+            long finDeLinea = buscarFinDeLinea(canal, posicion, tamanio, ventana);
+            if (finDeLinea >= tamanio) {
+                break;
+            }
+            limites.add(finDeLinea + 1);
+            posicion = finDeLinea + 1 + tamanioBloque;
+        }
+        limites.add(tamanio);
+
+        long[] resultado = new long[limites.size()];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = limites.get(i);
+        }
+        return resultado;
+    }
+
+    /** Devuelve la posición del primer '\n' a partir de {@code desde}, o {@code tamanio} si no hay ninguno. */
+    private static long buscarFinDeLinea(FileChannel canal, long desde, long tamanio, ByteBuffer ventana) throws IOException {
+        long posicion = desde;
+        while (posicion < tamanio) {
+            ventana.clear();
+            int leidos = canal.read(ventana, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (ventana.get(i) == '\n') {
+                    return posicion + i;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamanio;
+    }
+
+    /**
+     * Parsea las líneas comprendidas entre {@code inicio} y {@code fin}.
+     * Un único {@link EscanerCSV} recorre todas las líneas del bloque directamente sobre el buffer.
+     */
+    private static <T> Bloque<T> parsearBloque(FileChannel canal, long inicio, long fin,
+                                               boolean saltarCabecera, ParserLinea<T> parser) throws IOException {
+        ByteBuffer datos = leerRegion(canal, inicio, fin - inicio);
+        Bloque<T> bloque = new Bloque<>();
+        EscanerCSV escaner = new EscanerCSV();
+        int limite = datos.limit();
+        int inicioLinea = 0;
+
+        while (inicioLinea < limite) {
+            int finLinea = inicioLinea;
+            while (finLinea < limite && datos.get(finLinea) != '\n') {
+                finLinea++;
+            }
+            int finSinRetorno = (finLinea > inicioLinea && datos.get(finLinea - 1) == '\r') ? finLinea - 1 : finLinea;
+            int indiceLinea = bloque.cantidadLineas++;
+
+            if (!(saltarCabecera && indiceLinea == 0)) {
+                escaner.posicionar(datos, inicioLinea, finSinRetorno);
+                T elemento = parser.parsear(escaner, bloque);
+                if (elemento != null) {
+                    bloque.elementos.add(elemento);
+                }
+            }
+            inicioLinea = finLinea + 1;
+        }
+        return bloque;
+    }
+
+    /** Mapea la región en memoria si es grande, o la lee a un buffer en el heap si es pequeña. */
+    private static ByteBuffer leerRegion(FileChannel canal, long inicio, long largo) throws IOException {
+        if (largo >= UMBRAL_MAPEO) {
+            return canal.map(FileChannel.MapMode.READ_ONLY, inicio, largo);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) largo);
+        long posicion = inicio;
+        while (buffer.hasRemaining()) {
+            int leidos = canal.read(buffer, posicion);
+            if (leidos < 0) {
+                break;
+            }
+            posicion += leidos;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /** Espera el resultado de una tarea, propagando los errores de entrada/salida. */
+    private static <T> Bloque<T> obtener(ForkJoinTask<Bloque<T>> tarea) throws IOException {
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Resultado parcial de un bloque: los objetos, las advertencias y la cantidad de líneas leídas.
+     * También recibe las advertencias de la línea en curso, para no crear un consumidor por línea.
+     */
+    private static final class Bloque<T> implements Consumer<String> {
+        private final List<T> elementos = new ArrayList<>();
+        private final List<String> mensajes = new ArrayList<>();
+        private final List<Integer> lineasDeMensajes = new ArrayList<>();
+        private int cantidadLineas;
+
+        @Override
+        public void accept(String mensaje) {
+            mensajes.add(mensaje);
+            lineasDeMensajes.add(cantidadLineas - 1);
+        }
+    }
+}
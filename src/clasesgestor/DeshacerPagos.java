@@ -0,0 +1,45 @@
+package clasesgestor;
+
+import clasesmodelo.Cuota;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recuerda el estado de las cuotas antes de aplicarles pagos, para poder devolverlas a ese estado
+ * si después los pagos no se pueden persistir. Así un pago que no llegó al libro de pagos
+ * tampoco queda reflejado en las cuotas en memoria.
+ * <p>
+ * No es seguro para varios hilos: cada instancia la usa un único hilo, bajo el bloqueo del préstamo.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+final class DeshacerPagos {
+    private final List<Cuota> cuotas = new ArrayList<>();
+    private final List<long[]> montos = new ArrayList<>();
+    private final List<Cuota.EstadoCuota> estados = new ArrayList<>();
+
+    /**
+     * Guarda el estado actual de una cuota. Debe llamarse antes de aplicarle el pago.
+     * @param cuota La cuota que se va a modificar.
+     */
+    void recordar(Cuota cuota) {
+        cuotas.add(cuota);
+        montos.add(new long[] {cuota.getMontoPagadoCentavos(), cuota.getMontoPenalidadAcumuladaCentavos()});
+        estados.add(cuota.getEstado());
+    }
+
+    /**
+     * Devuelve las cuotas recordadas a su estado anterior, de la última a la primera, de modo que
+     * una cuota recordada varias veces queda como estaba antes del primer pago.
+     */
+    void deshacer() {
+        for (int i = cuotas.size() - 1; i >= 0; i--) {
+            long[] previos = montos.get(i);
+            cuotas.get(i).restaurarEstado(previos[0], previos[1], estados.get(i));
+        }
+        cuotas.clear();
+        montos.clear();
+        estados.clear();
+    }
+}
@@ -0,0 +1,259 @@
+package clasesgestor;
+
+import clasesmodelo.Dinero;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Escáner de campos CSV separado por ';' que trabaja directamente sobre los bytes del archivo.
+ * Una misma instancia se reutiliza para todas las líneas de un bloque: los enteros, montos y fechas
+ * se parsean desde el buffer sin crear Strings intermedios; solo se crea un String cuando
+ * el campo es de texto o cuando hace falta informar una línea inválida.
+ * <p>
+ * Los montos se convierten con {@link Dinero#parsear} y las fechas fuera de aaaa-mm-dd se delegan en
+ * {@link LocalDate#parse(CharSequence)}, de modo que las líneas aceptadas y rechazadas son las mismas
+ * que con el parseo basado en {@code String.split}.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+final class EscanerCSV {
+
+    private static final byte SEPARADOR = ';';
+    /** Misma codificación que usan FileReader y FileWriter al leer y guardar los CSV. */
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    private ByteBuffer datos;
+    private int inicioLinea;
+    private int finLinea;
+    private int posicion;
+    private byte[] auxiliar = new byte[64];
+    private final VistaCampo vistaCampo = new VistaCampo();
+
+    /**
+     * Posiciona el escáner sobre una línea del buffer (sin el salto de línea).
+     * @param datos El buffer con el contenido del archivo.
+     * @param inicio El índice del primer byte de la línea.
+     * @param fin El índice siguiente al último byte de la línea.
+     */
+    void posicionar(ByteBuffer datos, int inicio, int fin) {
+        this.datos = datos;
+        this.inicioLinea = inicio;
+        this.finLinea = fin;
+        this.posicion = inicio;
+    }
+
+    /**
+     * Cuenta los campos de la línea con la misma regla que {@code linea.split(";").length}:
+     * los campos vacíos al final no se cuentan, salvo que la línea completa esté vacía.
+     * @return la cantidad de campos.
+     */
+    int cantidadCampos() {
+        if (finLinea == inicioLinea) {
+            return 1;
+        }
+        int campos = 0;
+        int ultimoNoVacio = 0;
+        int inicioCampo = inicioLinea;
+        for (int i = inicioLinea; i <= finLinea; i++) {
+            if (i == finLinea || datos.get(i) == SEPARADOR) {
+                campos++;
+                if (i > inicioCampo) {
+                    ultimoNoVacio = campos;
+                }
+                inicioCampo = i + 1;
+            }
+        }
+        return ultimoNoVacio;
+    }
+
+    /**
+     * @return la línea completa como texto, para mensajes de advertencia.
+     */
+    String linea() {
+        return texto(inicioLinea, finLinea);
+    }
+
+    /**
+     * Lee el siguiente campo como texto.
+     * @return el contenido del campo.
+     */
+    String campoTexto() {
+        int fin = finDeCampo();
+        String texto = texto(posicion, fin);
+        avanzar(fin);
+        return texto;
+    }
+
+    /**
+     * Compara el siguiente campo con un texto ASCII, ignorando mayúsculas, y lo consume.
+     * @param esperado El texto a comparar.
+     * @return {@code true} si el campo coincide.
+     */
+    boolean campoIgualIgnorandoMayusculas(String esperado) {
+        int fin = finDeCampo();
+        boolean igual = fin - posicion == esperado.length();
+        for (int i = 0; igual && i < esperado.length(); i++) {
+            int c = datos.get(posicion + i) & 0xFF;
+            igual = Character.toLowerCase(c) == Character.toLowerCase(esperado.charAt(i));
+        }
+        avanzar(fin);
+        return igual;
+    }
+
+    /**
+     * Lee el siguiente campo como entero, con las mismas reglas que {@link Integer#parseInt(String)}.
+     * @return el valor del campo.
+     * @throws NumberFormatException Si el campo no es un entero válido.
+     */
+    int campoEntero() {
+        int fin = finDeCampo();
+        int i = posicion;
+        boolean negativo = false;
+        if (i < fin && (datos.get(i) == '-' || datos.get(i) == '+')) {
+            negativo = datos.get(i) == '-';
+            i++;
+        }
+        if (i == fin) {
+            throw errorNumerico(posicion, fin);
+        }
+        long valor = 0;
+        for (; i < fin; i++) {
+            int digito = datos.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw errorNumerico(posicion, fin);
+            }
+            valor = valor * 10 + digito;
+            if (valor > (long) Integer.MAX_VALUE + 1) {
+                throw errorNumerico(posicion, fin);
+            }
+        }
+        if (negativo) {
+            valor = -valor;
+        }
+        if (valor > Integer.MAX_VALUE) {
+            throw errorNumerico(posicion, fin);
+        }
+        avanzar(fin);
+        return (int) valor;
+    }
+
+    /**
+     * Lee el siguiente campo como monto de dinero y lo convierte a centavos de forma exacta con {@link Dinero#parsear}.
+     * Acepta los mismos textos que escribe el sistema, tanto actuales ("1234.56") como anteriores ("1.85E7").
+     *
+     * @return el monto del campo, en centavos.
+     * @throws NumberFormatException Si el campo no es un monto válido.
+     */
+    long campoCentavos() {
+        int fin = finDeCampo();
+        vistaCampo.desde = posicion;
+        vistaCampo.hasta = fin;
+        long centavos = Dinero.parsear(vistaCampo);
+        avanzar(fin);
+        return centavos;
+    }
+
+    /**
+     * Lee el siguiente campo como fecha ISO (aaaa-mm-dd), con el mismo resultado que {@link LocalDate#parse(CharSequence)}.
+     * @return la fecha del campo.
+     * @throws java.time.format.DateTimeParseException Si el campo no es una fecha válida.
+     */
+    LocalDate campoFecha() {
+        int fin = finDeCampo();
+        LocalDate fecha = null;
+        if (fin - posicion == 10 && datos.get(posicion + 4) == '-' && datos.get(posicion + 7) == '-') {
+            int anio = digitos(posicion, 4);
+            int mes = digitos(posicion + 5, 2);
+            int dia = digitos(posicion + 8, 2);
+            if (anio >= 0 && mes >= 0 && dia >= 0) {
+                try {
+                    fecha = LocalDate.of(anio, mes, dia);
+                } catch (DateTimeException e) {
+                    fecha = null; // Fecha inexistente: LocalDate.parse genera el mensaje de error correspondiente
+                }
+            }
+        }
+        if (fecha == null) {
+            fecha = LocalDate.parse(texto(posicion, fin));
+        }
+        avanzar(fin);
+        return fecha;
+    }
+
+    /** Convierte {@code cantidad} dígitos ASCII a entero, o devuelve -1 si alguno no es dígito. */
+    private int digitos(int desde, int cantidad) {
+        int valor = 0;
+        for (int i = desde; i < desde + cantidad; i++) {
+            int digito = datos.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    /** Devuelve el índice del separador que cierra el campo actual, o el fin de la línea. */
+    private int finDeCampo() {
+        int i = posicion;
+        while (i < finLinea && datos.get(i) != SEPARADOR) {
+            i++;
+        }
+        return i;
+    }
+
+    /** Mueve la posición al comienzo del campo siguiente. */
+    private void avanzar(int finCampo) {
+        posicion = Math.min(finCampo + 1, finLinea);
+    }
+
+    /** Decodifica un rango del buffer con la codificación de los archivos CSV. */
+    private String texto(int desde, int hasta) {
+        int largo = hasta - desde;
+        if (datos.hasArray()) {
+            return new String(datos.array(), datos.arrayOffset() + desde, largo, CHARSET);
+        }
+        if (auxiliar.length < largo) {
+            auxiliar = new byte[Math.max(largo, auxiliar.length * 2)];
+        }
+        datos.get(desde, auxiliar, 0, largo);
+        return new String(auxiliar, 0, largo, CHARSET);
+    }
+
+    /**
+     * Vista de solo lectura sobre el campo actual, para parsearlo como texto sin copiar los bytes.
+     * Los CSV del sistema usan dígitos y signos ASCII, por lo que cada byte corresponde a un carácter.
+     */
+    private final class VistaCampo implements CharSequence {
+        private int desde;
+        private int hasta;
+
+        @Override
+        public int length() {
+            return hasta - desde;
+        }
+
+        @Override
+        public char charAt(int indice) {
+            return (char) (datos.get(desde + indice) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int inicio, int fin) {
+            return toString().subSequence(inicio, fin);
+        }
+
+        @Override
+        public String toString() {
+            return texto(desde, hasta);
+        }
+    }
+
+    /** Construye el mismo tipo de error que informa {@link Integer#parseInt(String)}. */
+    private NumberFormatException errorNumerico(int desde, int hasta) {
+        return new NumberFormatException("For input string: \"" + texto(desde, hasta) + "\"");
+    }
+}
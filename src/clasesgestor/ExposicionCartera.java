@@ -0,0 +1,107 @@
+package clasesgestor;
+
+import clasesmodelo.ObservadorCartera;
+import clasesmodelo.Prestamo;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mantiene la exposición de toda la cartera de préstamos: saldo pendiente total, saldo en mora
+ * y saldo pendiente por tipo de préstamo (personal e hipotecario), todo en centavos.
+ * <p>
+ * Los totales se actualizan en el momento en que cambian: al agregar o quitar un préstamo y, como
+ * {@link ObservadorCartera}, cada vez que un pago o una mora modifican el saldo de alguno de ellos.
+ * Las consultas son lecturas de contadores, aptas para consultarse con mucha frecuencia
+ * (por ejemplo desde un tablero); {@link #recalcular(Iterable)} permite verificarlos contra los préstamos.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class ExposicionCartera implements ObservadorCartera {
+    private final LongAdder saldoTotal = new LongAdder();
+    private final LongAdder saldoEnMora = new LongAdder();
+    private final LongAdder saldoPersonal = new LongAdder();
+    private final LongAdder saldoHipotecario = new LongAdder();
+
+    /**
+     * Suma los saldos de un préstamo que se incorpora a la cartera y empieza a observar sus cambios.
+     * @param prestamo El préstamo agregado.
+     */
+    void agregarPrestamo(Prestamo prestamo) {
+        acumular(prestamo, prestamo.calcularSaldoPendienteTotalCentavos(), prestamo.getSaldoEnMoraCentavos());
+        prestamo.setObservadorCartera(this);
+    }
+
+    /**
+     * Resta los saldos de un préstamo que sale de la cartera y deja de observar sus cambios.
+     * @param prestamo El préstamo eliminado.
+     */
+    void quitarPrestamo(Prestamo prestamo) {
+        prestamo.setObservadorCartera(null);
+        acumular(prestamo, -prestamo.calcularSaldoPendienteTotalCentavos(), -prestamo.getSaldoEnMoraCentavos());
+    }
+
+    @Override
+    public void saldosCambiados(Prestamo prestamo, long variacionSaldo, long variacionSaldoEnMora) {
+        acumular(prestamo, variacionSaldo, variacionSaldoEnMora);
+    }
+
+    /**
+     * Recalcula los totales desde cero recorriendo los préstamos indicados.
+     *
+     * @param prestamos Todos los préstamos de la cartera.
+     * @return {@code true} si los totales mantenidos coincidían con el recálculo.
+     */
+    boolean recalcular(Iterable<Prestamo> prestamos) {
+        long total = 0;
+        long mora = 0;
+        long personal = 0;
+        long hipotecario = 0;
+        for (Prestamo p : prestamos) {
+            long saldo = p.calcularSaldoPendienteTotalCentavos();
+            total += saldo;
+            mora += p.getSaldoEnMoraCentavos();
+            if (p.esHipotecario()) {
+                hipotecario += saldo;
+            } else {
+                personal += saldo;
+            }
+        }
+        boolean coincidian = total == getSaldoTotalCentavos() && mora == getSaldoEnMoraCentavos()
+                && personal == getSaldoPersonalCentavos() && hipotecario == getSaldoHipotecarioCentavos();
+        reemplazar(saldoTotal, total);
+        reemplazar(saldoEnMora, mora);
+        reemplazar(saldoPersonal, personal);
+        reemplazar(saldoHipotecario, hipotecario);
+        return coincidian;
+    }
+
+    /** @return el saldo pendiente de toda la cartera, en centavos. */
+    public long getSaldoTotalCentavos() { return saldoTotal.sum(); }
+    /** @return el saldo pendiente de las cuotas en mora de toda la cartera, en centavos. */
+    public long getSaldoEnMoraCentavos() { return saldoEnMora.sum(); }
+    /** @return el saldo pendiente de los préstamos personales, en centavos. */
+    public long getSaldoPersonalCentavos() { return saldoPersonal.sum(); }
+    /** @return el saldo pendiente de los préstamos hipotecarios, en centavos. */
+    public long getSaldoHipotecarioCentavos() { return saldoHipotecario.sum(); }
+
+    /**
+     * Helper privado que aplica una variación de saldo a los contadores correspondientes.
+     */
+    private void acumular(Prestamo prestamo, long variacionSaldo, long variacionSaldoEnMora) {
+        if (variacionSaldo != 0) {
+            saldoTotal.add(variacionSaldo);
+            (prestamo.esHipotecario() ? saldoHipotecario : saldoPersonal).add(variacionSaldo);
+        }
+        if (variacionSaldoEnMora != 0) {
+            saldoEnMora.add(variacionSaldoEnMora);
+        }
+    }
+
+    /**
+     * Helper privado que deja un contador en el valor indicado.
+     */
+    private static void reemplazar(LongAdder contador, long valor) {
+        contador.reset();
+        contador.add(valor);
+    }
+}
@@ -0,0 +1,211 @@
+package clasesgestor;
+
+import clasesmodelo.Cliente;
+import clasesmodelo.Prestamo;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Genera los estados de cuenta mensuales en PDF de todos los clientes, repartiendo la generación
+ * entre varios hilos de trabajo.
+ * <p>
+ * Los PDF de un período se guardan en {@code reportes/estados_AAAA-MM/}. Cada PDF se escribe en un
+ * archivo temporal y se renombra al terminar; recién entonces el DNI del cliente se anota en el archivo
+ * de progreso del período. Si la generación se interrumpe, volver a ejecutarla para el mismo período
+ * omite los clientes ya anotados y continúa con los pendientes.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class GeneradorReportesLote {
+    private static final String DIRECTORIO_REPORTES = "reportes";
+    private static final String ARCHIVO_PROGRESO = "progreso.txt";
+    /** Cantidad de avisos de progreso que se muestran a lo largo de un lote. */
+    private static final int AVISOS_PROGRESO = 20;
+
+    private final GestorCliente gestorCliente;
+    private final GestorPrestamo gestorPrestamo;
+    private final GestorReportes gestorReportes;
+
+    /**
+     * Constructor del GeneradorReportesLote.
+     *
+     * @param gestorCliente El gestor de clientes, del que se toman todos los clientes.
+     * @param gestorPrestamo El gestor de préstamos, para obtener los préstamos de cada cliente.
+     * @param gestorReportes El gestor que dibuja cada reporte.
+     */
+    public GeneradorReportesLote(GestorCliente gestorCliente, GestorPrestamo gestorPrestamo, GestorReportes gestorReportes) {
+        this.gestorCliente = gestorCliente;
+        this.gestorPrestamo = gestorPrestamo;
+        this.gestorReportes = gestorReportes;
+    }
+
+    /**
+     * Genera los estados de cuenta de todos los clientes para un período, continuando una
+     * generación anterior del mismo período si quedó incompleta.
+     *
+     * @param periodo El mes de los estados de cuenta.
+     * @param hilos La cantidad de hilos de trabajo.
+     * @return el resumen de la generación.
+     */
+    public ResultadoLote generarTodos(YearMonth periodo, int hilos) {
+        long inicio = System.nanoTime();
+        File directorio = new File(DIRECTORIO_REPORTES, "estados_" + periodo);
+        if (!directorio.exists()) {
+            directorio.mkdirs();
+        }
+        File progreso = new File(directorio, ARCHIVO_PROGRESO);
+        Set<String> completados = leerProgreso(progreso);
+
+        List<Cliente> pendientes = new ArrayList<>();
+        for (Cliente cliente : gestorCliente.obtenerTodosLosClientes()) {
+            if (!completados.contains(cliente.getdni())) {
+                pendientes.add(cliente);
+            }
+        }
+        pendientes.sort(Comparator.comparing(Cliente::getdni));
+
+        int total = pendientes.size();
+        System.out.println("Generando " + total + " estado(s) de cuenta en " + directorio.getPath()
+                + " con " + hilos + " hilo(s)" + (completados.isEmpty() ? "." : " (" + completados.size() + " ya generados anteriormente)."));
+
+        AtomicInteger generados = new AtomicInteger();
+        AtomicInteger fallidos = new AtomicInteger();
+        AtomicInteger terminados = new AtomicInteger();
+        int pasoAviso = Math.max(1, total / AVISOS_PROGRESO);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.max(1, hilos));
+        try (FileWriter registro = new FileWriter(progreso, true)) {
+            for (Cliente cliente : pendientes) {
+                ejecutor.execute(() -> {
+                    try {
+                        generarUno(cliente, directorio);
+                        anotarCompletado(registro, cliente.getdni());
+                        generados.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        fallidos.incrementAndGet();
+                        System.err.println("Error al generar el estado de cuenta del cliente " + cliente.getdni() + ": " + e.getMessage());
+                    }
+                    int hechos = terminados.incrementAndGet();
+                    if (hechos % pasoAviso == 0 || hechos == total) {
+                        System.out.println("  Progreso: " + hechos + "/" + total + " (" + (hechos * 100 / total) + "%)");
+                    }
+                });
+            }
+            ejecutor.shutdown();
+            while (!ejecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Espera a que terminen todos los reportes encolados
+            }
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+            System.err.println("Advertencia: Generación interrumpida. Se puede continuar ejecutándola nuevamente.");
+        } catch (IOException e) {
+            ejecutor.shutdownNow();
+            System.err.println("Error al abrir el archivo de progreso " + progreso.getPath() + ": " + e.getMessage());
+        }
+
+        long milisegundos = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        return new ResultadoLote(generados.get(), completados.size(), fallidos.get(), milisegundos);
+    }
+
+    /**
+     * Helper privado que genera el PDF de un cliente en un temporal y lo renombra al terminar,
+     * para que un PDF a medio escribir nunca quede con el nombre definitivo.
+     */
+    private void generarUno(Cliente cliente, File directorio) throws IOException {
+        File destino = new File(directorio, "reporte_cliente_" + cliente.getdni() + ".pdf");
+        File temporal = new File(directorio, destino.getName() + ".tmp");
+        gestorReportes.escribirReporteCliente(cliente, copiarPrestamos(cliente.getdni()), temporal);
+        Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Helper privado que copia los préstamos de un cliente, cada uno mientras se tiene su bloqueo.
+     * El reporte se dibuja sobre las copias: un pago o el barrido de mora que ocurra durante el dibujo
+     * no puede dejar en el estado de cuenta una cuota a medio actualizar (por ejemplo, en mora sin su penalidad).
+     */
+    private List<Prestamo> copiarPrestamos(String dni) {
+        List<Prestamo> copias = new ArrayList<>();
+        for (Prestamo prestamo : gestorPrestamo.obtenerPrestamosPorCliente(dni)) {
+            Prestamo copia = gestorPrestamo.leerPrestamo(prestamo.getIdPrestamo(), Prestamo::copiar);
+            // Un préstamo eliminado desde que se listaron ya no figura en el estado de cuenta
+            if (copia != null) {
+                copias.add(copia);
+            }
+        }
+        return copias;
+    }
+
+    /**
+     * Helper privado que anota un cliente terminado en el archivo de progreso.
+     */
+    private static void anotarCompletado(FileWriter registro, String dni) throws IOException {
+        synchronized (registro) {
+            registro.write(dni + System.lineSeparator());
+            registro.flush();
+        }
+    }
+
+    /**
+     * Helper privado que lee los DNI ya generados del archivo de progreso, si existe.
+     */
+    private static Set<String> leerProgreso(File progreso) {
+        Set<String> completados = new HashSet<>();
+        if (!progreso.exists()) {
+            return completados;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(progreso))) {
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                if (!linea.isBlank()) {
+                    completados.add(linea.trim());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Advertencia: No se pudo leer el progreso anterior, se generarán todos los reportes: " + e.getMessage());
+            completados.clear();
+        }
+        return completados;
+    }
+
+    /**
+     * Resumen de una generación en lote.
+     */
+    public static final class ResultadoLote {
+        private final int generados;
+        private final int omitidos;
+        private final int fallidos;
+        private final long milisegundos;
+
+        ResultadoLote(int generados, int omitidos, int fallidos, long milisegundos) {
+            this.generados = generados;
+            this.omitidos = omitidos;
+            this.fallidos = fallidos;
+            this.milisegundos = milisegundos;
+        }
+
+        /** @return la cantidad de reportes generados en esta ejecución. */
+        public int getGenerados() { return generados; }
+        /** @return la cantidad de clientes omitidos porque ya se habían generado en una ejecución anterior. */
+        public int getOmitidos() { return omitidos; }
+        /** @return la cantidad de reportes que no pudieron generarse. */
+        public int getFallidos() { return fallidos; }
+        /** @return la duración de la generación, en milisegundos. */
+        public long getMilisegundos() { return milisegundos; }
+    }
+}
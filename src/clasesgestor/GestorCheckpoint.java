@@ -0,0 +1,286 @@
+package clasesgestor;
+
+import clasesmodelo.Cuota;
+import clasesmodelo.Dinero;
+import clasesmodelo.Pago;
+import clasesmodelo.Prestamo;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Gestiona los checkpoints del libro de pagos.
+ * Un checkpoint persiste el estado de cada cuota (monto pagado, penalidad y estado) y traslada
+ * los pagos ya incorporados a ese estado al archivo histórico, de modo que pagos.csv no crece
+ * sin límite y al iniciar solo se reaplican los pagos registrados después del último checkpoint.
+ * <p>
+ * Para tolerar interrupciones, el checkpoint se confirma con un cambio de nombre atómico y un
+ * archivo de marca registra el trabajo pendiente (archivar y compactar) hasta que termina.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class GestorCheckpoint {
+    private static final int MAGIC = 0x4643484B; // "FCHK"
+    /** Versión 2: montos en centavos ({@code long}). La versión 1 guardaba los montos como {@code double}. */
+    private static final int VERSION = 2;
+    private static final int VERSION_MONTOS_DOUBLE = 1;
+    /** Cantidad de pagos pendientes a partir de la cual conviene realizar un checkpoint. */
+    public static final int UMBRAL_PAGOS_POR_DEFECTO = 50_000;
+
+    private final String archivoCheckpoint = "data/checkpoint_cuotas.dat";
+    private final String archivoMarca = "data/checkpoint.pendiente";
+
+    private final GestorPrestamo gestorPrestamo;
+    private final GestorPago gestorPago;
+    private int umbralPagos = UMBRAL_PAGOS_POR_DEFECTO;
+
+    /**
+     * Constructor del GestorCheckpoint.
+     *
+     * @param gestorPrestamo El gestor cuyos préstamos se incluyen en el checkpoint.
+     * @param gestorPago El gestor cuyo libro de pagos se compacta.
+     */
+    public GestorCheckpoint(GestorPrestamo gestorPrestamo, GestorPago gestorPago) {
+        this.gestorPrestamo = gestorPrestamo;
+        this.gestorPago = gestorPago;
+    }
+
+    /**
+     * @param umbralPagos La cantidad de pagos pendientes que dispara un checkpoint periódico.
+     */
+    public void setUmbralPagos(int umbralPagos) {
+        this.umbralPagos = umbralPagos;
+    }
+
+    /**
+     * Realiza un checkpoint solo si la cantidad de pagos desde el último alcanzó el umbral.
+     * Pensado para invocarse periódicamente, por ejemplo después de registrar pagos.
+     */
+    public synchronized void realizarCheckpointSiCorresponde() {
+        if (gestorPago.getCantidadPagos() >= umbralPagos) {
+            realizarCheckpoint();
+        }
+    }
+
+    /**
+     * Persiste el estado de todas las cuotas, archiva los pagos que ya están reflejados en él
+     * y compacta pagos.csv. Si no hay pagos nuevos desde el último checkpoint no hace nada.
+     */
+    public synchronized void realizarCheckpoint() {
+        // Todo el checkpoint se hace sin pagos ni bajas de préstamos en curso: así refleja exactamente
+        // los pagos plegados, y pagos.csv no cambia entre la marca y el descarte (la recuperación
+        // descarta tantos pagos del comienzo de pagos.csv como indica la marca).
+        gestorPrestamo.ejecutarEnExclusiva(() -> {
+            // Un checkpoint anterior que no pudo completarse se termina antes de plegar más pagos,
+            // para no volver a archivar los que ya están en el histórico
+            if (new File(archivoMarca).exists()) {
+                recuperarCheckpointPendiente();
+                if (new File(archivoMarca).exists()) {
+                    return null;
+                }
+            }
+            long longitudHistorico = gestorPago.longitudArchivoHistorico();
+            List<Pago> pagosPlegados = confirmarCheckpoint(longitudHistorico);
+            if (pagosPlegados != null) {
+                completarCheckpoint(pagosPlegados, longitudHistorico);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Helper privado que escribe el checkpoint y su marca y lo confirma con el cambio de nombre.
+     * @return los pagos plegados en el checkpoint, o {@code null} si no había pagos o no se pudo escribir.
+     */
+    private List<Pago> confirmarCheckpoint(long longitudHistorico) {
+        List<Pago> pagosPlegados = gestorPago.getAllPagos();
+        if (pagosPlegados.isEmpty()) {
+            return null;
+        }
+        long idCheckpoint = System.currentTimeMillis();
+        File checkpoint = new File(archivoCheckpoint);
+        File temporal = new File(archivoCheckpoint + ".tmp");
+        File directorio = checkpoint.getParentFile();
+        if (directorio != null && !directorio.exists()) {
+            directorio.mkdirs();
+        }
+
+        try {
+            escribirCheckpoint(temporal, idCheckpoint);
+            escribirMarca(idCheckpoint, pagosPlegados.size(), longitudHistorico);
+            // Punto de confirmación: a partir de aquí el checkpoint ya refleja los pagos plegados
+            Files.move(temporal.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return pagosPlegados;
+        } catch (IOException e) {
+            System.err.println("Error al escribir el checkpoint de cuotas: " + e.getMessage());
+            temporal.delete();
+            new File(archivoMarca).delete();
+            return null;
+        }
+    }
+
+    /**
+     * Completa un checkpoint interrumpido, si lo hay. Debe llamarse al iniciar, después de cargar
+     * los pagos y antes de reaplicarlos, para que los pagos ya incluidos en el checkpoint no se dupliquen.
+     */
+    public synchronized void recuperarCheckpointPendiente() {
+        File marca = new File(archivoMarca);
+        if (!marca.exists()) {
+            return;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(marca))) {
+            String[] datos = br.readLine().split(";");
+            long idCheckpoint = Long.parseLong(datos[0]);
+            int cantidadPlegados = Integer.parseInt(datos[1]);
+            long longitudHistorico = Long.parseLong(datos[2]);
+
+            if (idCheckpoint == leerIdCheckpoint()) {
+                List<Pago> pagos = gestorPago.getAllPagos();
+                completarCheckpoint(pagos.subList(0, Math.min(cantidadPlegados, pagos.size())), longitudHistorico);
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Advertencia: Marca de checkpoint ilegible, se descarta: " + e.getMessage());
+        }
+        // El checkpoint no llegó a confirmarse: el libro de pagos sigue siendo la fuente completa
+        marca.delete();
+        new File(archivoCheckpoint + ".tmp").delete();
+    }
+
+    /**
+     * Aplica el estado de cuotas del último checkpoint a los préstamos cargados desde CSV.
+     * Solo se restauran los préstamos que siguen existiendo con los mismos datos de origen.
+     * Después de esto, {@link GestorPrestamo#aplicarPagosCargadosACuotas()} solo reaplica los pagos posteriores.
+     */
+    public void aplicarCheckpoint() {
+        File checkpoint = new File(archivoCheckpoint);
+        if (!checkpoint.exists()) {
+            return;
+        }
+        Cuota.EstadoCuota[] estados = Cuota.EstadoCuota.values();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpoint), 1 << 16))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version != VERSION && version != VERSION_MONTOS_DOUBLE) {
+                System.err.println("Advertencia: Checkpoint de cuotas con formato desconocido, se ignora.");
+                return;
+            }
+            boolean montosDouble = version == VERSION_MONTOS_DOUBLE;
+            in.readLong(); // ID del checkpoint
+            int cantidadPrestamos = in.readInt();
+            for (int i = 0; i < cantidadPrestamos; i++) {
+                String idPrestamo = in.readUTF();
+                String dniCliente = in.readUTF();
+                long monto = leerMonto(in, montosDouble);
+                long fechaInicio = in.readLong();
+                int cantidadCuotas = in.readInt();
+
+                Prestamo prestamo = gestorPrestamo.obtenerPrestamo(idPrestamo);
+                boolean mismoPrestamo = prestamo != null
+                        && prestamo.getDniCliente().equals(dniCliente)
+                        && prestamo.getMontoCentavos() == monto
+                        && prestamo.getFechaInicio().toEpochDay() == fechaInicio
+                        && prestamo.getNumeroCuotas() == cantidadCuotas;
+                List<Cuota> cuotas = mismoPrestamo ? prestamo.getCuotas() : null;
+                for (int n = 0; n < cantidadCuotas; n++) {
+                    long montoPagado = leerMonto(in, montosDouble);
+                    long penalidad = leerMonto(in, montosDouble);
+                    Cuota.EstadoCuota estado = estados[in.readByte()];
+                    if (cuotas != null) {
+                        cuotas.get(n).restaurarEstado(montoPagado, penalidad, estado);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error al aplicar el checkpoint de cuotas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper privado que archiva los pagos plegados, compacta el libro de pagos y borra la marca.
+     * La marca solo se borra cuando pagos.csv ya fue reemplazado; si algún paso falla se conserva,
+     * y el checkpoint se completa en el siguiente intento o al iniciar.
+     */
+    private void completarCheckpoint(List<Pago> pagosPlegados, long longitudHistorico) {
+        try {
+            gestorPago.anexarAlArchivoHistorico(pagosPlegados, longitudHistorico);
+        } catch (IOException e) {
+            System.err.println("Error al archivar pagos del checkpoint, se reintentará al iniciar: " + e.getMessage());
+            return;
+        }
+        try {
+            gestorPago.descartarPagosPlegados(pagosPlegados);
+        } catch (IOException e) {
+            System.err.println("Error al compactar pagos del checkpoint, se reintentará en el próximo checkpoint o al iniciar: " + e.getMessage());
+            return;
+        }
+        new File(archivoMarca).delete();
+    }
+
+    /**
+     * Helper privado que escribe el estado de todas las cuotas en el archivo indicado.
+     */
+    private void escribirCheckpoint(File destino, long idCheckpoint) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(destino);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(idCheckpoint);
+            List<Prestamo> prestamos = gestorPrestamo.listarPrestamos();
+            out.writeInt(prestamos.size());
+            for (Prestamo p : prestamos) {
+                out.writeUTF(p.getIdPrestamo());
+                out.writeUTF(p.getDniCliente());
+                out.writeLong(p.getMontoCentavos());
+                out.writeLong(p.getFechaInicio().toEpochDay());
+                List<Cuota> cuotas = p.getCuotas();
+                out.writeInt(cuotas.size());
+                for (Cuota c : cuotas) {
+                    out.writeLong(c.getMontoPagadoCentavos());
+                    out.writeLong(c.getMontoPenalidadAcumuladaCentavos());
+                    out.writeByte(c.getEstado().ordinal());
+                }
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+    }
+
+    /**
+     * Helper privado que registra el checkpoint en curso: su ID, cuántos pagos pliega
+     * y el tamaño del archivo histórico antes de archivarlos.
+     */
+    private void escribirMarca(long idCheckpoint, int cantidadPlegados, long longitudHistorico) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(archivoMarca)) {
+            String linea = idCheckpoint + ";" + cantidadPlegados + ";" + longitudHistorico;
+            fos.write(linea.getBytes(Charset.defaultCharset()));
+            fos.getFD().sync();
+        }
+    }
+
+    /**
+     * Helper privado que lee un monto en centavos, convirtiéndolo si el checkpoint es de la versión con {@code double}.
+     */
+    private static long leerMonto(DataInputStream in, boolean montosDouble) throws IOException {
+        return montosDouble ? Dinero.deDouble(in.readDouble()) : in.readLong();
+    }
+
+    /**
+     * Helper privado que lee el ID del checkpoint confirmado, o -1 si no hay ninguno.
+     */
+    private long leerIdCheckpoint() throws IOException {
+        File checkpoint = new File(archivoCheckpoint);
+        if (!checkpoint.exists()) {
+            return -1;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(checkpoint))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version != VERSION && version != VERSION_MONTOS_DOUBLE) {
+                return -1;
+            }
+            return in.readLong();
+        }
+    }
+}
@@ -2,14 +2,13 @@ package clasesgestor;
 
 import clasesmodelo.Cliente;
 import clasesmodelo.Prestamo;
+import clasesmodelo.FormatoMoneda;
 import java.io.*;
-import java.text.NumberFormat;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 /**
@@ -25,6 +24,10 @@ public class GestorCliente {
     private final GestorPrestamo gestorPrestamos;
     private final String archivoClientes = "data/clientes.csv";
     private static final String CSV_HEADER = "DNI;Nombre;Apellido;Direccion;Telefono;Correo";
+    private static final TablaConsola TABLA_PRESTAMOS = new TablaConsola(
+            new String[]{"ID Préstamo", "Monto", "Cuotas", "Tipo", "Fecha Inicio", "Saldo Pendiente", "Cuotas Mora", "Penalidades"},
+            new int[]{13, 15, 8, 12, 14, 18, 12, 15},
+            new boolean[]{true, true, true, true, true, true, true, true});
 
     /**
      * Constructor para el GestorCliente.
@@ -108,7 +111,6 @@ public class GestorCliente {
             List<Prestamo> prestamosDelCliente = gestorPrestamos.obtenerPrestamosPorCliente(dni);
             if (!prestamosDelCliente.isEmpty()) {
                 System.out.println("\n--- PRÉSTAMOS ASOCIADOS ---");
-                prestamosDelCliente.forEach(p -> p.verificarMoraDeCuotas(LocalDate.now()));
                 dibujarTablaPrestamos(prestamosDelCliente);
             } else {
                 System.out.println("  - Sin préstamos asociados");
@@ -186,6 +188,16 @@ public class GestorCliente {
     }
 
 
+    /**
+     * Devuelve una copia de todos los clientes registrados, sin mensajes por consola.
+     * Pensado para procesos en lote.
+     *
+     * @return una lista de objetos Cliente, vacía si no hay clientes.
+     */
+    public List<Cliente> obtenerTodosLosClientes() {
+        return new ArrayList<>(clientes.values());
+    }
+
     /**
      * Elimina un cliente del sistema. La operación falla si el cliente tiene préstamos asociados.
      *
@@ -203,7 +215,7 @@ public class GestorCliente {
             return false;
         }
 
-        if (gestorPrestamos != null && !gestorPrestamos.obtenerPrestamosPorCliente(dni).isEmpty()) {
+        if (gestorPrestamos != null && gestorPrestamos.tienePrestamos(dni)) {
             System.out.println("Error: El cliente con DNI " + dni + " tiene préstamos asociados y no puede ser eliminado.");
             return false;
         }
@@ -226,23 +238,31 @@ public class GestorCliente {
             return;
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            br.readLine(); // Saltar la cabecera
-
-            while ((linea = br.readLine()) != null) {
-                String[] datos = linea.split(";");
-                if (datos.length == 6) {
-                    clientes.put(datos[0], new Cliente(datos[0], datos[1], datos[2], datos[3], datos[4], datos[5]));
-                } else {
-                    System.err.println("Advertencia: Línea de cliente con formato incorrecto en CSV, se omite: " + linea);
-                }
+        try {
+            for (Cliente cliente : CargadorCSVParalelo.cargar(archivo, true, GestorCliente::parsearLineaCSV)) {
+                clientes.put(cliente.getdni(), cliente);
             }
         } catch (IOException e) {
             System.err.println("Error al cargar clientes desde CSV: " + e.getMessage());
         }
     }
 
+    /**
+     * Helper privado que convierte una línea del CSV de clientes en un objeto Cliente.
+     *
+     * @param linea La línea de datos.
+     * @param advertencias Destino del mensaje de advertencia si la línea se omite.
+     * @return el cliente parseado, o {@code null} si la línea es inválida.
+     */
+    private static Cliente parsearLineaCSV(EscanerCSV linea, Consumer<String> advertencias) {
+        if (linea.cantidadCampos() != 6) {
+            advertencias.accept("Advertencia: Línea de cliente con formato incorrecto en CSV, se omite: " + linea.linea());
+            return null;
+        }
+        return new Cliente(linea.campoTexto(), linea.campoTexto(), linea.campoTexto(),
+                linea.campoTexto(), linea.campoTexto(), linea.campoTexto());
+    }
+
     /**
      * Guarda el estado actual de todos los clientes del mapa en memoria a un archivo CSV.
      *
@@ -314,64 +334,20 @@ public class GestorCliente {
      * @param prestamos La lista de préstamos a mostrar.
      */
     private void dibujarTablaPrestamos(List<Prestamo> prestamos) {
-        String[] headers = {"ID Préstamo", "Monto", "Cuotas", "Tipo", "Fecha Inicio", "Saldo Pendiente", "Cuotas Mora", "Penalidades"};
-        int[] widths = {13, 15, 8, 12, 14, 18, 12, 15};
-
-        imprimirLineaSeparadora(widths);
-        imprimirFila(headers, widths, false, new boolean[headers.length]);
-        imprimirLineaSeparadora(widths);
-
-        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("es", "AR"));
-        boolean[] alignRight = {false, true, true, false, false, true, true, true};
+        PrintWriter salida = TablaConsola.abrirSalidaConsola();
+        TABLA_PRESTAMOS.escribirEncabezado(salida);
         for (Prestamo p : prestamos) {
-            String[] rowData = {
+            TABLA_PRESTAMOS.escribirFila(salida,
                     p.getIdPrestamo(),
-                    currencyFormat.format(p.getMonto()),
+                    p.getMontoFormateado(),
                     String.valueOf(p.getNumeroCuotas()),
                     p.getTipoPrestamoString(),
                     p.getFechaInicio().toString(),
-                    currencyFormat.format(p.calcularSaldoPendienteTotal()),
-                    String.valueOf(p.getCuotasEnMora().size()),
-                    currencyFormat.format(p.getTotalPenalidadesAcumuladas())
-            };
-            imprimirFila(rowData, widths, true, alignRight);
-        }
-        imprimirLineaSeparadora(widths);
-    }
-
-    /**
-     * Imprime una fila de una tabla en la consola con el formato y alineación especificados.
-     * @param data Array de Strings con los datos de cada celda.
-     * @param widths Array de enteros con el ancho de cada columna.
-     * @param alignAllRight Booleano obsoleto para alinear todo a la derecha.
-     * @param alignRightSpecific Array booleano que indica qué columnas específicas alinear a la derecha.
-     */
-    private void imprimirFila(String[] data, int[] widths, boolean alignAllRight, boolean[] alignRightSpecific) {
-        StringBuilder row = new StringBuilder("|");
-        for (int i = 0; i < data.length; i++) {
-            String cell = data[i];
-            int width = widths[i];
-            boolean shouldAlignRight = alignAllRight || (alignRightSpecific != null && i < alignRightSpecific.length && alignRightSpecific[i]);
-
-            if (shouldAlignRight) {
-                row.append(String.format(" %" + (width - 1) + "s |", cell));
-            } else {
-                row.append(String.format(" %-" + (width - 1) + "s |", cell));
-            }
-        }
-        System.out.println(row.toString());
-    }
-
-    /**
-     * Imprime una línea separadora para una tabla en la consola (ej: +-----+------+).
-     * @param widths Array de enteros con el ancho de cada columna para dibujar la línea.
-     */
-    private void imprimirLineaSeparadora(int[] widths) {
-        StringBuilder line = new StringBuilder("+");
-        for (int width : widths) {
-            line.append("-".repeat(width));
-            line.append("+");
+                    FormatoMoneda.formatear(p.calcularSaldoPendienteTotalCentavos()),
+                    String.valueOf(p.getCantidadCuotasEnMora()),
+                    FormatoMoneda.formatear(p.getTotalPenalidadesAcumuladasCentavos()));
         }
-        System.out.println(line.toString());
+        TABLA_PRESTAMOS.escribirCierre(salida);
+        salida.flush();
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,45 @@
 package clasesgestor;
 
+import clasesmodelo.Dinero;
 import clasesmodelo.Pago;
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Gestiona la colección de todas las transacciones de pago individuales.
  * Se encarga de la persistencia de los pagos en el archivo pagos.csv,
  * guardando cada pago que se realiza en el sistema.
+ * <p>
+ * En modo journal (activo por defecto) cada pago nuevo se anexa como un único registro
+ * al archivo pagos_journal.csv y se fuerza a disco, en lugar de reescribir todo pagos.csv.
+ * El journal se consolida en pagos.csv al compactar (por ejemplo, al salir del sistema).
+ * <p>
+ * Cada journal lleva en su primera línea un número de generación, y la cabecera de pagos.csv registra
+ * la última generación que ya consolidó. Al cargar se descarta un journal cuya generación no supera
+ * a la consolidada, de modo que un corte entre el reemplazo de pagos.csv y el borrado del journal
+ * (o un borrado fallido) no vuelve a aplicar sus pagos. Un journal sin cabecera, escrito antes de
+ * existir las generaciones, se considera de la generación 1.
+ * <p>
+ * Los pagos ya incorporados a un checkpoint se trasladan a pagos_archivo.csv, que solo se
+ * consulta para auditoría; pagos.csv conserva únicamente los pagos posteriores al último checkpoint.
+ * <p>
+ * Varios hilos pueden registrar pagos a la vez. La lista de pagos se protege con el monitor del gestor,
+ * que solo se retiene para agregar el pago a la lista y a la cola del journal; la escritura y el forzado
+ * a disco se hacen fuera del monitor, con compromiso en grupo: el hilo que toma el bloqueo del journal
+ * escribe todos los pagos encolados hasta ese momento con un único forzado a disco, y los hilos cuyos pagos
+ * viajaron en ese grupo retornan sin escribir. Las reescrituras de archivos toman primero el bloqueo
+ * del journal y luego el monitor.
  *
  * @author Tu Nombre
  * @version 1.2
@@ -18,23 +47,195 @@ import java.util.List;
 public class GestorPago {
     private List<Pago> pagos;
     private final String archivoPagos = "data/pagos.csv";
+    private final String archivoJournal = "data/pagos_journal.csv";
+    private final String archivoHistorico = "data/pagos_archivo.csv";
     private static final String CSV_HEADER = "ID_Prestamo;Numero_Cuota;Monto_Pagado;Fecha_Pago";
+    /** Sufijo de la cabecera de pagos.csv que indica la última generación del journal ya consolidada. */
+    private static final String SUFIJO_GENERACION = ";Generacion_Journal=";
+    /** Prefijo de la primera línea del journal, seguido de su generación. */
+    private static final String CABECERA_JOURNAL = "#Generacion;";
+    private boolean modoJournal = true;
+    /** Pagos agregados a la lista que todavía no se escribieron en el journal, en orden. Protegida por el monitor. */
+    private final List<SolicitudJournal> pendientesJournal = new ArrayList<>();
+    /** Serializa el acceso a los archivos de pagos; se toma antes que el monitor. */
+    private final ReentrantLock bloqueoJournal = new ReentrantLock();
+    /** Generación del journal que reciben los pagos nuevos. Protegida por el bloqueo del journal. */
+    private long generacionJournal;
+    /** {@code true} si el journal en disco ya pertenece a {@link #generacionJournal}. Protegida por el bloqueo del journal. */
+    private boolean journalIniciado;
 
     /**
      * Constructor del GestorPago. Inicializa la lista de pagos
      * y carga los registros existentes desde el archivo CSV.
      */
     public GestorPago() {
+        this(true);
+    }
+
+    /**
+     * Constructor del GestorPago que permite omitir la carga inicial del CSV,
+     * por ejemplo cuando el estado se va a restaurar desde un snapshot.
+     *
+     * @param cargarCSV {@code true} para cargar los pagos desde pagos.csv y el journal.
+     */
+    public GestorPago(boolean cargarCSV) {
         this.pagos = new ArrayList<>();
-        cargarDesdeArchivoCSV(archivoPagos);
+        inicializarGeneraciones();
+        if (cargarCSV) {
+            cargarDesdeArchivoCSV(archivoPagos);
+        }
     }
 
     /**
-     * Agrega una nueva transacción de pago a la lista y la guarda inmediatamente en el archivo CSV.
+     * Agrega una nueva transacción de pago a la lista y la guarda inmediatamente.
+     * En modo journal el pago se anexa al journal; en caso contrario se reescribe el archivo CSV.
+     * Si no se puede guardar, el pago no queda en la lista y se lanza la excepción, para que el
+     * llamador no lo dé por registrado.
      * @param pago El objeto Pago a agregar.
+     * @throws IOException Si el pago no pudo persistirse.
+     */
+    public void agregarPago(Pago pago) throws IOException {
+        agregarPagos(Collections.singletonList(pago));
+    }
+
+    /**
+     * Agrega un lote de transacciones de pago y las persiste con una única escritura:
+     * en modo journal todas se anexan al journal con un solo forzado a disco (compartido con los pagos
+     * que otros hilos registren al mismo tiempo); en caso contrario se reescribe el archivo CSV una sola vez.
+     * El método retorna cuando el lote ya está en disco. Si no se puede guardar, ningún pago del lote queda en la lista.
+     * @param lote Los pagos a agregar, en el orden en que se aplicaron.
+     * @throws IOException Si el lote no pudo persistirse.
+     */
+    public void agregarPagos(List<Pago> lote) throws IOException {
+        if (lote.isEmpty()) {
+            return;
+        }
+        SolicitudJournal solicitud = encolarEnJournal(lote);
+        if (solicitud == null) {
+            agregarReescribiendoCSV(lote);
+            return;
+        }
+        IOException error = persistirPendientes(solicitud);
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Helper privado que, en modo journal, agrega el lote a la lista y a la cola del journal.
+     * @return la solicitud encolada, o {@code null} si el modo journal está desactivado.
      */
-    public void agregarPago(Pago pago) {
-        this.pagos.add(pago);
+    private synchronized SolicitudJournal encolarEnJournal(List<Pago> lote) {
+        if (!modoJournal) {
+            return null;
+        }
+        this.pagos.addAll(lote);
+        SolicitudJournal solicitud = new SolicitudJournal(new ArrayList<>(lote));
+        pendientesJournal.add(solicitud);
+        return solicitud;
+    }
+
+    /**
+     * Helper privado que espera a que la solicitud quede en el journal. Si otro hilo ya la escribió en su
+     * grupo, retorna su resultado; si no, escribe como un solo grupo todas las solicitudes encoladas.
+     * Si el grupo falla, sus pagos se quitan de la lista antes de liberar el bloqueo del journal,
+     * para que ninguna reescritura de pagos.csv llegue a incluirlos.
+     *
+     * @return el error de escritura del grupo, o {@code null} si la solicitud quedó en disco.
+     */
+    private IOException persistirPendientes(SolicitudJournal solicitud) {
+        bloqueoJournal.lock();
+        try {
+            List<SolicitudJournal> grupo;
+            synchronized (this) {
+                if (solicitud.terminada) {
+                    return solicitud.error;
+                }
+                grupo = new ArrayList<>(pendientesJournal);
+                pendientesJournal.clear();
+            }
+
+            IOException error = null;
+            try {
+                anexarAlJournal(grupo);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            synchronized (this) {
+                if (error != null) {
+                    List<Pago> fallidos = new ArrayList<>();
+                    for (SolicitudJournal s : grupo) {
+                        fallidos.addAll(s.pagos);
+                    }
+                    quitarPagos(fallidos);
+                }
+                for (SolicitudJournal s : grupo) {
+                    s.terminada = true;
+                    s.error = error;
+                }
+            }
+            return error;
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Helper privado que agrega el lote y reescribe pagos.csv, cuando el modo journal está desactivado.
+     */
+    private void agregarReescribiendoCSV(List<Pago> lote) throws IOException {
+        bloqueoJournal.lock();
+        try {
+            synchronized (this) {
+                this.pagos.addAll(lote);
+                try {
+                    escribirArchivoCSV(archivoPagos);
+                } catch (IOException e) {
+                    this.pagos.subList(this.pagos.size() - lote.size(), this.pagos.size()).clear();
+                    throw e;
+                }
+            }
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Helper privado que quita de la lista los pagos indicados, identificados por instancia.
+     * Debe llamarse con el monitor tomado.
+     */
+    private void quitarPagos(List<Pago> quitar) {
+        Set<Pago> conjunto = Collections.newSetFromMap(new IdentityHashMap<>(quitar.size() * 2));
+        conjunto.addAll(quitar);
+        this.pagos.removeIf(conjunto::contains);
+    }
+
+    /**
+     * Activa o desactiva el modo journal. Al desactivarlo se consolida el journal pendiente
+     * para que pagos.csv vuelva a contener todas las transacciones.
+     *
+     * @param modoJournal {@code true} para anexar cada pago al journal, {@code false} para reescribir el CSV.
+     */
+    public void setModoJournal(boolean modoJournal) {
+        bloqueoJournal.lock();
+        try {
+            synchronized (this) {
+                if (this.modoJournal && !modoJournal) {
+                    compactarJournal();
+                }
+                this.modoJournal = modoJournal;
+            }
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Consolida el journal en pagos.csv: reescribe el archivo base con todos los pagos
+     * en memoria y luego vacía el journal.
+     */
+    public void compactarJournal() {
         guardarEnArchivoCSV(archivoPagos);
     }
 
@@ -44,10 +245,111 @@ public class GestorPago {
      *
      * @return una nueva lista conteniendo todos los objetos Pago.
      */
-    public List<Pago> getAllPagos() {
+    public synchronized List<Pago> getAllPagos() {
         return new ArrayList<>(this.pagos);
     }
 
+    /**
+     * Agrega a la lista en memoria pagos restaurados desde almacenamiento, sin volver a persistirlos.
+     * @param restaurados Los pagos restaurados, en orden.
+     */
+    synchronized void incorporarPagosCargados(List<Pago> restaurados) {
+        this.pagos.addAll(restaurados);
+    }
+
+    /**
+     * @return la cantidad de pagos registrados desde el último checkpoint.
+     */
+    public synchronized int getCantidadPagos() {
+        return this.pagos.size();
+    }
+
+    /**
+     * @return el tamaño actual en bytes del archivo histórico de pagos, o 0 si no existe.
+     */
+    long longitudArchivoHistorico() {
+        File historico = new File(archivoHistorico);
+        return historico.exists() ? historico.length() : 0;
+    }
+
+    /**
+     * Anexa pagos al archivo histórico y fuerza la escritura a disco. Antes de escribir, el archivo
+     * se trunca a {@code longitudInicial}, de modo que repetir la operación tras una interrupción
+     * no duplica registros.
+     *
+     * @param pagosArchivados Los pagos a archivar, en orden.
+     * @param longitudInicial El tamaño que tenía el archivo antes de comenzar a archivar este lote.
+     * @throws IOException Si ocurre un error de escritura.
+     */
+    synchronized void anexarAlArchivoHistorico(List<Pago> pagosArchivados, long longitudInicial) throws IOException {
+        crearDirectorioSiNoExiste(archivoHistorico);
+        try (RandomAccessFile raf = new RandomAccessFile(archivoHistorico, "rw")) {
+            raf.setLength(longitudInicial);
+            raf.seek(longitudInicial);
+            StringBuilder sb = new StringBuilder();
+            if (longitudInicial == 0) {
+                sb.append(CSV_HEADER).append(System.lineSeparator());
+            }
+            for (Pago p : pagosArchivados) {
+                sb.append(aLineaCSV(p)).append(System.lineSeparator());
+            }
+            raf.write(sb.toString().getBytes(Charset.defaultCharset()));
+            raf.getFD().sync();
+        }
+    }
+
+    /**
+     * Quita de la lista en memoria los pagos ya incorporados a un checkpoint y compacta pagos.csv
+     * para que solo contenga los demás. Los pagos se identifican por instancia, no por posición,
+     * de modo que un pago registrado o eliminado mientras tanto no altera cuáles se descartan.
+     *
+     * Si pagos.csv no puede reemplazarse, la lista en memoria queda como estaba, con los pagos plegados
+     * al comienzo, para que pagos.csv y la marca del checkpoint sigan siendo consistentes.
+     *
+     * @param plegados Los pagos incorporados al checkpoint.
+     * @throws IOException Si pagos.csv no pudo reemplazarse.
+     */
+    void descartarPagosPlegados(List<Pago> plegados) throws IOException {
+        bloqueoJournal.lock();
+        try {
+            synchronized (this) {
+                List<Pago> anteriores = new ArrayList<>(this.pagos);
+                quitarPagos(plegados);
+                try {
+                    escribirArchivoCSV(archivoPagos);
+                } catch (IOException e) {
+                    this.pagos = anteriores;
+                    throw e;
+                }
+            }
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Consulta en el archivo histórico los pagos de un préstamo que ya fueron incorporados a un checkpoint.
+     * Se utiliza para auditorías; estos pagos no se vuelven a aplicar al iniciar el sistema.
+     *
+     * @param idPrestamo El ID del préstamo a consultar.
+     * @return los pagos archivados del préstamo, en el orden en que se registraron.
+     */
+    public List<Pago> consultarPagosArchivados(String idPrestamo) {
+        File historico = new File(archivoHistorico);
+        if (!historico.exists()) {
+            return new ArrayList<>();
+        }
+        try {
+            return CargadorCSVParalelo.cargar(historico, true, (linea, advertencias) -> {
+                Pago pago = parsearLineaCSV(linea, advertencias);
+                return pago != null && pago.getIdPrestamo().equals(idPrestamo) ? pago : null;
+            });
+        } catch (IOException e) {
+            System.err.println("Error al consultar el archivo histórico de pagos: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Elimina todas las transacciones de pago asociadas a un ID de préstamo específico.
      * Después de la eliminación, guarda los cambios en el archivo CSV.
@@ -55,87 +357,295 @@ public class GestorPago {
      * @param idPrestamo El ID del préstamo cuyos pagos se deben eliminar.
      */
     public void eliminarPagosDePrestamo(String idPrestamo) {
-        // Usa removeIf para eliminar de la lista todos los pagos que coincidan con el idPrestamo.
-        boolean seEliminaronPagos = this.pagos.removeIf(pago -> pago.getIdPrestamo().equals(idPrestamo));
+        bloqueoJournal.lock();
+        try {
+            synchronized (this) {
+                // Usa removeIf para eliminar de la lista todos los pagos que coincidan con el idPrestamo.
+                boolean seEliminaronPagos = this.pagos.removeIf(pago -> pago.getIdPrestamo().equals(idPrestamo));
 
-        // Si se realizó alguna eliminación, guarda el estado actualizado del archivo de pagos.
-        if (seEliminaronPagos) {
-            guardarEnArchivoCSV(archivoPagos);
+                // Si se realizó alguna eliminación, guarda el estado actualizado del archivo de pagos.
+                if (seEliminaronPagos) {
+                    guardarEnArchivoCSV(archivoPagos);
+                }
+            }
+        } finally {
+            bloqueoJournal.unlock();
         }
     }
     /**
      * Carga las transacciones de pago desde un archivo CSV al iniciar el sistema.
-     * Lee el archivo línea por línea y las convierte en objetos Pago.
+     * El archivo se parsea en paralelo por bloques y las líneas se convierten en objetos Pago
+     * respetando el orden original.
      *
      * @param nombreArchivo La ruta del archivo CSV de pagos.
      */
-    public void cargarDesdeArchivoCSV(String nombreArchivo) {
+    public synchronized void cargarDesdeArchivoCSV(String nombreArchivo) {
         File archivo = new File(nombreArchivo);
-        if (!archivo.exists()) {
-            // No se imprime nada para una carga silenciosa al inicio
-            return;
+        if (archivo.exists()) {
+            try {
+                pagos.addAll(CargadorCSVParalelo.cargar(archivo, true, GestorPago::parsearLineaCSV));
+            } catch (IOException e) {
+                System.err.println("Error al cargar pagos desde CSV: " + e.getMessage());
+            }
         }
+        // Si no existe el archivo base no se imprime nada para una carga silenciosa al inicio
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            br.readLine(); // Saltar el encabezado
+        // Recuperación: los pagos anexados después de la última compactación están en el journal.
+        // Un journal de una generación ya consolidada en pagos.csv no se reaplica.
+        if (nombreArchivo.equals(archivoPagos) && journalIniciado) {
+            File journal = new File(archivoJournal);
+            if (journal.exists()) {
+                try {
+                    boolean conCabecera = leerPrimeraLinea(journal).startsWith(CABECERA_JOURNAL);
+                    pagos.addAll(CargadorCSVParalelo.cargar(journal, conCabecera, GestorPago::parsearLineaCSV));
+                } catch (IOException e) {
+                    System.err.println("Error al cargar el journal de pagos: " + e.getMessage());
+                }
+            }
+        }
+    }
 
-            while ((linea = br.readLine()) != null) {
-                String[] datos = linea.split(";");
+    /**
+     * Helper privado que determina, a partir de las cabeceras en disco, si el journal existente
+     * todavía no fue consolidado en pagos.csv. Si lo fue (o no hay journal), el próximo pago
+     * inicia un journal de la generación siguiente a la consolidada, reemplazando al anterior.
+     */
+    private void inicializarGeneraciones() {
+        long consolidada = 0;
+        long delJournal = 0;
+        try {
+            File base = new File(archivoPagos);
+            if (base.exists()) {
+                String cabecera = leerPrimeraLinea(base);
+                int i = cabecera.indexOf(SUFIJO_GENERACION);
+                if (i >= 0) {
+                    consolidada = Long.parseLong(cabecera.substring(i + SUFIJO_GENERACION.length()).trim());
+                }
+            }
+            File journal = new File(archivoJournal);
+            if (journal.exists()) {
+                truncarRegistroIncompleto(journal);
+                String primera = leerPrimeraLinea(journal);
+                delJournal = primera.startsWith(CABECERA_JOURNAL)
+                        ? Long.parseLong(primera.substring(CABECERA_JOURNAL.length()).trim())
+                        : 1;
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error al leer la generación del journal de pagos: " + e.getMessage());
+        }
+        if (delJournal > consolidada) {
+            this.generacionJournal = delJournal;
+            this.journalIniciado = true;
+        } else {
+            this.generacionJournal = consolidada + 1;
+            this.journalIniciado = false;
+        }
+    }
 
-                if (datos.length == 4) {
-                    try {
-                        String idPrestamo = datos[0];
-                        int numeroCuota = Integer.parseInt(datos[1]);
-                        double montoPagado = Double.parseDouble(datos[2]);
-                        LocalDate fechaPago = LocalDate.parse(datos[3]);
+    /**
+     * Helper privado que lee la primera línea de un archivo, o una cadena vacía si está vacío.
+     */
+    private static String leerPrimeraLinea(File archivo) throws IOException {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(archivo), Charset.defaultCharset()))) {
+            String linea = br.readLine();
+            return linea == null ? "" : linea;
+        }
+    }
 
-                        Pago nuevoPago = new Pago(idPrestamo, numeroCuota, montoPagado, fechaPago);
-                        pagos.add(nuevoPago);
-                    } catch (NumberFormatException e) {
-                        System.err.println("Advertencia: Error al parsear número o monto de pago en CSV, línea omitida: " + linea + " (" + e.getMessage() + ")");
-                    } catch (DateTimeParseException e) {
-                        System.err.println("Advertencia: Error al parsear fecha de pago en CSV, línea omitida: " + linea + " (" + e.getMessage() + ")");
-                    }
-                } else {
-                    System.err.println("Advertencia: Línea de pago con formato incorrecto en CSV, se omite: " + linea);
+    /**
+     * Helper privado que descarta el último registro del journal si quedó a medio escribir (sin salto
+     * de línea final), por ejemplo por un corte durante el anexado. Si no se truncara, el siguiente
+     * pago anexado quedaría pegado a ese fragmento y ambos se perderían al recargar.
+     *
+     * @param journal El archivo del journal.
+     * @throws IOException Si ocurre un error al leer o truncar el archivo.
+     */
+    private static void truncarRegistroIncompleto(File journal) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(journal, "rw")) {
+            long longitud = raf.length();
+            long finUltimoRegistro = longitud;
+            byte[] bloque = new byte[4096];
+            // Se busca hacia atrás el último salto de línea
+            while (finUltimoRegistro > 0) {
+                int leer = (int) Math.min(bloque.length, finUltimoRegistro);
+                raf.seek(finUltimoRegistro - leer);
+                raf.readFully(bloque, 0, leer);
+                int i = leer - 1;
+                while (i >= 0 && bloque[i] != '\n') {
+                    i--;
+                }
+                if (i >= 0) {
+                    finUltimoRegistro = finUltimoRegistro - leer + i + 1;
+                    break;
                 }
+                finUltimoRegistro -= leer;
             }
-        } catch (IOException e) {
-            System.err.println("Error al cargar pagos desde CSV: " + e.getMessage());
+            if (finUltimoRegistro < longitud) {
+                raf.setLength(finUltimoRegistro);
+                raf.getFD().sync();
+                System.err.println("Advertencia: Se descartó un registro incompleto al final del journal de pagos ("
+                        + (longitud - finUltimoRegistro) + " bytes).");
+            }
+        }
+    }
+
+    /**
+     * Helper privado que convierte una línea de pagos en un objeto Pago.
+     * Las líneas mal formadas (por ejemplo, un último registro truncado del journal) se omiten.
+     *
+     * @param linea La línea de datos.
+     * @param advertencias Destino del mensaje de advertencia si la línea se omite.
+     * @return el pago parseado, o {@code null} si la línea es inválida.
+     */
+    private static Pago parsearLineaCSV(EscanerCSV linea, Consumer<String> advertencias) {
+        if (linea.cantidadCampos() != 4) {
+            advertencias.accept("Advertencia: Línea de pago con formato incorrecto en CSV, se omite: " + linea.linea());
+            return null;
+        }
+        try {
+            String idPrestamo = linea.campoTexto();
+            int numeroCuota = linea.campoEntero();
+            long montoPagado = linea.campoCentavos();
+            LocalDate fechaPago = linea.campoFecha();
+            return new Pago(idPrestamo, numeroCuota, montoPagado, fechaPago);
+        } catch (NumberFormatException e) {
+            advertencias.accept("Advertencia: Error al parsear número o monto de pago en CSV, línea omitida: " + linea.linea() + " (" + e.getMessage() + ")");
+        } catch (DateTimeParseException e) {
+            advertencias.accept("Advertencia: Error al parsear fecha de pago en CSV, línea omitida: " + linea.linea() + " (" + e.getMessage() + ")");
         }
+        return null;
     }
 
     /**
      * Guarda todas las transacciones de pago de la lista en memoria a un archivo CSV,
-     * sobrescribiendo el contenido anterior.
+     * sobrescribiendo el contenido anterior. El archivo se escribe primero en un temporal
+     * forzado a disco y luego se reemplaza, de modo que una interrupción no deja un CSV a medio escribir.
+     * Si el destino es el archivo de pagos principal, el journal queda consolidado y se vacía.
      *
      * @param nombreArchivo La ruta del archivo CSV donde se guardarán los datos.
      */
     public void guardarEnArchivoCSV(String nombreArchivo) {
+        bloqueoJournal.lock();
+        try {
+            synchronized (this) {
+                escribirArchivoCSV(nombreArchivo);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al guardar pagos en CSV: " + e.getMessage());
+        } finally {
+            bloqueoJournal.unlock();
+        }
+    }
+
+    /**
+     * Helper privado con la escritura de {@link #guardarEnArchivoCSV(String)}, que informa el error al llamador.
+     * Debe llamarse con el bloqueo del journal y el monitor tomados.
+     *
+     * @param nombreArchivo La ruta del archivo CSV donde se guardarán los datos.
+     * @throws IOException Si el archivo no pudo escribirse o reemplazarse.
+     */
+    private void escribirArchivoCSV(String nombreArchivo) throws IOException {
         crearDirectorioSiNoExiste(nombreArchivo);
+        File destino = new File(nombreArchivo);
+        File temporal = new File(nombreArchivo + ".tmp");
 
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(nombreArchivo))) {
-            bw.write(CSV_HEADER);
+        try (FileOutputStream fos = new FileOutputStream(temporal);
+             BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos, Charset.defaultCharset()))) {
+            boolean esArchivoPagos = nombreArchivo.equals(archivoPagos);
+            // pagos.csv registra que ya incluye los pagos de la generación actual del journal
+            bw.write(esArchivoPagos ? CSV_HEADER + SUFIJO_GENERACION + generacionJournal : CSV_HEADER);
             bw.newLine();
 
             for (Pago p : pagos) {
-                String linea = String.join(";",
-                        p.getIdPrestamo(),
-                        String.valueOf(p.getNumeroCuota()),
-                        String.valueOf(p.getMontoPagado()),
-                        p.getFechaPago().toString()
-                );
-                bw.write(linea);
+                bw.write(aLineaCSV(p));
                 bw.newLine();
             }
             // Opcional: Descomentar para depuración
             // System.out.println(pagos.size() + " pagos guardados en CSV.");
-        } catch (IOException e) {
-            System.err.println("Error al guardar pagos en CSV: " + e.getMessage());
+            bw.flush();
+            // El contenido debe estar en disco antes del cambio de nombre
+            fos.getFD().sync();
+        }
+
+        Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        SincronizacionDisco.sincronizarDirectorio(destino);
+
+        // El journal solo se vacía cuando el reemplazo de pagos.csv ya es permanente
+        if (nombreArchivo.equals(archivoPagos)) {
+            // Los pagos encolados ya quedaron en pagos.csv: no se escriben en el journal
+            for (SolicitudJournal s : pendientesJournal) {
+                s.terminada = true;
+            }
+            pendientesJournal.clear();
+            // Los pagos nuevos van a un journal de la generación siguiente, aunque el borrado falle
+            generacionJournal++;
+            journalIniciado = false;
+            File journal = new File(archivoJournal);
+            if (journal.exists() && !journal.delete()) {
+                System.err.println("Advertencia: No se pudo borrar el journal consolidado " + archivoJournal
+                        + "; se ignorará al iniciar y se reemplazará con el próximo pago.");
+            }
+        }
+    }
+
+    /**
+     * Anexa al final del journal los pagos de un grupo de solicitudes con una sola escritura y un solo
+     * forzado a disco, de modo que el costo de cada pago no depende del tamaño del historial. Si la escritura
+     * falla, el journal se trunca a su longitud anterior para no dejar un registro a medio escribir.
+     * El primer grupo de una generación reemplaza al journal anterior (ya consolidado) y escribe la cabecera.
+     *
+     * @param grupo Las solicitudes a persistir, en orden.
+     * @throws IOException Si los pagos no pudieron escribirse o forzarse a disco.
+     */
+    private void anexarAlJournal(List<SolicitudJournal> grupo) throws IOException {
+        crearDirectorioSiNoExiste(archivoJournal);
+
+        boolean nuevo = !journalIniciado;
+        try (FileOutputStream fos = new FileOutputStream(archivoJournal, !nuevo)) {
+            long longitudInicial = nuevo ? 0 : fos.getChannel().size();
+            try {
+                BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos, Charset.defaultCharset()), 1 << 16);
+                if (nuevo) {
+                    bw.write(CABECERA_JOURNAL + generacionJournal);
+                    bw.newLine();
+                }
+                for (SolicitudJournal solicitud : grupo) {
+                    for (Pago p : solicitud.pagos) {
+                        bw.write(aLineaCSV(p));
+                        bw.newLine();
+                    }
+                }
+                bw.flush();
+                fos.getFD().sync();
+            } catch (IOException e) {
+                try {
+                    fos.getChannel().truncate(longitudInicial);
+                } catch (IOException errorAlTruncar) {
+                    e.addSuppressed(errorAlTruncar);
+                }
+                throw e;
+            }
+        }
+        if (nuevo) {
+            SincronizacionDisco.sincronizarDirectorio(new File(archivoJournal));
+            journalIniciado = true;
         }
     }
 
+    /**
+     * Convierte un pago al formato de línea usado tanto en pagos.csv como en el journal.
+     * @param p El pago a convertir.
+     * @return la línea CSV sin salto de línea.
+     */
+    private static String aLineaCSV(Pago p) {
+        return String.join(";",
+                p.getIdPrestamo(),
+                String.valueOf(p.getNumeroCuota()),
+                Dinero.aTexto(p.getMontoPagadoCentavos()),
+                p.getFechaPago().toString()
+        );
+    }
+
     /**
      * Helper privado para asegurar que el directorio de un archivo exista antes de escribirlo.
      * @param rutaArchivo La ruta completa del archivo.
@@ -148,4 +658,18 @@ public class GestorPago {
             directorio.mkdirs();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Pagos que un hilo agregó y espera ver escritos en el journal, junto con el resultado de la escritura.
+     * Los campos de resultado se modifican con el monitor del gestor tomado.
+     */
+    private static final class SolicitudJournal {
+        private final List<Pago> pagos;
+        private boolean terminada;
+        private IOException error;
+
+        SolicitudJournal(List<Pago> pagos) {
+            this.pagos = pagos;
+        }
+    }
+}
@@ -3,31 +3,82 @@ package clasesgestor;
 import clasesmodelo.Prestamo;
 import clasesmodelo.Pago;
 import clasesmodelo.Cuota;
+import clasesmodelo.Dinero;
+import clasesmodelo.FormatoMoneda;
+import clasesmodelo.CarteraColumnar;
 import java.time.LocalDate;
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
-import java.text.NumberFormat;
-import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 /**
  * Clase central para gestionar las operaciones de préstamos.
  * Maneja la creación, consulta, eliminación y persistencia de préstamos,
  * interactuando con GestorPago para registrar las transacciones.
+ * <p>
+ * Es seguro usarlo desde varios hilos (por ejemplo, varias cajas registrando pagos):
+ * <ul>
+ *   <li>Las operaciones que cambian el conjunto de préstamos o los índices (alta, baja, carga y barrido
+ *       de mora) toman el bloqueo de escritura de la estructura.</li>
+ *   <li>Las consultas y los pagos toman el bloqueo de lectura, por lo que avanzan en paralelo entre sí.</li>
+ *   <li>Además, cada pago toma el bloqueo de su préstamo, elegido entre {@value #CANTIDAD_BLOQUEOS_PRESTAMO}
+ *       bloqueos según el ID: dos pagos sobre el mismo préstamo se serializan, pagos sobre préstamos
+ *       distintos normalmente no compiten.</li>
+ * </ul>
  *
  * @author Tu Nombre
  * @version 1.2
  */
 public class GestorPrestamo {
     private List<Prestamo> prestamos;
+    /** Índice por clave primaria (idPrestamo), mantenido en sincronía con la lista de préstamos. */
+    private Map<String, Prestamo> prestamosPorId;
+    /** Índice secundario DNI del cliente → préstamos, en el mismo orden en que fueron agregados. */
+    private Map<String, List<Prestamo>> prestamosPorDni;
+    /**
+     * Préstamos con cuotas que todavía no fueron evaluadas por el barrido de mora, agrupados según el
+     * vencimiento de la primera de ellas. Como los vencimientos de un préstamo son crecientes, alcanza con
+     * recordar por préstamo cuál es su próxima cuota sin evaluar, en lugar de indexar cada cuota.
+     */
+    private NavigableMap<LocalDate, Set<SeguimientoMora>> prestamosPorVencimiento;
+    /** Seguimiento del barrido de mora de cada préstamo indexado, para quitarlo del índice al eliminarlo. */
+    private Map<Prestamo, SeguimientoMora> seguimientosMora;
+    /** Saldos agregados de toda la cartera, actualizados con cada alta, baja, pago y mora. */
+    private final ExposicionCartera exposicion = new ExposicionCartera();
     private AtomicInteger ultimoId;
     private final String archivoPrestamos = "data/prestamos.csv";
     private static final String CSV_HEADER = "ID_Prestamo;ID_Cliente;Monto;Cuotas;Tipo;Fecha_Inicio";
+    private static final int CANTIDAD_BLOQUEOS_PRESTAMO = 64;
+
+    /** Protege la lista de préstamos y los índices: escritura para altas y bajas, lectura para el resto. */
+    private final ReentrantReadWriteLock bloqueoEstructura = new ReentrantReadWriteLock();
+    /** Bloqueos por préstamo (repartidos según el hash del ID) que serializan los cambios sobre sus cuotas. */
+    private final ReentrantLock[] bloqueosPrestamo = new ReentrantLock[CANTIDAD_BLOQUEOS_PRESTAMO];
 
     private GestorPago gestorPagos;
+    /**
+     * Indica si las operaciones informan su resultado por consola. En modo servidor se desactiva,
+     * porque el resultado ya viaja en la respuesta y escribir en la consola serializaría las solicitudes.
+     */
+    private volatile boolean mensajesEnConsola = true;
 
     /**
      * Constructor del GestorPrestamo.
@@ -36,24 +87,76 @@ public class GestorPrestamo {
      * @param gestorPagos Una instancia de GestorPago para registrar las transacciones de pago.
      */
     public GestorPrestamo(GestorPago gestorPagos) {
+        this(gestorPagos, true);
+    }
+
+    /**
+     * Constructor del GestorPrestamo que permite omitir la carga inicial del CSV,
+     * por ejemplo cuando el estado se va a restaurar desde un snapshot.
+     *
+     * @param gestorPagos Una instancia de GestorPago para registrar las transacciones de pago.
+     * @param cargarCSV {@code true} para cargar los préstamos desde el archivo CSV.
+     */
+    public GestorPrestamo(GestorPago gestorPagos, boolean cargarCSV) {
         this.prestamos = new ArrayList<>();
+        this.prestamosPorId = new HashMap<>();
+        this.prestamosPorDni = new HashMap<>();
+        this.prestamosPorVencimiento = new TreeMap<>();
+        this.seguimientosMora = new IdentityHashMap<>();
         this.ultimoId = new AtomicInteger(0);
         this.gestorPagos = gestorPagos;
-        cargarDesdeArchivoCSV(archivoPrestamos);
+        for (int i = 0; i < bloqueosPrestamo.length; i++) {
+            bloqueosPrestamo[i] = new ReentrantLock();
+        }
+        if (cargarCSV) {
+            cargarDesdeArchivoCSV(archivoPrestamos);
+        }
+    }
+
+    /**
+     * Activa o desactiva los mensajes de resultado por consola de las operaciones (altas, bajas y pagos).
+     * Los errores de persistencia se siguen informando por la salida de error.
+     *
+     * @param mensajesEnConsola {@code false} para operar sin escribir en la consola, por ejemplo en modo servidor.
+     */
+    public void setMensajesEnConsola(boolean mensajesEnConsola) {
+        this.mensajesEnConsola = mensajesEnConsola;
     }
 
     /**
      * Crea un nuevo préstamo para un cliente, lo agrega a la lista y lo persiste en el archivo CSV.
      *
      * @param dniCliente El DNI del cliente que solicita el préstamo.
-     * @param monto El capital del préstamo.
+     * @param monto El capital del préstamo, en centavos.
      * @param cuotas El número de cuotas para la devolución.
      * @param esHipotecario {@code true} si es hipotecario, {@code false} si es personal.
      * @param fechaInicio La fecha de otorgamiento del préstamo.
      * @return {@code true} siempre, indicando que la operación de creación se ha intentado.
      */
-    public boolean crearPrestamo(String dniCliente, double monto,
+    public boolean crearPrestamo(String dniCliente, long monto,
                                  int cuotas, boolean esHipotecario, LocalDate fechaInicio) {
+        otorgarPrestamo(dniCliente, monto, cuotas, esHipotecario, fechaInicio);
+        return true;
+    }
+
+    /**
+     * Crea un nuevo préstamo igual que {@link #crearPrestamo}, pero devuelve el préstamo creado.
+     * Con varios hilos creando préstamos a la vez, {@link #obtenerUltimoPrestamo()} puede devolver
+     * el de otro hilo; este método no tiene ese problema.
+     * <p>
+     * El préstamo se agrega al final del archivo CSV en lugar de reescribirlo, y la escritura se fuerza
+     * a disco después de liberar el bloqueo de la estructura, por lo que un alta no detiene a los pagos
+     * y consultas en curso más que lo que tarda en escribir una línea.
+     *
+     * @param dniCliente El DNI del cliente que solicita el préstamo.
+     * @param monto El capital del préstamo, en centavos.
+     * @param cuotas El número de cuotas para la devolución.
+     * @param esHipotecario {@code true} si es hipotecario, {@code false} si es personal.
+     * @param fechaInicio La fecha de otorgamiento del préstamo.
+     * @return el préstamo creado.
+     */
+    public Prestamo otorgarPrestamo(String dniCliente, long monto,
+                                    int cuotas, boolean esHipotecario, LocalDate fechaInicio) {
         String idPrestamo = String.format("%04d", ultimoId.incrementAndGet());
         Prestamo nuevo = new Prestamo(
                 idPrestamo,
@@ -63,26 +166,144 @@ public class GestorPrestamo {
                 esHipotecario,
                 fechaInicio
         );
-        prestamos.add(nuevo);
-        guardarEnArchivoCSV(archivoPrestamos);
-        System.out.println("Préstamo " + idPrestamo + " creado exitosamente.");
-        return true;
+        RandomAccessFile anexado;
+        bloqueoEstructura.writeLock().lock();
+        try {
+            prestamos.add(nuevo);
+            indexarPrestamo(nuevo);
+            anexado = anexarAlArchivoCSV(archivoPrestamos, nuevo);
+        } finally {
+            bloqueoEstructura.writeLock().unlock();
+        }
+        sincronizarYCerrar(anexado);
+        if (mensajesEnConsola) {
+            System.out.println("Préstamo " + idPrestamo + " creado exitosamente.");
+        }
+        return nuevo;
     }
 
 
     /**
      * Busca y devuelve un objeto Prestamo basado en su ID.
+     * La búsqueda se resuelve en tiempo constante a través del índice por ID.
      *
      * @param idPrestamo El ID del préstamo a buscar.
      * @return El objeto Prestamo si se encuentra, de lo contrario {@code null}.
      */
     public Prestamo obtenerPrestamo(String idPrestamo) {
-        for (Prestamo p : prestamos) {
-            if (p.getIdPrestamo().equals(idPrestamo)) {
-                return p;
+        bloqueoEstructura.readLock().lock();
+        try {
+            return prestamosPorId.get(idPrestamo);
+        } finally {
+            bloqueoEstructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Helper privado que devuelve el bloqueo que protege las cuotas del préstamo indicado.
+     * @param idPrestamo El ID del préstamo.
+     * @return el bloqueo asignado a ese ID.
+     */
+    private ReentrantLock bloqueoDe(String idPrestamo) {
+        int hash = idPrestamo.hashCode();
+        return bloqueosPrestamo[(hash ^ (hash >>> 16)) & (CANTIDAD_BLOQUEOS_PRESTAMO - 1)];
+    }
+
+    /**
+     * Lee un préstamo mientras se tiene su bloqueo, de modo que ningún pago lo modifique durante la lectura
+     * (por ejemplo, para informar sus cuotas con montos y estados consistentes entre sí).
+     *
+     * @param idPrestamo El ID del préstamo a leer.
+     * @param lectura La función que lee el préstamo y arma el resultado.
+     * @param <T> El tipo del resultado.
+     * @return el resultado de la lectura, o {@code null} si el préstamo no existe.
+     */
+    <T> T leerPrestamo(String idPrestamo, Function<Prestamo, T> lectura) {
+        bloqueoEstructura.readLock().lock();
+        try {
+            Prestamo prestamo = prestamosPorId.get(idPrestamo);
+            if (prestamo == null) {
+                return null;
+            }
+            ReentrantLock bloqueo = bloqueoDe(idPrestamo);
+            bloqueo.lock();
+            try {
+                return lectura.apply(prestamo);
+            } finally {
+                bloqueo.unlock();
+            }
+        } finally {
+            bloqueoEstructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ejecuta una acción con acceso exclusivo a todos los préstamos: mientras dura no se registran pagos
+     * ni se agregan o eliminan préstamos. Permite capturar el estado de las cuotas y el libro de pagos
+     * de forma consistente (por ejemplo, al escribir un checkpoint o un snapshot).
+     *
+     * @param accion La acción a ejecutar.
+     * @param <T> El tipo del resultado.
+     * @return el resultado de la acción.
+     */
+    <T> T ejecutarEnExclusiva(Supplier<T> accion) {
+        bloqueoEstructura.writeLock().lock();
+        try {
+            return accion.get();
+        } finally {
+            bloqueoEstructura.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Helper privado que registra un préstamo en los índices en memoria.
+     * Si ya existe un préstamo con el mismo ID se conserva el primero, igual que la búsqueda lineal original.
+     * @param prestamo El préstamo a indexar.
+     */
+    private void indexarPrestamo(Prestamo prestamo) {
+        exposicion.agregarPrestamo(prestamo);
+        prestamosPorId.putIfAbsent(prestamo.getIdPrestamo(), prestamo);
+        prestamosPorDni.computeIfAbsent(prestamo.getDniCliente(), dni -> new ArrayList<>()).add(prestamo);
+        if (prestamo.getNumeroCuotas() > 0) {
+            // Las cuotas pagadas o ya en mora se recorren igual: el barrido no las modifica
+            SeguimientoMora seguimiento = new SeguimientoMora(prestamo, prestamo.getCuota(1).getFechaVencimiento());
+            seguimientosMora.put(prestamo, seguimiento);
+            agregarAlIndiceDeVencimientos(seguimiento);
+        }
+    }
+
+    /**
+     * Helper privado que ubica un préstamo en el índice según el vencimiento de su próxima cuota sin evaluar.
+     * @param seguimiento El seguimiento del préstamo.
+     */
+    private void agregarAlIndiceDeVencimientos(SeguimientoMora seguimiento) {
+        prestamosPorVencimiento.computeIfAbsent(seguimiento.proximoVencimiento, f -> new LinkedHashSet<>()).add(seguimiento);
+    }
+
+    /**
+     * Helper privado que quita un préstamo de los índices en memoria.
+     * @param prestamo El préstamo a quitar.
+     */
+    private void desindexarPrestamo(Prestamo prestamo) {
+        exposicion.quitarPrestamo(prestamo);
+        prestamosPorId.remove(prestamo.getIdPrestamo(), prestamo);
+        List<Prestamo> delCliente = prestamosPorDni.get(prestamo.getDniCliente());
+        if (delCliente != null) {
+            delCliente.remove(prestamo);
+            if (delCliente.isEmpty()) {
+                prestamosPorDni.remove(prestamo.getDniCliente());
+            }
+        }
+        SeguimientoMora seguimiento = seguimientosMora.remove(prestamo);
+        if (seguimiento != null) {
+            Set<SeguimientoMora> delDia = prestamosPorVencimiento.get(seguimiento.proximoVencimiento);
+            if (delDia != null) {
+                delDia.remove(seguimiento);
+                if (delDia.isEmpty()) {
+                    prestamosPorVencimiento.remove(seguimiento.proximoVencimiento);
+                }
             }
         }
-        return null;
     }
 
 
@@ -100,22 +321,33 @@ public class GestorPrestamo {
      * @return {@code true} si el préstamo fue eliminado, {@code false} si no se pudo eliminar.
      */
     public boolean eliminarPrestamo(String idPrestamo) {
-        Prestamo prestamo = obtenerPrestamo(idPrestamo);
-        if (prestamo != null) {
-            double saldoPendiente = prestamo.calcularSaldoPendienteTotal();
-            if (saldoPendiente > 0) {
-                System.out.println("Error: No se puede eliminar el préstamo " + idPrestamo + " porque tiene un saldo pendiente de " + NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(saldoPendiente) + ".");
-                return false;
-            }
-            if (gestorPagos != null) {
-                gestorPagos.eliminarPagosDePrestamo(idPrestamo);
+        bloqueoEstructura.writeLock().lock();
+        try {
+            Prestamo prestamo = prestamosPorId.get(idPrestamo);
+            if (prestamo != null) {
+                if (prestamo.calcularSaldoPendienteTotalCentavos() > 0) {
+                    if (mensajesEnConsola) {
+                        System.out.println("Error: No se puede eliminar el préstamo " + idPrestamo + " porque tiene un saldo pendiente de " + FormatoMoneda.formatear(prestamo.calcularSaldoPendienteTotalCentavos()) + ".");
+                    }
+                    return false;
+                }
+                if (gestorPagos != null) {
+                    gestorPagos.eliminarPagosDePrestamo(idPrestamo);
+                }
+                prestamos.remove(prestamo);
+                desindexarPrestamo(prestamo);
+                guardarEnArchivoCSV(archivoPrestamos);
+                if (mensajesEnConsola) {
+                    System.out.println("Préstamo " + idPrestamo + " y sus pagos asociados han sido eliminados exitosamente.");
+                }
+                return true;
             }
-            prestamos.remove(prestamo);
-            guardarEnArchivoCSV(archivoPrestamos);
-            System.out.println("Préstamo " + idPrestamo + " y sus pagos asociados han sido eliminados exitosamente.");
-            return true;
+        } finally {
+            bloqueoEstructura.writeLock().unlock();
+        }
+        if (mensajesEnConsola) {
+            System.out.println("Error: No se encontró un préstamo con el ID " + idPrestamo + ".");
         }
-        System.out.println("Error: No se encontró un préstamo con el ID " + idPrestamo + ".");
         return false;
     }
 
@@ -126,7 +358,12 @@ public class GestorPrestamo {
      * @return una nueva lista conteniendo todos los préstamos.
      */
     public List<Prestamo> listarPrestamos() {
-        return new ArrayList<>(this.prestamos);
+        bloqueoEstructura.readLock().lock();
+        try {
+            return new ArrayList<>(this.prestamos);
+        } finally {
+            bloqueoEstructura.readLock().unlock();
+        }
     }
 
 
@@ -142,76 +379,206 @@ public class GestorPrestamo {
             return;
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            br.readLine(); // Saltar cabecera
-            int maxId = 0;
-            while ((linea = br.readLine()) != null) {
-                String[] datos = linea.split(";");
-                if (datos.length == 6) {
-                    try {
-                        String idPrestamo = datos[0];
-                        // ... (código interno de parseo)
-                        Prestamo nuevoPrestamo = new Prestamo(idPrestamo, datos[1], Double.parseDouble(datos[2]), Integer.parseInt(datos[3]), datos[4].equalsIgnoreCase("hipotecario"), LocalDate.parse(datos[5]));
-                        this.prestamos.add(nuevoPrestamo);
-
-                        // Lógica para mantener el contador de ID actualizado
-                        try {
-                            int numId = Integer.parseInt(idPrestamo.replaceAll("^P-", ""));
-                            if (numId > maxId) {
-                                maxId = numId;
-                            }
-                        } catch (NumberFormatException e) {
-                            System.err.println("Advertencia: ID de préstamo con formato no numérico, se omite para el contador: " + idPrestamo);
-                        }
+        try {
+            // El parseo (y la generación del plan de cuotas) se hace en paralelo por bloques del archivo
+            List<Prestamo> cargados = CargadorCSVParalelo.cargar(archivo, true, GestorPrestamo::parsearLineaCSV);
+            incorporarPrestamosCargados(cargados);
+        } catch (IOException e) {
+            System.err.println("Error al cargar préstamos desde CSV: " + e.getMessage());
+        }
+    }
 
-                    } catch (NumberFormatException | DateTimeParseException e) {
-                        System.err.println("Advertencia: Error al parsear datos de préstamo en CSV, línea omitida: " + linea);
-                    }
-                } else {
-                    System.err.println("Advertencia: Línea de préstamo con formato incorrecto en CSV, se omite: " + linea);
+    /**
+     * Agrega a la lista y a los índices préstamos cargados desde almacenamiento
+     * (CSV o snapshot) y actualiza el contador de IDs.
+     *
+     * @param cargados Los préstamos cargados, en orden.
+     */
+    void incorporarPrestamosCargados(List<Prestamo> cargados) {
+        bloqueoEstructura.writeLock().lock();
+        try {
+            incorporarPrestamos(cargados);
+        } finally {
+            bloqueoEstructura.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Helper privado de {@link #incorporarPrestamosCargados(List)}; requiere el bloqueo de escritura.
+     */
+    private void incorporarPrestamos(List<Prestamo> cargados) {
+        int maxId = 0;
+        for (Prestamo nuevoPrestamo : cargados) {
+            this.prestamos.add(nuevoPrestamo);
+            indexarPrestamo(nuevoPrestamo);
+
+            // Lógica para mantener el contador de ID actualizado
+            String idPrestamo = nuevoPrestamo.getIdPrestamo();
+            try {
+                int numId = Integer.parseInt(idPrestamo.replaceAll("^P-", ""));
+                if (numId > maxId) {
+                    maxId = numId;
                 }
+            } catch (NumberFormatException e) {
+                System.err.println("Advertencia: ID de préstamo con formato no numérico, se omite para el contador: " + idPrestamo);
             }
-            this.ultimoId.set(maxId);
-        } catch (IOException e) {
-            System.err.println("Error al cargar préstamos desde CSV: " + e.getMessage());
+        }
+        this.ultimoId.set(maxId);
+    }
+
+    /**
+     * Helper privado que convierte una línea del CSV de préstamos en un objeto Prestamo.
+     *
+     * @param linea La línea de datos.
+     * @param advertencias Destino del mensaje de advertencia si la línea se omite.
+     * @return el préstamo parseado, o {@code null} si la línea es inválida.
+     */
+    private static Prestamo parsearLineaCSV(EscanerCSV linea, Consumer<String> advertencias) {
+        if (linea.cantidadCampos() != 6) {
+            advertencias.accept("Advertencia: Línea de préstamo con formato incorrecto en CSV, se omite: " + linea.linea());
+            return null;
+        }
+        try {
+            String idPrestamo = linea.campoTexto();
+            String dniCliente = linea.campoTexto();
+            long monto = linea.campoCentavos();
+            int cuotas = linea.campoEntero();
+            boolean esHipotecario = linea.campoIgualIgnorandoMayusculas("hipotecario");
+            LocalDate fechaInicio = linea.campoFecha();
+            return new Prestamo(idPrestamo, dniCliente, monto, cuotas, esHipotecario, fechaInicio);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            advertencias.accept("Advertencia: Error al parsear datos de préstamo en CSV, línea omitida: " + linea.linea());
+            return null;
         }
     }
 
 
     /**
      * Guarda la lista completa de préstamos en el archivo CSV, sobrescribiendo el contenido.
+     * El contenido se escribe en un archivo temporal, se fuerza a disco y recién entonces reemplaza
+     * al archivo anterior, de modo que una caída durante la escritura nunca deja el archivo a medias.
      *
      * @param nombreArchivo La ruta del archivo CSV.
      */
     public void guardarEnArchivoCSV(String nombreArchivo) {
         crearDirectorioSiNoExiste(nombreArchivo);
+        File destino = new File(nombreArchivo);
+        File temporal = new File(nombreArchivo + ".tmp");
+
+        bloqueoEstructura.readLock().lock();
+        try {
+            try (FileOutputStream fos = new FileOutputStream(temporal);
+                 BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos, Charset.defaultCharset()))) {
+                bw.write(CSV_HEADER);
+                bw.newLine();
 
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(nombreArchivo))) {
-            bw.write(CSV_HEADER);
-            bw.newLine();
+                for (Prestamo p : prestamos) {
+                    if (!esPersistible(p)) {
+                        continue;
+                    }
+                    bw.write(aLineaCSV(p));
+                    bw.newLine();
+                }
+                bw.flush();
+                // El contenido debe estar en disco antes del cambio de nombre
+                fos.getFD().sync();
+            }
+            Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            SincronizacionDisco.sincronizarDirectorio(destino);
+        } catch (IOException e) {
+            System.err.println("Error al guardar préstamos en CSV: " + e.getMessage());
+        } finally {
+            bloqueoEstructura.readLock().unlock();
+        }
+    }
 
-            for (Prestamo p : prestamos) {
-                if ("00000000".equals(p.getDniCliente())) {
-                    continue;
+    /**
+     * Helper privado que agrega la línea de un préstamo nuevo al final del archivo CSV, sin reescribirlo.
+     * Requiere el bloqueo de escritura, para que la línea no se intercale con un reemplazo completo del archivo.
+     * Si una caída dejó incompleta la última línea, primero se la termina, para que la nueva no se pegue a ella
+     * (la línea incompleta se descarta al cargar); si la escritura falla, el archivo vuelve a su largo anterior.
+     *
+     * @return el archivo abierto, para forzarlo a disco y cerrarlo con {@link #sincronizarYCerrar(RandomAccessFile)}
+     *         fuera del bloqueo, o {@code null} si no hay nada que forzar.
+     */
+    private RandomAccessFile anexarAlArchivoCSV(String nombreArchivo, Prestamo prestamo) {
+        if (!esPersistible(prestamo)) {
+            return null;
+        }
+        crearDirectorioSiNoExiste(nombreArchivo);
+        File archivo = new File(nombreArchivo);
+        boolean existia = archivo.exists();
+        RandomAccessFile raf = null;
+        long longitudInicial = 0;
+        try {
+            raf = new RandomAccessFile(archivo, "rw");
+            longitudInicial = raf.length();
+            StringBuilder texto = new StringBuilder(128);
+            if (longitudInicial == 0) {
+                texto.append(CSV_HEADER).append(System.lineSeparator());
+            } else {
+                raf.seek(longitudInicial - 1);
+                if (raf.read() != '\n') {
+                    texto.append(System.lineSeparator());
+                }
+            }
+            texto.append(aLineaCSV(prestamo)).append(System.lineSeparator());
+            raf.seek(longitudInicial);
+            raf.write(texto.toString().getBytes(Charset.defaultCharset()));
+            if (!existia) {
+                SincronizacionDisco.sincronizarDirectorio(archivo);
+            }
+            return raf;
+        } catch (IOException e) {
+            System.err.println("Error al guardar préstamos en CSV: " + e.getMessage());
+            if (raf != null) {
+                try {
+                    raf.setLength(longitudInicial);
+                    raf.close();
+                } catch (IOException errorAlTruncar) {
+                    // El error original ya se informó
                 }
-                String tipo = p.esHipotecario() ? "hipotecario" : "personal";
-                String linea = String.join(";",
-                        p.getIdPrestamo(),
-                        p.getDniCliente(),
-                        String.valueOf(p.getMonto()),
-                        String.valueOf(p.getNumeroCuotas()),
-                        tipo,
-                        p.getFechaInicio().toString()
-                );
-                bw.write(linea);
-                bw.newLine();
             }
+            return null;
+        }
+    }
+
+    /**
+     * Helper privado que fuerza a disco y cierra el archivo devuelto por {@link #anexarAlArchivoCSV}.
+     */
+    private static void sincronizarYCerrar(RandomAccessFile anexado) {
+        if (anexado == null) {
+            return;
+        }
+        try (RandomAccessFile raf = anexado) {
+            raf.getFD().sync();
         } catch (IOException e) {
             System.err.println("Error al guardar préstamos en CSV: " + e.getMessage());
         }
     }
 
+    /**
+     * Helper privado que indica si un préstamo se guarda en el CSV; los del DNI reservado "00000000" no se guardan.
+     */
+    private static boolean esPersistible(Prestamo p) {
+        return !"00000000".equals(p.getDniCliente());
+    }
+
+    /**
+     * Helper privado que convierte un préstamo en su línea del CSV, sin salto de línea.
+     */
+    private static String aLineaCSV(Prestamo p) {
+        String tipo = p.esHipotecario() ? "hipotecario" : "personal";
+        return String.join(";",
+                p.getIdPrestamo(),
+                p.getDniCliente(),
+                Dinero.aTexto(p.getMontoCentavos()),
+                String.valueOf(p.getNumeroCuotas()),
+                tipo,
+                p.getFechaInicio().toString()
+        );
+    }
+
     /**
      * Helper privado para asegurar que el directorio de un archivo exista antes de escribirlo.
      * @param rutaArchivo La ruta completa del archivo.
@@ -228,16 +595,71 @@ public class GestorPrestamo {
 
     /**
      * Obtiene una lista de todos los préstamos asociados a un DNI de cliente específico.
+     * Se resuelve con el índice por DNI, por lo que el costo solo depende de los préstamos del cliente.
      *
      * @param dniCliente El DNI del cliente.
-     * @return una lista de objetos Prestamo.
+     * @return una nueva lista de objetos Prestamo.
      */
     public List<Prestamo> obtenerPrestamosPorCliente(String dniCliente) {
-        return prestamos.stream()
-                .filter(p -> p.getDniCliente().equals(dniCliente))
-                .collect(Collectors.toList());
+        bloqueoEstructura.readLock().lock();
+        try {
+            List<Prestamo> delCliente = prestamosPorDni.get(dniCliente);
+            return delCliente == null ? new ArrayList<>() : new ArrayList<>(delCliente);
+        } finally {
+            bloqueoEstructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si un cliente tiene al menos un préstamo registrado, sin copiar la lista de préstamos.
+     *
+     * @param dniCliente El DNI del cliente.
+     * @return {@code true} si el cliente tiene préstamos asociados.
+     */
+    public boolean tienePrestamos(String dniCliente) {
+        bloqueoEstructura.readLock().lock();
+        try {
+            return prestamosPorDni.containsKey(dniCliente);
+        } finally {
+            bloqueoEstructura.readLock().unlock();
+        }
     }
 
+    /**
+     * Obtiene los saldos agregados de toda la cartera (total, en mora y por tipo de préstamo).
+     * Se mantienen actualizados en cada operación, por lo que consultarlos no recorre los préstamos.
+     *
+     * @return la exposición de la cartera.
+     */
+    public ExposicionCartera getExposicion() {
+        return exposicion;
+    }
+
+    /**
+     * Recalcula la exposición de la cartera recorriendo todos los préstamos y corrige los totales si difieren.
+     *
+     * @return {@code true} si los totales mantenidos coincidían con el recálculo.
+     */
+    public boolean verificarExposicion() {
+        // En exclusiva para que ningún pago cambie los saldos durante el recálculo
+        boolean coincidia = ejecutarEnExclusiva(() -> exposicion.recalcular(prestamos));
+        if (!coincidia) {
+            System.err.println("Advertencia: La exposición de la cartera no coincidía con el recálculo y fue corregida.");
+        }
+        return coincidia;
+    }
+
+
+    /**
+     * Captura las cuotas de todos los préstamos en arreglos primitivos, para calcular totales y proyecciones
+     * de la cartera en bloque.
+     *
+     * @return la copia de la cartera.
+     */
+    public CarteraColumnar capturarCarteraColumnar() {
+        // En exclusiva para que ningún pago cambie las cuotas durante la copia
+        return ejecutarEnExclusiva(() -> CarteraColumnar.capturar(prestamos));
+    }
 
     /**
      * Obtiene el último préstamo que fue añadido a la lista.
@@ -245,10 +667,15 @@ public class GestorPrestamo {
      * @return el último objeto Prestamo añadido, o {@code null} si la lista está vacía.
      */
     public Prestamo obtenerUltimoPrestamo() {
-        if (prestamos.isEmpty()) {
-            return null;
+        bloqueoEstructura.readLock().lock();
+        try {
+            if (prestamos.isEmpty()) {
+                return null;
+            }
+            return prestamos.get(prestamos.size() - 1);
+        } finally {
+            bloqueoEstructura.readLock().unlock();
         }
-        return prestamos.get(prestamos.size() - 1);
     }
 
     /**
@@ -257,30 +684,149 @@ public class GestorPrestamo {
      *
      * @param idPrestamo El ID del préstamo sobre el cual se realiza el pago.
      * @param numeroCuota El número de la cuota a pagar.
-     * @param montoPagado El monto a abonar.
-     * @return {@code true} si el pago se registró correctamente, {@code false} en caso contrario.
-     */
-    public boolean registrarPago(String idPrestamo, int numeroCuota, double montoPagado) {
-        Prestamo prestamo = obtenerPrestamo(idPrestamo);
-        if (prestamo == null) {
-            System.out.println("Error: Préstamo con ID " + idPrestamo + " no encontrado.");
-            return false;
-        }
-
-        boolean pagoAplicadoEnCuota = prestamo.registrarPagoEnCuota(numeroCuota, montoPagado);
-        if (pagoAplicadoEnCuota) {
-            Pago nuevoPagoTransaccion = new Pago(idPrestamo, numeroCuota, montoPagado, LocalDate.now());
-            if (gestorPagos != null) {
-                gestorPagos.agregarPago(nuevoPagoTransaccion);
-                System.out.println("Transacción de pago de " + NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(montoPagado) +
-                        " para Préstamo " + idPrestamo + ", Cuota #" + numeroCuota + " registrada.");
-            } else {
-                System.err.println("Advertencia: GestorPagos no inicializado. La transacción de pago no se guardará persistentemente.");
+     * @param montoPagado El monto a abonar, en centavos.
+     * @return {@code true} si el pago se registró correctamente, {@code false} en caso contrario
+     *         (incluido un error al guardarlo, en cuyo caso la cuota queda como estaba).
+     */
+    public boolean registrarPago(String idPrestamo, int numeroCuota, long montoPagado) {
+        return registrarPagoConResultado(idPrestamo, numeroCuota, montoPagado) == ResultadoPago.REGISTRADO;
+    }
+
+    /**
+     * Registra un pago igual que {@link #registrarPago}, pero informa por qué no se registró:
+     * un rechazo del negocio (préstamo o cuota inválidos) o un error al guardarlo, que puede reintentarse.
+     *
+     * @param idPrestamo El ID del préstamo sobre el cual se realiza el pago.
+     * @param numeroCuota El número de la cuota a pagar.
+     * @param montoPagado El monto a abonar, en centavos.
+     * @return el resultado del registro.
+     */
+    public ResultadoPago registrarPagoConResultado(String idPrestamo, int numeroCuota, long montoPagado) {
+        bloqueoEstructura.readLock().lock();
+        try {
+            Prestamo prestamo = prestamosPorId.get(idPrestamo);
+            if (prestamo == null) {
+                if (mensajesEnConsola) {
+                    System.out.println("Error: Préstamo con ID " + idPrestamo + " no encontrado.");
+                }
+                return ResultadoPago.PRESTAMO_NO_ENCONTRADO;
+            }
+
+            // El pago se aplica y se registra bajo el bloqueo del préstamo, para que el libro de pagos
+            // guarde los pagos de un mismo préstamo en el mismo orden en que se aplicaron a las cuotas.
+            ReentrantLock bloqueo = bloqueoDe(idPrestamo);
+            bloqueo.lock();
+            try {
+                DeshacerPagos deshacer = new DeshacerPagos();
+                if (numeroCuota > 0 && numeroCuota <= prestamo.getNumeroCuotas()) {
+                    deshacer.recordar(prestamo.getCuota(numeroCuota));
+                }
+                boolean pagoAplicadoEnCuota = prestamo.registrarPagoEnCuota(numeroCuota, montoPagado);
+                if (!pagoAplicadoEnCuota) {
+                    return ResultadoPago.RECHAZADO;
+                }
+                Pago nuevoPagoTransaccion = new Pago(idPrestamo, numeroCuota, montoPagado, LocalDate.now());
+                if (gestorPagos != null) {
+                    try {
+                        gestorPagos.agregarPago(nuevoPagoTransaccion);
+                    } catch (IOException e) {
+                        // El pago no quedó en el libro de pagos: tampoco debe quedar aplicado a la cuota
+                        deshacer.deshacer();
+                        System.err.println("Error al registrar el pago en el libro de pagos: " + e.getMessage());
+                        return ResultadoPago.ERROR_PERSISTENCIA;
+                    }
+                } else {
+                    System.err.println("Advertencia: GestorPagos no inicializado. La transacción de pago no se guardará persistentemente.");
+                    return ResultadoPago.REGISTRADO;
+                }
+            } finally {
+                bloqueo.unlock();
+            }
+        } finally {
+            bloqueoEstructura.readLock().unlock();
+        }
+        if (mensajesEnConsola) {
+            System.out.println("Transacción de pago de " + FormatoMoneda.formatear(montoPagado) +
+                    " para Préstamo " + idPrestamo + ", Cuota #" + numeroCuota + " registrada.");
+        }
+        return ResultadoPago.REGISTRADO;
+    }
+
+    /**
+     * Registra un pago que puede superar el saldo de la cuota indicada: el monto se aplica primero
+     * a esa cuota y el excedente se distribuye, en un único recorrido, entre las cuotas siguientes
+     * que no estén pagadas. Todas las transacciones resultantes se guardan juntas con una sola escritura.
+     *
+     * @param idPrestamo El ID del préstamo sobre el cual se realiza el pago.
+     * @param numeroCuota El número de la cuota a pagar.
+     * @param montoRecibido El monto total recibido, en centavos.
+     * @return el detalle de la distribución, o {@code null} si el pago no pudo registrarse
+     *         (préstamo inexistente, cuota fuera de rango o ya pagada, monto no positivo, o error al guardarlo).
+     */
+    public ResultadoAsignacionPago registrarPagoConExcedente(String idPrestamo, int numeroCuota, long montoRecibido) {
+        ResultadoAsignacionPago resultado;
+        List<Pago> transacciones = new ArrayList<>();
+        bloqueoEstructura.readLock().lock();
+        try {
+            Prestamo prestamo = prestamosPorId.get(idPrestamo);
+            if (prestamo == null) {
+                if (mensajesEnConsola) {
+                    System.out.println("Error: Préstamo con ID " + idPrestamo + " no encontrado.");
+                }
+                return null;
+            }
+            if (numeroCuota <= 0 || numeroCuota > prestamo.getNumeroCuotas() || montoRecibido <= 0) {
+                return null;
+            }
+
+            ReentrantLock bloqueo = bloqueoDe(idPrestamo);
+            bloqueo.lock();
+            try {
+                if (prestamo.getCuota(numeroCuota).getEstado() == Cuota.EstadoCuota.PAGADA) {
+                    return null;
+                }
+                resultado = new ResultadoAsignacionPago(idPrestamo, montoRecibido);
+                DeshacerPagos deshacer = new DeshacerPagos();
+                LocalDate hoy = LocalDate.now();
+                long restante = montoRecibido;
+                for (int n = numeroCuota; n <= prestamo.getNumeroCuotas() && restante > 0; n++) {
+                    Cuota cuota = prestamo.getCuota(n);
+                    if (cuota.getEstado() == Cuota.EstadoCuota.PAGADA) {
+                        continue;
+                    }
+                    long aplicado = Math.min(restante, cuota.getSaldoPendienteCentavos());
+                    deshacer.recordar(cuota);
+                    prestamo.registrarPagoEnCuota(n, aplicado);
+                    restante -= aplicado;
+                    resultado.agregarAsignacion(n, aplicado, cuota.getEstado());
+                    transacciones.add(new Pago(idPrestamo, n, aplicado, hoy));
+                }
+
+                if (gestorPagos != null) {
+                    try {
+                        gestorPagos.agregarPagos(transacciones);
+                    } catch (IOException e) {
+                        // Ninguna transacción quedó en el libro de pagos: se deshace toda la distribución
+                        deshacer.deshacer();
+                        System.err.println("Error al registrar el pago en el libro de pagos: " + e.getMessage());
+                        return null;
+                    }
+                } else {
+                    System.err.println("Advertencia: GestorPagos no inicializado. La transacción de pago no se guardará persistentemente.");
+                }
+            } finally {
+                bloqueo.unlock();
+            }
+        } finally {
+            bloqueoEstructura.readLock().unlock();
+        }
+        if (mensajesEnConsola) {
+            for (Pago pago : transacciones) {
+                System.out.println("Transacción de pago de " + pago.getMontoPagadoFormateado() +
+                        " para Préstamo " + idPrestamo + ", Cuota #" + pago.getNumeroCuota() + " registrada.");
             }
-            return true;
-        } else {
-            return false;
         }
+        return resultado;
     }
 
     /**
@@ -299,23 +845,127 @@ public class GestorPrestamo {
             return;
         }
 
-        for (Pago pago : todosLosPagosHistoricos) {
-            Prestamo prestamo = obtenerPrestamo(pago.getIdPrestamo());
-            if (prestamo != null) {
-                prestamo.registrarPagoEnCuota(pago.getNumeroCuota(), pago.getMontoPagado());
+        bloqueoEstructura.writeLock().lock();
+        try {
+            for (Pago pago : todosLosPagosHistoricos) {
+                Prestamo prestamo = prestamosPorId.get(pago.getIdPrestamo());
+                if (prestamo != null) {
+                    prestamo.registrarPagoEnCuota(pago.getNumeroCuota(), pago.getMontoPagadoCentavos());
+                }
             }
+        } finally {
+            bloqueoEstructura.writeLock().unlock();
         }
     }
 
     /**
-     * Itera sobre todos los préstamos para verificar y aplicar el estado de mora
-     * a las cuotas que estén vencidas.
+     * Verifica y aplica el estado de mora a las cuotas que estén vencidas.
+     * Solo recorre los préstamos del índice por vencimiento cuya próxima cuota sin evaluar vence antes de
+     * {@code fechaActual}, y de cada uno las cuotas que vencieron desde el último barrido. El resultado es el mismo que invocar
+     * {@link Cuota#verificarYAplicarMora(LocalDate)} sobre todas las cuotas, porque una cuota
+     * vencida que ya fue evaluada queda en MORA o PAGADA y no vuelve a cambiar por mora.
+     * <p>
+     * Los préstamos con cuotas vencidas se reparten en paralelo sobre el ForkJoinPool común;
+     * cada préstamo lo procesa un único hilo. El estado de mora no forma parte
+     * de prestamos.csv (se conserva en el snapshot y en los checkpoints), por lo que el barrido
+     * no reescribe ese archivo.
+     *
      * @param fechaActual La fecha actual para la verificación.
+     * @return las cuotas que entraron en mora con este barrido y sus penalidades.
      */
-    public void verificarYAplicarMoraATodosLosPrestamos(LocalDate fechaActual) {
-        for (Prestamo prestamo : prestamos) {
-            prestamo.verificarMoraDeCuotas(fechaActual);
+    public ResumenMora verificarYAplicarMoraATodosLosPrestamos(LocalDate fechaActual) {
+        bloqueoEstructura.writeLock().lock();
+        try {
+            NavigableMap<LocalDate, Set<SeguimientoMora>> vencidos = prestamosPorVencimiento.headMap(fechaActual, false);
+            List<SeguimientoMora> grupos = new ArrayList<>();
+            for (Set<SeguimientoMora> delDia : vencidos.values()) {
+                grupos.addAll(delDia);
+            }
+            vencidos.clear();
+
+            List<ResumenMora.CuotaEnMora> nuevas;
+            try {
+                nuevas = new BarridoMora(grupos, 0, grupos.size(), fechaActual).invoke();
+            } finally {
+                // Los préstamos que todavía tienen cuotas sin vencer vuelven al índice con su nueva próxima cuota,
+                // también si el barrido falló: así el próximo barrido retoma desde donde quedó cada uno
+                for (SeguimientoMora seguimiento : grupos) {
+                    if (seguimiento.proximaCuota <= seguimiento.prestamo.getNumeroCuotas()) {
+                        agregarAlIndiceDeVencimientos(seguimiento);
+                    } else {
+                        seguimientosMora.remove(seguimiento.prestamo);
+                    }
+                }
+            }
+            return new ResumenMora(fechaActual, nuevas);
+        } finally {
+            bloqueoEstructura.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Próxima cuota de un préstamo que el barrido de mora todavía no evaluó, y su vencimiento.
+     */
+    private static final class SeguimientoMora {
+        private final Prestamo prestamo;
+        private int proximaCuota = 1;
+        private LocalDate proximoVencimiento;
+
+        SeguimientoMora(Prestamo prestamo, LocalDate proximoVencimiento) {
+            this.prestamo = prestamo;
+            this.proximoVencimiento = proximoVencimiento;
+        }
+    }
+
+    /**
+     * Tarea del barrido de mora sobre un rango de préstamos con cuotas vencidas. Cada préstamo avanza
+     * su próxima cuota sin evaluar hasta la primera que no venció.
+     * Divide el rango en mitades hasta {@link #UMBRAL_GRUPOS} y concatena los resultados en orden.
+     */
+    private static final class BarridoMora extends RecursiveTask<List<ResumenMora.CuotaEnMora>> {
+        private static final long serialVersionUID = 1L;
+        private static final int UMBRAL_GRUPOS = 64;
+        private final transient List<SeguimientoMora> grupos;
+        private final int desde;
+        private final int hasta;
+        private final LocalDate fechaActual;
+
+        BarridoMora(List<SeguimientoMora> grupos, int desde, int hasta, LocalDate fechaActual) {
+            this.grupos = grupos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.fechaActual = fechaActual;
+        }
+
+        @Override
+        protected List<ResumenMora.CuotaEnMora> compute() {
+            if (hasta - desde <= UMBRAL_GRUPOS) {
+                List<ResumenMora.CuotaEnMora> nuevas = new ArrayList<>();
+                for (int i = desde; i < hasta; i++) {
+                    SeguimientoMora seguimiento = grupos.get(i);
+                    Prestamo prestamo = seguimiento.prestamo;
+                    while (seguimiento.proximoVencimiento.isBefore(fechaActual)) {
+                        Cuota cuota = prestamo.getCuota(seguimiento.proximaCuota);
+                        long penalidadAntes = cuota.getMontoPenalidadAcumuladaCentavos();
+                        if (cuota.verificarYAplicarMora(fechaActual)) {
+                            nuevas.add(new ResumenMora.CuotaEnMora(prestamo.getIdPrestamo(), seguimiento.proximaCuota,
+                                    cuota.getMontoPenalidadAcumuladaCentavos() - penalidadAntes));
+                        }
+                        if (++seguimiento.proximaCuota > prestamo.getNumeroCuotas()) {
+                            break;
+                        }
+                        seguimiento.proximoVencimiento = prestamo.getCuota(seguimiento.proximaCuota).getFechaVencimiento();
+                    }
+                }
+                return nuevas;
+            }
+            int medio = (desde + hasta) >>> 1;
+            BarridoMora izquierda = new BarridoMora(grupos, desde, medio, fechaActual);
+            izquierda.fork();
+            List<ResumenMora.CuotaEnMora> derecha = new BarridoMora(grupos, medio, hasta, fechaActual).compute();
+            List<ResumenMora.CuotaEnMora> resultado = izquierda.join();
+            resultado.addAll(derecha);
+            return resultado;
         }
-        guardarEnArchivoCSV(archivoPrestamos);
     }
-}
\ No newline at end of file
+}
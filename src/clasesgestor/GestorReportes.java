@@ -3,42 +3,56 @@ package clasesgestor;
 import clasesmodelo.Cliente;
 import clasesmodelo.Prestamo;
 import clasesmodelo.Cuota;
+import clasesmodelo.FormatoMoneda;
 
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDFormContentStream;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.util.Matrix;
 
 import java.awt.Color;
 import java.io.File;
 import java.io.IOException;
-import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 /**
  * Clase responsable de generar reportes en formato PDF para el sistema financiero.
  * Utiliza la biblioteca Apache PDFBox para crear documentos con tablas y texto formateado.
+ * <p>
+ * El estado de cada documento en construcción (documento, stream de la página actual y cursor vertical)
+ * vive en un objeto propio de cada generación, por lo que una misma instancia puede generar
+ * reportes desde varios hilos a la vez.
  *
  * @author Tu Nombre
  * @version 1.2
  */
 public class GestorReportes {
 
-    private PDDocument document;
-    private PDPageContentStream contentStream;
-    private float yPosition;
-
     private static final float MARGIN_X = 50;
     private static final float START_Y = 750;
     private static final float BOTTOM_MARGIN = 50;
     private static final float TABLE_ROW_HEIGHT = 20f;
     private static final float CELL_MARGIN = 5f;
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    /**
+     * Memoria principal que puede ocupar cada documento en construcción; las páginas que no entran
+     * se guardan en un archivo temporal, de modo que el consumo no depende de la cantidad de préstamos y cuotas.
+     */
+    private static final long MEMORIA_MAXIMA_DOCUMENTO = 4L * 1024 * 1024;
 
     /**
      * Genera un reporte PDF completo para un cliente específico.
@@ -48,197 +62,295 @@ public class GestorReportes {
      * @param prestamos La lista de préstamos asociados a ese cliente.
      */
     public void generarReporteCliente(Cliente cliente, List<Prestamo> prestamos) {
-        this.document = new PDDocument();
+        File directorio = new File("reportes");
+        if (!directorio.exists()) {
+            directorio.mkdirs();
+        }
+        String nombreArchivo = "reportes/reporte_cliente_" + cliente.getdni() + ".pdf";
 
         try {
-            File directorio = new File("reportes");
-            if (!directorio.exists()) {
-                directorio.mkdirs();
-            }
-            String nombreArchivo = "reportes/reporte_cliente_" + cliente.getdni() + ".pdf";
+            escribirReporteCliente(cliente, prestamos, new File(nombreArchivo));
+
+            System.out.println("**************************************************");
+            System.out.println("PDF generado:" + nombreArchivo);
+            System.out.println("**************************************************");
 
-            startNewPage();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Escribe el reporte PDF de un cliente en el archivo indicado, sin mensajes por consola.
+     * Puede invocarse desde varios hilos a la vez.
+     * <p>
+     * El documento usa a lo sumo unos pocos megabytes de memoria principal y el resto en un
+     * archivo temporal; las filas de cuotas se dibujan de a una y cada página se cierra al llenarse,
+     * por lo que el consumo de memoria queda acotado aunque el cliente tenga cientos de préstamos.
+     *
+     * @param cliente El objeto Cliente del cual se generará el reporte.
+     * @param prestamos La lista de préstamos asociados a ese cliente.
+     * @param destino El archivo PDF a escribir.
+     * @throws IOException Si ocurre un error al generar o guardar el documento.
+     */
+    public void escribirReporteCliente(Cliente cliente, List<Prestamo> prestamos, File destino) throws IOException {
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupMixed(MEMORIA_MAXIMA_DOCUMENTO).streamCache)) {
+            DocumentoEnCurso doc = new DocumentoEnCurso(document);
+            doc.startNewPage();
 
             // Título y datos del cliente
-            writeLine(cliente.getNombre() + " " + cliente.getApellido(), 22, true);
-            yPosition -= 15;
-            writeLine("Reporte Financiero - Generado el " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), 14, false);
-            yPosition -= 25;
+            doc.writeLine(cliente.getNombre() + " " + cliente.getApellido(), 22, true);
+            doc.yPosition -= 15;
+            doc.writeLine("Reporte Financiero - Generado el " + LocalDate.now().format(FORMATO_FECHA), 14, false);
+            doc.yPosition -= 25;
 
-            writeSectionTitle("Datos Personales");
-            writeLine("DNI: " + cliente.getdni(), 12, false);
-            writeLine("Dirección: " + cliente.getDireccion(), 12, false);
-            writeLine("Teléfono: " + cliente.getTelefono(), 12, false);
-            writeLine("Correo Electrónico: " + cliente.getCorreoElectronico(), 12, false);
-            yPosition -= 25;
+            doc.writeSectionTitle("Datos Personales");
+            doc.writeLine("DNI: " + cliente.getdni(), 12, false);
+            doc.writeLine("Dirección: " + cliente.getDireccion(), 12, false);
+            doc.writeLine("Teléfono: " + cliente.getTelefono(), 12, false);
+            doc.writeLine("Correo Electrónico: " + cliente.getCorreoElectronico(), 12, false);
+            doc.yPosition -= 25;
 
             // Sección de Préstamos y Cuotas en tablas
-            writeSectionTitle("Resumen de Préstamos y Detalle de Cuotas");
+            doc.writeSectionTitle("Resumen de Préstamos y Detalle de Cuotas");
             if (prestamos.isEmpty()) {
-                checkPageBreak();
-                writeLine("El cliente no tiene préstamos asociados.", 12, false);
+                doc.checkPageBreak();
+                doc.writeLine("El cliente no tiene préstamos asociados.", 12, false);
             } else {
                 for (Prestamo p : prestamos) {
-                    checkPageBreak();
+                    doc.checkPageBreak();
 
                     String[] prestamoHeaders = {"ID Préstamo", "Tipo", "Monto Original", "Fecha Inicio", "Saldo Pendiente"};
                     List<String[]> prestamoData = new ArrayList<>();
                     prestamoData.add(new String[]{
                             p.getIdPrestamo(), p.getTipoPrestamoString(), p.getMontoFormateado(),
                             p.getFechaInicio().toString(),
-                            NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(p.calcularSaldoPendienteTotal())
+                            FormatoMoneda.formatear(p.calcularSaldoPendienteTotalCentavos())
                     });
-                    drawTable(prestamoHeaders, prestamoData, new float[]{0.15f, 0.15f, 0.25f, 0.2f, 0.25f});
-                    yPosition -= 10;
+                    doc.drawTable(prestamoHeaders, prestamoData, new float[]{0.15f, 0.15f, 0.25f, 0.2f, 0.25f});
+                    doc.yPosition -= 10;
 
+                    // Las cuotas se dibujan a medida que se recorren: cada página se cierra en cuanto se llena
                     String[] cuotasHeaders = {"#", "Vencimiento", "Estado", "Saldo Pendiente", "Penalidad"};
-                    List<String[]> cuotasData = new ArrayList<>();
-                    for (Cuota c : p.getCuotas()) {
-                        String penalidad = c.getMontoPenalidadAcumulada() > 0 ? c.getMontoPenalidadAcumuladaFormateado() : "-";
-                        cuotasData.add(new String[]{
-                                String.valueOf(c.getNumeroCuota()),
-                                c.getFechaVencimiento().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                                c.getEstado().toString(), c.getSaldoPendienteFormateado(), penalidad
-                        });
+                    float[] colWidths = doc.drawTableHeader(cuotasHeaders, new float[]{0.05f, 0.25f, 0.25f, 0.25f, 0.20f});
+                    String[] fila = new String[cuotasHeaders.length];
+                    for (int n = 1; n <= p.getNumeroCuotas(); n++) {
+                        Cuota c = p.getCuota(n);
+                        fila[0] = String.valueOf(c.getNumeroCuota());
+                        fila[1] = c.getFechaVencimiento().format(FORMATO_FECHA);
+                        fila[2] = c.getEstado().toString();
+                        fila[3] = c.getSaldoPendienteFormateado();
+                        fila[4] = c.getMontoPenalidadAcumulada() > 0 ? c.getMontoPenalidadAcumuladaFormateado() : "-";
+                        doc.drawRow(fila, colWidths);
                     }
-                    drawTable(cuotasHeaders, cuotasData, new float[]{0.05f, 0.25f, 0.25f, 0.25f, 0.20f});
-                    yPosition -= 25;
+                    doc.yPosition -= 25;
                 }
             }
 
-            contentStream.close();
-            document.save(nombreArchivo);
-
-            System.out.println("**************************************************");
-            System.out.println("PDF generado:" + nombreArchivo);
-            System.out.println("**************************************************");
-
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                if (document != null) {
-                    document.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            doc.contentStream.close();
+            document.save(destino, CompressParameters.DEFAULT_COMPRESSION);
         }
     }
 
     /**
-     * [PRIVADO] Escribe una línea de texto simple y mueve el cursor verticalmente.
-     * @param text El texto a escribir.
-     * @param fontSize El tamaño de la fuente.
-     * @param isBold Si el texto debe estar en negrita.
-     * @throws IOException Si ocurre un error al escribir en el stream.
+     * Estado de un documento en construcción: el documento, el stream de la página actual y la
+     * posición vertical del cursor. Cada generación de reporte usa su propia instancia.
      */
-    private void writeLine(String text, int fontSize, boolean isBold) throws IOException {
-        contentStream.beginText();
-        contentStream.setFont(isBold ? new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD) : new PDType1Font(Standard14Fonts.FontName.HELVETICA), fontSize);
-        contentStream.newLineAtOffset(MARGIN_X, yPosition);
-        contentStream.showText(text);
-        contentStream.endText();
-        yPosition -= (fontSize * 1.5f);
-    }
+    private static final class DocumentoEnCurso {
+        private final PDDocument document;
+        private PDPageContentStream contentStream;
+        private float yPosition;
+        // Una sola instancia de cada fuente por documento: crear una por texto agrega un recurso de fuente por celda
+        private final PDType1Font fuenteNormal = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        private final PDType1Font fuenteNegrita = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        // Cabeceras de tabla ya dibujadas en este documento, por sus títulos
+        private final Map<String, PDFormXObject> cabeceras = new HashMap<>();
+        private PDType1Font fuenteActual;
+        private int tamanioFuenteActual;
 
-    /**
-     * [PRIVADO] Escribe texto dentro de una celda de tabla, sin mover el cursor vertical principal.
-     * @param text El texto a escribir.
-     * @param fontSize El tamaño de la fuente.
-     * @param isBold Si el texto debe estar en negrita.
-     * @param xPosition La coordenada X donde comenzará el texto.
-     * @throws IOException Si ocurre un error al escribir en el stream.
-     */
-    private void writeCellText(String text, int fontSize, boolean isBold, float xPosition) throws IOException {
-        float y = yPosition + (TABLE_ROW_HEIGHT - fontSize) / 2;
-        contentStream.beginText();
-        contentStream.setFont(isBold ? new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD) : new PDType1Font(Standard14Fonts.FontName.HELVETICA), fontSize);
-        contentStream.newLineAtOffset(xPosition, y);
-        contentStream.showText(text != null ? text : "");
-        contentStream.endText();
-    }
+        DocumentoEnCurso(PDDocument document) {
+            this.document = document;
+        }
 
-    /**
-     * [PRIVADO] Dibuja una tabla completa con cabecera y datos.
-     * @param headers Los títulos de las columnas.
-     * @param data Una lista, donde cada elemento es un array de Strings representando una fila.
-     * @param colWidthsPorcentajes Array con el porcentaje de ancho para cada columna (la suma debe ser 1).
-     * @throws IOException Si ocurre un error al dibujar.
-     */
-    private void drawTable(String[] headers, List<String[]> data, float[] colWidthsPorcentajes) throws IOException {
-        float tableWidth = PDRectangle.A4.getWidth() - (MARGIN_X * 2);
-        float[] colWidths = new float[colWidthsPorcentajes.length];
-        for (int i = 0; i < colWidthsPorcentajes.length; i++) {
-            colWidths[i] = tableWidth * colWidthsPorcentajes[i];
+        /**
+         * [PRIVADO] Escribe una línea de texto simple y mueve el cursor verticalmente.
+         * @param text El texto a escribir.
+         * @param fontSize El tamaño de la fuente.
+         * @param isBold Si el texto debe estar en negrita.
+         * @throws IOException Si ocurre un error al escribir en el stream.
+         */
+        private void writeLine(String text, int fontSize, boolean isBold) throws IOException {
+            contentStream.beginText();
+            useFont(isBold ? fuenteNegrita : fuenteNormal, fontSize);
+            contentStream.newLineAtOffset(MARGIN_X, yPosition);
+            contentStream.showText(text);
+            contentStream.endText();
+            yPosition -= (fontSize * 1.5f);
         }
-        drawRow(headers, colWidths, true);
-        for (String[] rowData : data) {
-            drawRow(rowData, colWidths, false);
+
+        /**
+         * [PRIVADO] Selecciona la fuente en el stream de la página solo si difiere de la que ya está en uso,
+         * para no repetir el operador de fuente en cada texto.
+         * @param font La fuente a usar.
+         * @param fontSize El tamaño de la fuente.
+         * @throws IOException Si ocurre un error al escribir en el stream.
+         */
+        private void useFont(PDType1Font font, int fontSize) throws IOException {
+            if (font != fuenteActual || fontSize != tamanioFuenteActual) {
+                contentStream.setFont(font, fontSize);
+                fuenteActual = font;
+                tamanioFuenteActual = fontSize;
+            }
         }
-    }
 
-    /**
-     * [PRIVADO] Dibuja una única fila de una tabla, incluyendo bordes y texto.
-     * @param rowData Array con los datos de cada celda de la fila.
-     * @param colWidths Array con los anchos de cada columna.
-     * @param isHeader Si la fila es una cabecera (para aplicar estilo).
-     * @throws IOException Si ocurre un error al dibujar.
-     */
-    private void drawRow(String[] rowData, float[] colWidths, boolean isHeader) throws IOException {
-        checkPageBreak();
-        float x = MARGIN_X;
-        if (isHeader) {
-            contentStream.setNonStrokingColor(Color.LIGHT_GRAY);
-            contentStream.addRect(x, yPosition, PDRectangle.A4.getWidth() - (MARGIN_X * 2), TABLE_ROW_HEIGHT);
-            contentStream.fill();
-            contentStream.setNonStrokingColor(Color.BLACK);
+        /**
+         * [PRIVADO] Dibuja una tabla completa con cabecera y datos.
+         * @param headers Los títulos de las columnas.
+         * @param data Una lista, donde cada elemento es un array de Strings representando una fila.
+         * @param colWidthsPorcentajes Array con el porcentaje de ancho para cada columna (la suma debe ser 1).
+         * @throws IOException Si ocurre un error al dibujar.
+         */
+        private void drawTable(String[] headers, List<String[]> data, float[] colWidthsPorcentajes) throws IOException {
+            float[] colWidths = drawTableHeader(headers, colWidthsPorcentajes);
+            for (String[] rowData : data) {
+                drawRow(rowData, colWidths);
+            }
         }
-        for (int i = 0; i < rowData.length; i++) {
-            contentStream.addRect(x, yPosition, colWidths[i], TABLE_ROW_HEIGHT);
-            writeCellText(rowData[i], 10, isHeader, x + CELL_MARGIN);
-            x += colWidths[i];
+
+        /**
+         * [PRIVADO] Dibuja la cabecera de una tabla cuyas filas se dibujan luego de a una con
+         * {@link #drawRow(String[], float[])}, sin acumularlas antes en memoria.
+         * @param headers Los títulos de las columnas.
+         * @param colWidthsPorcentajes Array con el porcentaje de ancho para cada columna (la suma debe ser 1).
+         * @return los anchos absolutos de cada columna.
+         * @throws IOException Si ocurre un error al dibujar.
+         */
+        private float[] drawTableHeader(String[] headers, float[] colWidthsPorcentajes) throws IOException {
+            float tableWidth = PDRectangle.A4.getWidth() - (MARGIN_X * 2);
+            float[] colWidths = new float[colWidthsPorcentajes.length];
+            for (int i = 0; i < colWidthsPorcentajes.length; i++) {
+                colWidths[i] = tableWidth * colWidthsPorcentajes[i];
+            }
+            checkPageBreak();
+            String clave = String.join("|", headers);
+            PDFormXObject cabecera = cabeceras.get(clave);
+            if (cabecera == null) {
+                cabecera = createHeaderForm(headers, colWidths, tableWidth);
+                cabeceras.put(clave, cabecera);
+            }
+            contentStream.saveGraphicsState();
+            contentStream.transform(Matrix.getTranslateInstance(MARGIN_X, yPosition));
+            contentStream.drawForm(cabecera);
+            contentStream.restoreGraphicsState();
+            yPosition -= TABLE_ROW_HEIGHT;
+            return colWidths;
         }
-        contentStream.stroke();
-        yPosition -= TABLE_ROW_HEIGHT;
-    }
 
-    /**
-     * [PRIVADO] Dibuja un título de sección formateado con una línea debajo.
-     * @param title El texto del título.
-     * @throws IOException Si ocurre un error al dibujar.
-     */
-    private void writeSectionTitle(String title) throws IOException {
-        checkPageBreak();
-        writeLine(title, 16, true);
-        yPosition -= 5;
-        contentStream.setStrokingColor(0, 0, 0);
-        contentStream.setLineWidth(1);
-        contentStream.moveTo(MARGIN_X, yPosition);
-        contentStream.lineTo(MARGIN_X + 500, yPosition);
-        contentStream.stroke();
-        yPosition -= 15;
-    }
+        /**
+         * [PRIVADO] Dibuja una cabecera de tabla (fondo gris, bordes y títulos) en un form XObject
+         * que luego se reutiliza en cada tabla del mismo tipo del documento.
+         * @param headers Los títulos de las columnas.
+         * @param colWidths Los anchos absolutos de cada columna.
+         * @param tableWidth El ancho total de la tabla.
+         * @return el form XObject con la cabecera, con origen en su esquina inferior izquierda.
+         * @throws IOException Si ocurre un error al dibujar.
+         */
+        private PDFormXObject createHeaderForm(String[] headers, float[] colWidths, float tableWidth) throws IOException {
+            PDFormXObject form = new PDFormXObject(new PDStream(document));
+            form.setBBox(new PDRectangle(tableWidth, TABLE_ROW_HEIGHT));
+            form.setResources(new PDResources());
+            try (PDFormContentStream cs = new PDFormContentStream(form)) {
+                cs.setNonStrokingColor(Color.LIGHT_GRAY);
+                cs.addRect(0, 0, tableWidth, TABLE_ROW_HEIGHT);
+                cs.fill();
+                cs.setNonStrokingColor(Color.BLACK);
+                float x = 0;
+                for (float w : colWidths) {
+                    cs.addRect(x, 0, w, TABLE_ROW_HEIGHT);
+                    x += w;
+                }
+                cs.stroke();
+                cs.beginText();
+                cs.setFont(fuenteNegrita, 10);
+                cs.newLineAtOffset(CELL_MARGIN, (TABLE_ROW_HEIGHT - 10) / 2);
+                for (int i = 0; i < headers.length; i++) {
+                    if (i > 0) {
+                        cs.newLineAtOffset(colWidths[i - 1], 0);
+                    }
+                    cs.showText(headers[i]);
+                }
+                cs.endText();
+            }
+            return form;
+        }
 
-    /**
-     * [PRIVADO] Verifica si se necesita una nueva página y la crea si es necesario.
-     * @throws IOException Si ocurre un error al crear la página.
-     */
-    private void checkPageBreak() throws IOException {
-        if (yPosition <= BOTTOM_MARGIN) {
-            contentStream.close();
-            startNewPage();
+        /**
+         * [PRIVADO] Dibuja una única fila de datos de una tabla: primero todos los bordes con un único trazo
+         * y luego todos los textos en un único objeto de texto.
+         * @param rowData Array con los datos de cada celda de la fila.
+         * @param colWidths Array con los anchos de cada columna.
+         * @throws IOException Si ocurre un error al dibujar.
+         */
+        private void drawRow(String[] rowData, float[] colWidths) throws IOException {
+            checkPageBreak();
+            float x = MARGIN_X;
+            for (int i = 0; i < rowData.length; i++) {
+                contentStream.addRect(x, yPosition, colWidths[i], TABLE_ROW_HEIGHT);
+                x += colWidths[i];
+            }
+            contentStream.stroke();
+
+            contentStream.beginText();
+            useFont(fuenteNormal, 10);
+            contentStream.newLineAtOffset(MARGIN_X + CELL_MARGIN, yPosition + (TABLE_ROW_HEIGHT - 10) / 2);
+            for (int i = 0; i < rowData.length; i++) {
+                if (i > 0) {
+                    contentStream.newLineAtOffset(colWidths[i - 1], 0);
+                }
+                contentStream.showText(rowData[i] != null ? rowData[i] : "");
+            }
+            contentStream.endText();
+            yPosition -= TABLE_ROW_HEIGHT;
         }
-    }
 
-    /**
-     * [PRIVADO] Crea una nueva página en el documento y reinicia el cursor de escritura.
-     * @throws IOException Si ocurre un error al crear el stream de contenido.
-     */
-    private void startNewPage() throws IOException {
-        PDPage newPage = new PDPage(PDRectangle.A4);
-        document.addPage(newPage);
-        contentStream = new PDPageContentStream(document, newPage);
-        yPosition = START_Y;
+        /**
+         * [PRIVADO] Dibuja un título de sección formateado con una línea debajo.
+         * @param title El texto del título.
+         * @throws IOException Si ocurre un error al dibujar.
+         */
+        private void writeSectionTitle(String title) throws IOException {
+            checkPageBreak();
+            writeLine(title, 16, true);
+            yPosition -= 5;
+            contentStream.setStrokingColor(0, 0, 0);
+            contentStream.setLineWidth(1);
+            contentStream.moveTo(MARGIN_X, yPosition);
+            contentStream.lineTo(MARGIN_X + 500, yPosition);
+            contentStream.stroke();
+            yPosition -= 15;
+        }
+
+        /**
+         * [PRIVADO] Verifica si se necesita una nueva página y la crea si es necesario.
+         * @throws IOException Si ocurre un error al crear la página.
+         */
+        private void checkPageBreak() throws IOException {
+            if (yPosition <= BOTTOM_MARGIN) {
+                contentStream.close();
+                startNewPage();
+            }
+        }
+
+        /**
+         * [PRIVADO] Crea una nueva página en el documento y reinicia el cursor de escritura.
+         * @throws IOException Si ocurre un error al crear el stream de contenido.
+         */
+        private void startNewPage() throws IOException {
+            PDPage newPage = new PDPage(PDRectangle.A4);
+            document.addPage(newPage);
+            contentStream = new PDPageContentStream(document, newPage);
+            fuenteActual = null;
+            yPosition = START_Y;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package clasesgestor;
+
+import clasesmodelo.Cuota;
+import clasesmodelo.Pago;
+import clasesmodelo.Prestamo;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gestiona un snapshot binario del estado completamente materializado de préstamos,
+ * cuotas (montos pagados, penalidades y estados) y pagos.
+ * El snapshot se escribe al cerrar el sistema de forma ordenada y permite que el siguiente
+ * inicio evite parsear los CSV, regenerar los planes de cuotas y reaplicar todos los pagos.
+ * Junto con los datos se guarda el tamaño y la fecha de modificación de los CSV de origen:
+ * si alguno cambió desde entonces, el snapshot se considera desactualizado y se descarta.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class GestorSnapshot {
+    private static final int MAGIC = 0x46494E53; // "FINS"
+    /** Versión 2: los montos se guardan en centavos ({@code long}). Los snapshots anteriores se descartan. */
+    private static final int VERSION = 2;
+    private static final String[] ARCHIVOS_FUENTE = {
+            "data/prestamos.csv", "data/pagos.csv", "data/pagos_journal.csv"
+    };
+    private final String archivoSnapshot = "data/estado.snap";
+
+    /**
+     * Guarda el estado actual de préstamos y pagos en el snapshot binario.
+     * Debe llamarse después de guardar los CSV, ya que registra su estado en disco.
+     *
+     * @param gestorPrestamo El gestor con los préstamos a guardar.
+     * @param gestorPago El gestor con los pagos a guardar.
+     */
+    public void guardar(GestorPrestamo gestorPrestamo, GestorPago gestorPago) {
+        File destino = new File(archivoSnapshot);
+        File temporal = new File(archivoSnapshot + ".tmp");
+        File directorio = destino.getParentFile();
+        if (directorio != null && !directorio.exists()) {
+            directorio.mkdirs();
+        }
+
+        // El estado se escribe sin pagos en curso, para que cuotas y pagos queden consistentes entre sí
+        boolean escrito = gestorPrestamo.ejecutarEnExclusiva(() -> escribirEstado(temporal, gestorPrestamo, gestorPago));
+        if (!escrito) {
+            temporal.delete();
+            return;
+        }
+
+        try {
+            Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            SincronizacionDisco.sincronizarDirectorio(destino);
+        } catch (IOException e) {
+            System.err.println("Error al reemplazar el snapshot de estado: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper privado que escribe el snapshot completo en el archivo indicado.
+     * @return {@code true} si el archivo se escribió sin errores.
+     */
+    private boolean escribirEstado(File temporal, GestorPrestamo gestorPrestamo, GestorPago gestorPago) {
+        try (FileOutputStream fos = new FileOutputStream(temporal);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            escribirSellosFuente(out);
+
+            List<Prestamo> prestamos = new ArrayList<>();
+            for (Prestamo p : gestorPrestamo.listarPrestamos()) {
+                // Igual que en prestamos.csv, los préstamos del cliente de prueba no se persisten
+                if (!"00000000".equals(p.getDniCliente())) {
+                    prestamos.add(p);
+                }
+            }
+            out.writeInt(prestamos.size());
+            for (Prestamo p : prestamos) {
+                out.writeUTF(p.getIdPrestamo());
+                out.writeUTF(p.getDniCliente());
+                out.writeLong(p.getMontoCentavos());
+                out.writeBoolean(p.esHipotecario());
+                out.writeLong(p.getFechaInicio().toEpochDay());
+                List<Cuota> cuotas = p.getCuotas();
+                out.writeInt(cuotas.size());
+                for (Cuota c : cuotas) {
+                    out.writeLong(c.getMontoOriginalCentavos());
+                    out.writeLong(c.getMontoPagadoCentavos());
+                    out.writeLong(c.getMontoPenalidadAcumuladaCentavos());
+                    out.writeLong(c.getFechaVencimiento().toEpochDay());
+                    out.writeByte(c.getEstado().ordinal());
+                }
+            }
+
+            List<Pago> pagos = gestorPago.getAllPagos();
+            out.writeInt(pagos.size());
+            for (Pago pago : pagos) {
+                out.writeUTF(pago.getIdPrestamo());
+                out.writeInt(pago.getNumeroCuota());
+                out.writeLong(pago.getMontoPagadoCentavos());
+                out.writeLong(pago.getFechaPago().toEpochDay());
+            }
+            // El contenido debe estar en disco antes de reemplazar el snapshot anterior
+            out.flush();
+            fos.getFD().sync();
+        } catch (IOException e) {
+            System.err.println("Error al guardar el snapshot de estado: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Intenta restaurar préstamos y pagos desde el snapshot binario.
+     * Los gestores solo se modifican si el snapshot existe, está actualizado y se leyó completo;
+     * en cualquier otro caso se devuelve {@code false} para que el llamador use la carga desde CSV.
+     *
+     * @param gestorPrestamo Un gestor de préstamos vacío, creado sin cargar el CSV.
+     * @param gestorPago Un gestor de pagos vacío, creado sin cargar el CSV.
+     * @return {@code true} si el estado se restauró desde el snapshot.
+     */
+    public boolean cargar(GestorPrestamo gestorPrestamo, GestorPago gestorPago) {
+        File archivo = new File(archivoSnapshot);
+        if (!archivo.exists()) {
+            return false;
+        }
+
+        List<Prestamo> prestamos = new ArrayList<>();
+        List<Pago> pagos = new ArrayList<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(archivo), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !sellosFuenteVigentes(in)) {
+                return false;
+            }
+
+            int cantidadPrestamos = in.readInt();
+            for (int i = 0; i < cantidadPrestamos; i++) {
+                String idPrestamo = in.readUTF();
+                String dniCliente = in.readUTF();
+                long monto = in.readLong();
+                boolean esHipotecario = in.readBoolean();
+                LocalDate fechaInicio = LocalDate.ofEpochDay(in.readLong());
+                int cantidadCuotas = in.readInt();
+                // Las cuotas se leen directamente en los arreglos que usará el plan del préstamo
+                long[] montosOriginales = new long[cantidadCuotas];
+                long[] montosPagados = new long[cantidadCuotas];
+                long[] penalidades = new long[cantidadCuotas];
+                int[] vencimientos = new int[cantidadCuotas];
+                byte[] estados = new byte[cantidadCuotas];
+                for (int n = 0; n < cantidadCuotas; n++) {
+                    montosOriginales[n] = in.readLong();
+                    montosPagados[n] = in.readLong();
+                    penalidades[n] = in.readLong();
+                    vencimientos[n] = Math.toIntExact(in.readLong());
+                    estados[n] = in.readByte();
+                }
+                prestamos.add(new Prestamo(idPrestamo, dniCliente, monto, esHipotecario, fechaInicio,
+                        montosOriginales, montosPagados, penalidades, vencimientos, estados));
+            }
+
+            int cantidadPagos = in.readInt();
+            for (int i = 0; i < cantidadPagos; i++) {
+                pagos.add(new Pago(in.readUTF(), in.readInt(), in.readLong(), LocalDate.ofEpochDay(in.readLong())));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Advertencia: Snapshot de estado ilegible, se cargará desde CSV: " + e.getMessage());
+            return false;
+        }
+
+        gestorPrestamo.incorporarPrestamosCargados(prestamos);
+        gestorPago.incorporarPagosCargados(pagos);
+        return true;
+    }
+
+    /**
+     * Helper privado que escribe, para cada CSV de origen, si existe, su tamaño y su fecha de modificación.
+     */
+    private void escribirSellosFuente(DataOutputStream out) throws IOException {
+        out.writeInt(ARCHIVOS_FUENTE.length);
+        for (String ruta : ARCHIVOS_FUENTE) {
+            File fuente = new File(ruta);
+            out.writeBoolean(fuente.exists());
+            out.writeLong(fuente.exists() ? fuente.length() : 0);
+            out.writeLong(fuente.exists() ? fuente.lastModified() : 0);
+        }
+    }
+
+    /**
+     * Helper privado que compara los sellos guardados con el estado actual de los CSV de origen.
+     * @return {@code true} si ningún archivo de origen cambió desde que se escribió el snapshot.
+     */
+    private boolean sellosFuenteVigentes(DataInputStream in) throws IOException {
+        if (in.readInt() != ARCHIVOS_FUENTE.length) {
+            return false;
+        }
+        boolean vigentes = true;
+        for (String ruta : ARCHIVOS_FUENTE) {
+            File fuente = new File(ruta);
+            boolean existia = in.readBoolean();
+            long tamanio = in.readLong();
+            long modificado = in.readLong();
+            if (existia != fuente.exists()
+                    || (existia && (tamanio != fuente.length() || modificado != fuente.lastModified()))) {
+                vigentes = false;
+            }
+        }
+        return vigentes;
+    }
+}
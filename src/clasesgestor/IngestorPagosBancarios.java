@@ -0,0 +1,265 @@
+package clasesgestor;
+
+import clasesmodelo.Cuota;
+import clasesmodelo.Dinero;
+import clasesmodelo.Pago;
+import clasesmodelo.Prestamo;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Incorpora en bloque los pagos informados por el banco en un archivo diario, con el mismo
+ * formato que pagos.csv ({@code ID_Prestamo;Numero_Cuota;Monto_Pagado;Fecha_Pago}, con cabecera).
+ * <p>
+ * La incorporación tiene tres etapas:
+ * <ol>
+ *   <li>Lectura: el archivo se parsea en paralelo por bloques; cada línea produce una fila, válida o rechazada.</li>
+ *   <li>Partición: las filas válidas se agrupan por préstamo, conservando el orden del archivo dentro de cada grupo.</li>
+ *   <li>Aplicación: los grupos se aplican en paralelo, cada uno con las mismas reglas que
+ *       {@link Prestamo#registrarPagoEnCuota(int, long)}. Mientras dura no se registran otros pagos,
+ *       para que el libro de pagos refleje exactamente el orden en que se aplicaron.</li>
+ * </ol>
+ * Los pagos aceptados se persisten al final con una única escritura ({@link GestorPago#agregarPagos(List)})
+ * y el resultado de cada fila (aceptada o rechazada, con el motivo) se escribe en un reporte CSV.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class IngestorPagosBancarios {
+    private static final String CSV_HEADER_REPORTE = "Linea;ID_Prestamo;Numero_Cuota;Monto_Pagado;Resultado;Motivo";
+
+    private final GestorPrestamo gestorPrestamo;
+    private final GestorPago gestorPago;
+
+    /**
+     * Constructor del IngestorPagosBancarios.
+     *
+     * @param gestorPrestamo El gestor de préstamos a los que se aplican los pagos.
+     * @param gestorPago El gestor donde se registran las transacciones de pago aceptadas.
+     */
+    public IngestorPagosBancarios(GestorPrestamo gestorPrestamo, GestorPago gestorPago) {
+        this.gestorPrestamo = gestorPrestamo;
+        this.gestorPago = gestorPago;
+    }
+
+    /**
+     * Incorpora todos los pagos de un archivo del banco y escribe el reporte por fila.
+     *
+     * @param archivoBanco La ruta del archivo recibido del banco.
+     * @param archivoReporte La ruta del reporte CSV a generar.
+     * @return el resumen de la incorporación, o {@code null} si el archivo no pudo leerse o los pagos
+     *         no pudieron guardarse (en ese caso no se aplica ninguno).
+     */
+    public ResultadoIngesta ingerir(String archivoBanco, String archivoReporte) {
+        File archivo = new File(archivoBanco);
+        if (!archivo.exists()) {
+            System.err.println("Error: El archivo de pagos del banco " + archivoBanco + " no existe.");
+            return null;
+        }
+
+        // Etapa 1: lectura. Cada línea produce una fila, de modo que su posición da el número de línea.
+        List<FilaPago> filas;
+        try {
+            filas = CargadorCSVParalelo.cargar(archivo, true, IngestorPagosBancarios::parsearFila);
+        } catch (IOException e) {
+            System.err.println("Error al leer el archivo de pagos del banco: " + e.getMessage());
+            return null;
+        }
+
+        // Etapa 2: partición por préstamo, en el orden del archivo.
+        Map<String, List<FilaPago>> particiones = new LinkedHashMap<>();
+        for (FilaPago fila : filas) {
+            if (fila.motivoRechazo == null) {
+                particiones.computeIfAbsent(fila.idPrestamo, id -> new ArrayList<>()).add(fila);
+            }
+        }
+
+        // Etapa 3: aplicación en paralelo y registro del lote, sin pagos concurrentes de por medio.
+        ResultadoIngesta resultado = gestorPrestamo.ejecutarEnExclusiva(() -> {
+            List<Particion> trabajo = new ArrayList<>(particiones.size());
+            for (Map.Entry<String, List<FilaPago>> entrada : particiones.entrySet()) {
+                trabajo.add(new Particion(gestorPrestamo.obtenerPrestamo(entrada.getKey()), entrada.getValue()));
+            }
+            trabajo.parallelStream().forEach(Particion::aplicar);
+
+            List<Pago> aceptados = new ArrayList<>();
+            long montoAceptado = 0;
+            for (FilaPago fila : filas) {
+                if (fila.pago != null) {
+                    aceptados.add(fila.pago);
+                    montoAceptado += fila.montoPagado;
+                }
+            }
+            try {
+                gestorPago.agregarPagos(aceptados);
+            } catch (IOException e) {
+                // El lote no quedó en el libro de pagos: se devuelven las cuotas a su estado anterior
+                System.err.println("Error al registrar los pagos del banco en el libro de pagos: " + e.getMessage());
+                trabajo.forEach(Particion::deshacer);
+                for (FilaPago fila : filas) {
+                    if (fila.pago != null) {
+                        fila.pago = null;
+                        fila.motivoRechazo = "No se pudo guardar el pago";
+                    }
+                }
+                return null;
+            }
+            return new ResultadoIngesta(filas.size(), aceptados.size(), montoAceptado);
+        });
+
+        escribirReporte(filas, archivoReporte);
+        return resultado;
+    }
+
+    /**
+     * Helper privado que convierte una línea del archivo del banco en una fila.
+     * A diferencia de la carga de pagos.csv, las líneas inválidas no se omiten: se devuelven rechazadas
+     * para que figuren en el reporte.
+     */
+    private static FilaPago parsearFila(EscanerCSV linea, Consumer<String> advertencias) {
+        FilaPago fila = new FilaPago();
+        if (linea.cantidadCampos() != 4) {
+            fila.motivoRechazo = "Formato incorrecto: se esperaban 4 campos";
+            return fila;
+        }
+        try {
+            fila.idPrestamo = linea.campoTexto();
+            fila.numeroCuota = linea.campoEntero();
+            fila.montoPagado = linea.campoCentavos();
+            fila.fechaPago = linea.campoFecha();
+            fila.leida = true;
+        } catch (NumberFormatException e) {
+            fila.motivoRechazo = "Número de cuota o monto inválido";
+        } catch (DateTimeParseException e) {
+            fila.motivoRechazo = "Fecha de pago inválida";
+        }
+        return fila;
+    }
+
+    /**
+     * Helper privado que escribe el resultado de cada fila, en el orden del archivo original.
+     */
+    private static void escribirReporte(List<FilaPago> filas, String archivoReporte) {
+        File destino = new File(archivoReporte);
+        File directorio = destino.getParentFile();
+        if (directorio != null && !directorio.exists()) {
+            directorio.mkdirs();
+        }
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(destino), 1 << 16)) {
+            bw.write(CSV_HEADER_REPORTE);
+            bw.newLine();
+            StringBuilder sb = new StringBuilder(96);
+            for (int i = 0; i < filas.size(); i++) {
+                FilaPago fila = filas.get(i);
+                sb.setLength(0);
+                sb.append(i + 2).append(';'); // La línea 1 es la cabecera
+                if (fila.idPrestamo != null) {
+                    sb.append(fila.idPrestamo);
+                }
+                sb.append(';');
+                if (fila.leida) {
+                    sb.append(fila.numeroCuota).append(';');
+                    Dinero.aTexto(fila.montoPagado, sb).append(';');
+                } else {
+                    sb.append(";;");
+                }
+                if (fila.pago != null) {
+                    sb.append("ACEPTADO;");
+                } else {
+                    sb.append("RECHAZADO;").append(fila.motivoRechazo);
+                }
+                bw.write(sb.toString());
+                bw.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al escribir el reporte de pagos del banco: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Una línea del archivo del banco y su resultado. Cada fila es modificada únicamente por la
+     * partición de su préstamo.
+     */
+    private static final class FilaPago {
+        private String idPrestamo;
+        private int numeroCuota;
+        private long montoPagado;
+        private LocalDate fechaPago;
+        private boolean leida;
+        private String motivoRechazo;
+        private Pago pago;
+    }
+
+    /**
+     * Las filas válidas de un mismo préstamo, que se aplican en orden por un único hilo.
+     */
+    private static final class Particion {
+        private final Prestamo prestamo;
+        private final List<FilaPago> filas;
+        private final DeshacerPagos deshacer = new DeshacerPagos();
+
+        Particion(Prestamo prestamo, List<FilaPago> filas) {
+            this.prestamo = prestamo;
+            this.filas = filas;
+        }
+
+        void aplicar() {
+            for (FilaPago fila : filas) {
+                if (prestamo == null) {
+                    fila.motivoRechazo = "Préstamo inexistente";
+                } else if (fila.numeroCuota <= 0 || fila.numeroCuota > prestamo.getNumeroCuotas()) {
+                    fila.motivoRechazo = "Número de cuota fuera de rango";
+                } else if (fila.montoPagado <= 0) {
+                    fila.motivoRechazo = "El monto debe ser positivo";
+                } else if (prestamo.getCuota(fila.numeroCuota).getEstado() == Cuota.EstadoCuota.PAGADA) {
+                    fila.motivoRechazo = "La cuota ya está pagada";
+                } else {
+                    deshacer.recordar(prestamo.getCuota(fila.numeroCuota));
+                    if (prestamo.registrarPagoEnCuota(fila.numeroCuota, fila.montoPagado)) {
+                        fila.pago = new Pago(fila.idPrestamo, fila.numeroCuota, fila.montoPagado, fila.fechaPago);
+                    } else {
+                        fila.motivoRechazo = "El pago no pudo aplicarse a la cuota";
+                    }
+                }
+            }
+        }
+
+        /** Devuelve las cuotas del préstamo al estado que tenían antes de {@link #aplicar()}. */
+        void deshacer() {
+            deshacer.deshacer();
+        }
+    }
+
+    /**
+     * Resumen de una incorporación de pagos del banco.
+     */
+    public static final class ResultadoIngesta {
+        private final int filasLeidas;
+        private final int aceptadas;
+        private final long montoAceptado;
+
+        ResultadoIngesta(int filasLeidas, int aceptadas, long montoAceptado) {
+            this.filasLeidas = filasLeidas;
+            this.aceptadas = aceptadas;
+            this.montoAceptado = montoAceptado;
+        }
+
+        /** @return la cantidad de filas de datos leídas del archivo. */
+        public int getFilasLeidas() { return filasLeidas; }
+        /** @return la cantidad de pagos aceptados y registrados. */
+        public int getAceptadas() { return aceptadas; }
+        /** @return la cantidad de filas rechazadas. */
+        public int getRechazadas() { return filasLeidas - aceptadas; }
+        /** @return la suma de los montos aceptados, en centavos. */
+        public long getMontoAceptadoCentavos() { return montoAceptado; }
+    }
+}
@@ -0,0 +1,130 @@
+package clasesgestor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta en segundo plano el barrido de mora de toda la cartera
+ * ({@link GestorPrestamo#verificarYAplicarMoraATodosLosPrestamos(LocalDate)}), de modo que las
+ * consultas de la consola y del servidor ven el estado de mora al día sin tener que recalcularlo.
+ * <p>
+ * Por defecto el barrido corre una vez por día, al comenzar el día; también puede configurarse un
+ * intervalo fijo. Cada ejecución registra su duración y la cantidad de cuotas que entraron en mora.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class PlanificadorMora {
+    private final GestorPrestamo gestorPrestamo;
+    private ScheduledExecutorService programador;
+    private Duration intervalo;
+
+    private volatile LocalDateTime ultimaEjecucion;
+    private volatile long duracionUltimaEjecucionMs;
+    private volatile int cuotasUltimaEjecucion;
+    private volatile long ejecuciones;
+
+    /**
+     * Constructor del PlanificadorMora.
+     * @param gestorPrestamo El gestor de préstamos sobre el que se realiza el barrido.
+     */
+    public PlanificadorMora(GestorPrestamo gestorPrestamo) {
+        this.gestorPrestamo = gestorPrestamo;
+    }
+
+    /**
+     * Programa el barrido diario: la primera ejecución ocurre al comienzo del día siguiente.
+     */
+    public void iniciar() {
+        iniciar(null);
+    }
+
+    /**
+     * Programa el barrido en segundo plano.
+     *
+     * @param intervalo El tiempo entre ejecuciones, o {@code null} para ejecutar una vez por día al comenzar el día.
+     */
+    public synchronized void iniciar(Duration intervalo) {
+        if (programador != null) {
+            return;
+        }
+        this.intervalo = intervalo;
+        programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "planificador-mora");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programarSiguiente();
+    }
+
+    /**
+     * Detiene el barrido en segundo plano. Una ejecución en curso termina normalmente.
+     */
+    public synchronized void detener() {
+        if (programador != null) {
+            programador.shutdown();
+            programador = null;
+        }
+    }
+
+    /**
+     * Ejecuta el barrido de inmediato en el hilo actual (por ejemplo, al iniciar el sistema)
+     * y registra su resultado.
+     *
+     * @return el resumen del barrido.
+     */
+    public synchronized ResumenMora ejecutarAhora() {
+        long inicio = System.nanoTime();
+        ResumenMora resumen = gestorPrestamo.verificarYAplicarMoraATodosLosPrestamos(LocalDate.now());
+        duracionUltimaEjecucionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        cuotasUltimaEjecucion = resumen.getCantidadCuotas();
+        ultimaEjecucion = LocalDateTime.now();
+        ejecuciones++;
+        return resumen;
+    }
+
+    /** @return la fecha y hora de la última ejecución, o {@code null} si todavía no se ejecutó. */
+    public LocalDateTime getUltimaEjecucion() { return ultimaEjecucion; }
+    /** @return la duración de la última ejecución, en milisegundos. */
+    public long getDuracionUltimaEjecucionMs() { return duracionUltimaEjecucionMs; }
+    /** @return la cantidad de cuotas que entraron en mora en la última ejecución. */
+    public int getCuotasUltimaEjecucion() { return cuotasUltimaEjecucion; }
+    /** @return la cantidad de ejecuciones realizadas. */
+    public long getEjecuciones() { return ejecuciones; }
+
+    /**
+     * Helper privado que ejecuta el barrido programado, informa su resultado y programa el siguiente.
+     * Los errores se informan sin cancelar las ejecuciones futuras.
+     */
+    private void ejecutarProgramado() {
+        try {
+            ResumenMora resumen = ejecutarAhora();
+            if (resumen.getCantidadCuotas() > 0) {
+                System.out.println("Barrido de mora: " + resumen.getCantidadCuotas() + " cuota(s) entraron en mora ("
+                        + duracionUltimaEjecucionMs + " ms).");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error en el barrido de mora programado: " + e.getMessage());
+        } finally {
+            programarSiguiente();
+        }
+    }
+
+    /**
+     * Helper privado que programa la próxima ejecución. En modo diario el retardo se recalcula
+     * cada vez hasta el comienzo del día siguiente, para no acumular desfasajes.
+     */
+    private synchronized void programarSiguiente() {
+        if (programador == null) {
+            return;
+        }
+        long retardoMs = intervalo != null
+                ? intervalo.toMillis()
+                : Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay()).toMillis();
+        programador.schedule(this::ejecutarProgramado, Math.max(0, retardoMs), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,75 @@
+package clasesgestor;
+
+import clasesmodelo.Cuota;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de distribuir un monto recibido entre una cuota y las siguientes de un préstamo
+ * ({@link GestorPrestamo#registrarPagoConExcedente(String, int, long)}): cuánto se aplicó a cada cuota,
+ * en qué estado quedó y qué parte del monto no pudo aplicarse.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class ResultadoAsignacionPago {
+    private final String idPrestamo;
+    private final long montoRecibido;
+    private final List<Asignacion> asignaciones = new ArrayList<>();
+    private long montoAplicado;
+
+    /**
+     * Constructor del ResultadoAsignacionPago.
+     * @param idPrestamo El ID del préstamo pagado.
+     * @param montoRecibido El monto total recibido, en centavos.
+     */
+    ResultadoAsignacionPago(String idPrestamo, long montoRecibido) {
+        this.idPrestamo = idPrestamo;
+        this.montoRecibido = montoRecibido;
+    }
+
+    /**
+     * Registra la parte del monto aplicada a una cuota.
+     * @param numeroCuota El número de la cuota.
+     * @param monto El monto aplicado, en centavos.
+     * @param estadoResultante El estado de la cuota después del pago.
+     */
+    void agregarAsignacion(int numeroCuota, long monto, Cuota.EstadoCuota estadoResultante) {
+        asignaciones.add(new Asignacion(numeroCuota, monto, estadoResultante));
+        montoAplicado += monto;
+    }
+
+    /** @return el ID del préstamo pagado. */
+    public String getIdPrestamo() { return idPrestamo; }
+    /** @return el monto total recibido, en centavos. */
+    public long getMontoRecibidoCentavos() { return montoRecibido; }
+    /** @return la suma de lo aplicado a todas las cuotas, en centavos. */
+    public long getMontoAplicadoCentavos() { return montoAplicado; }
+    /** @return el excedente que no pudo aplicarse porque no quedaban cuotas por pagar, en centavos. */
+    public long getExcedenteSinAplicarCentavos() { return montoRecibido - montoAplicado; }
+    /** @return las cuotas alcanzadas por el pago, en orden; la primera es la cuota indicada. */
+    public List<Asignacion> getAsignaciones() { return Collections.unmodifiableList(asignaciones); }
+
+    /**
+     * La parte del monto aplicada a una cuota.
+     */
+    public static final class Asignacion {
+        private final int numeroCuota;
+        private final long montoAplicado;
+        private final Cuota.EstadoCuota estadoResultante;
+
+        Asignacion(int numeroCuota, long montoAplicado, Cuota.EstadoCuota estadoResultante) {
+            this.numeroCuota = numeroCuota;
+            this.montoAplicado = montoAplicado;
+            this.estadoResultante = estadoResultante;
+        }
+
+        /** @return el número de la cuota. */
+        public int getNumeroCuota() { return numeroCuota; }
+        /** @return el monto aplicado a la cuota, en centavos. */
+        public long getMontoAplicadoCentavos() { return montoAplicado; }
+        /** @return el estado de la cuota después del pago. */
+        public Cuota.EstadoCuota getEstadoResultante() { return estadoResultante; }
+    }
+}
@@ -0,0 +1,20 @@
+package clasesgestor;
+
+/**
+ * Resultado de registrar un pago con {@link GestorPrestamo#registrarPagoConResultado(String, int, long)}.
+ * Distingue los pagos que el negocio rechaza de los que no pudieron guardarse, porque estos últimos
+ * pueden reintentarse.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public enum ResultadoPago {
+    /** El pago se aplicó a la cuota y quedó guardado en el libro de pagos. */
+    REGISTRADO,
+    /** No existe un préstamo con el ID indicado. */
+    PRESTAMO_NO_ENCONTRADO,
+    /** La cuota no existe, ya está pagada o el monto no es válido. */
+    RECHAZADO,
+    /** El pago no pudo guardarse en el libro de pagos; la cuota quedó como estaba y el pago puede reintentarse. */
+    ERROR_PERSISTENCIA
+}
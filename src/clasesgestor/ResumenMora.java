@@ -0,0 +1,65 @@
+package clasesgestor;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de un barrido de mora sobre la cartera
+ * ({@link GestorPrestamo#verificarYAplicarMoraATodosLosPrestamos(LocalDate)}):
+ * las cuotas que entraron en mora con ese barrido y la penalidad aplicada a cada una.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class ResumenMora {
+    private final LocalDate fecha;
+    private final List<CuotaEnMora> cuotas;
+    private final long penalidadesAplicadas;
+
+    /**
+     * Constructor del ResumenMora.
+     * @param fecha La fecha contra la que se evaluaron los vencimientos.
+     * @param cuotas Las cuotas que entraron en mora.
+     */
+    ResumenMora(LocalDate fecha, List<CuotaEnMora> cuotas) {
+        this.fecha = fecha;
+        this.cuotas = Collections.unmodifiableList(cuotas);
+        long total = 0;
+        for (CuotaEnMora c : cuotas) {
+            total += c.penalidad;
+        }
+        this.penalidadesAplicadas = total;
+    }
+
+    /** @return la fecha contra la que se evaluaron los vencimientos. */
+    public LocalDate getFecha() { return fecha; }
+    /** @return las cuotas que entraron en mora con este barrido. */
+    public List<CuotaEnMora> getCuotas() { return cuotas; }
+    /** @return la cantidad de cuotas que entraron en mora. */
+    public int getCantidadCuotas() { return cuotas.size(); }
+    /** @return la suma de las penalidades aplicadas, en centavos. */
+    public long getPenalidadesAplicadasCentavos() { return penalidadesAplicadas; }
+
+    /**
+     * Una cuota que entró en mora y la penalidad que se le aplicó.
+     */
+    public static final class CuotaEnMora {
+        private final String idPrestamo;
+        private final int numeroCuota;
+        private final long penalidad;
+
+        CuotaEnMora(String idPrestamo, int numeroCuota, long penalidad) {
+            this.idPrestamo = idPrestamo;
+            this.numeroCuota = numeroCuota;
+            this.penalidad = penalidad;
+        }
+
+        /** @return el ID del préstamo. */
+        public String getIdPrestamo() { return idPrestamo; }
+        /** @return el número de la cuota. */
+        public int getNumeroCuota() { return numeroCuota; }
+        /** @return la penalidad aplicada, en centavos. */
+        public long getPenalidadCentavos() { return penalidad; }
+    }
+}
@@ -0,0 +1,650 @@
+package clasesgestor;
+
+import clasesmodelo.Cliente;
+import clasesmodelo.Cuota;
+import clasesmodelo.Dinero;
+import clasesmodelo.Prestamo;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor HTTP sin interfaz de consola que expone las operaciones del sistema como servicios JSON,
+ * sobre el servidor HTTP incluido en el JDK. Cada solicitud se atiende en su propio hilo virtual
+ * (si el JDK no los ofrece, en un pool acotado de hilos de plataforma), por lo que muchas
+ * terminales pueden operar a la vez sobre los mismos gestores.
+ * <p>
+ * Servicios disponibles:
+ * <ul>
+ *   <li>{@code GET /clientes/{dni}}: datos del cliente y resumen de sus préstamos.</li>
+ *   <li>{@code POST /prestamos}: crea un préstamo. Cuerpo: {@code {"dni": "...", "monto": 150000.50, "cuotas": 12, "hipotecario": false}}.
+ *       Se admiten hasta {@value #CUOTAS_MAXIMAS} cuotas y $ 10.000 millones.</li>
+ *   <li>{@code GET /prestamos/{id}}: detalle del préstamo con sus cuotas.</li>
+ *   <li>{@code GET /prestamos?desde=0&limite=100}: listado paginado de la cartera (opcionalmente {@code dni=...}).</li>
+ *   <li>{@code POST /pagos}: registra un pago. Cuerpo: {@code {"idPrestamo": "0007", "cuota": 3, "monto": 12500.00}}.</li>
+ *   <li>{@code GET /cartera}: saldos agregados de la cartera.</li>
+ * </ul>
+ * Los montos se informan y se reciben en pesos con dos decimales; los errores se responden como
+ * {@code {"error": "..."}} con el código HTTP correspondiente. Un pago que no pudo guardarse en disco
+ * se responde con 503, para que la terminal lo reintente; un pago rechazado por el negocio, con 409.
+ * Un error inesperado al atender una solicitud se informa por la salida de error y se responde con 500.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class ServidorHttp {
+    private static final int LIMITE_LISTADO_POR_DEFECTO = 100;
+    private static final int LIMITE_LISTADO_MAXIMO = 1000;
+    private static final int TAMANIO_MAXIMO_CUERPO = 16 * 1024;
+    /** Plazo máximo de un préstamo creado por el servicio: 50 años de cuotas mensuales. */
+    private static final int CUOTAS_MAXIMAS = 600;
+    /** Monto máximo de un préstamo creado por el servicio, en centavos ($ 10.000 millones). */
+    private static final long MONTO_MAXIMO_CENTAVOS = 1_000_000_000_000L;
+    /** Hilos del pool usado cuando el JDK no ofrece hilos virtuales. */
+    private static final int HILOS_MAXIMOS = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+    /** Solicitudes que pueden esperar un hilo libre antes de que el servidor las rechace. */
+    private static final int SOLICITUDES_EN_ESPERA_MAXIMAS = 1024;
+
+    private final GestorCliente gestorCliente;
+    private final GestorPrestamo gestorPrestamo;
+    private final GestorCheckpoint gestorCheckpoint;
+    private final int puerto;
+    private HttpServer servidor;
+    private ExecutorService ejecutor;
+
+    /**
+     * Constructor del ServidorHttp.
+     *
+     * @param gestorCliente El gestor de clientes, ya cargado.
+     * @param gestorPrestamo El gestor de préstamos, ya cargado.
+     * @param gestorCheckpoint El gestor de checkpoints, para los checkpoints periódicos tras registrar pagos.
+     * @param puerto El puerto TCP en el que escuchar.
+     */
+    public ServidorHttp(GestorCliente gestorCliente, GestorPrestamo gestorPrestamo,
+                        GestorCheckpoint gestorCheckpoint, int puerto) {
+        this.gestorCliente = gestorCliente;
+        this.gestorPrestamo = gestorPrestamo;
+        this.gestorCheckpoint = gestorCheckpoint;
+        this.puerto = puerto;
+    }
+
+    /**
+     * Abre el puerto y comienza a atender solicitudes.
+     *
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public void iniciar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress(puerto), 1024);
+        ejecutor = crearEjecutor();
+        servidor.setExecutor(ejecutor);
+        servidor.createContext("/clientes/", protegido(this::atenderClientes));
+        servidor.createContext("/prestamos", protegido(this::atenderPrestamos));
+        servidor.createContext("/pagos", protegido(this::atenderPagos));
+        servidor.createContext("/cartera", protegido(this::atenderCartera));
+        servidor.start();
+        System.out.println("Servidor HTTP escuchando en el puerto " + servidor.getAddress().getPort() + ".");
+    }
+
+    /**
+     * @return el puerto en el que escucha el servidor (útil si se inició con el puerto 0, que elige uno libre).
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Deja de aceptar solicitudes y espera a que terminen las que están en curso.
+     *
+     * @param segundosDeEspera El tiempo máximo de espera para las solicitudes en curso.
+     */
+    public void detener(int segundosDeEspera) {
+        if (servidor == null) {
+            return;
+        }
+        servidor.stop(segundosDeEspera);
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(segundosDeEspera, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        servidor = null;
+    }
+
+    /**
+     * Helper privado que crea un ejecutor con un hilo virtual por solicitud.
+     * Se obtiene por reflexión para que el código también compile y funcione en JDK anteriores a 21,
+     * donde se usa un pool de hilos de plataforma con una cantidad fija de hilos y una cola acotada:
+     * ante una ráfaga de solicitudes no se crean hilos sin límite, y las que no entran en la cola
+     * se rechazan (el servidor cierra esa conexión) en lugar de agotar la memoria.
+     */
+    private static ExecutorService crearEjecutor() {
+        try {
+            Method porTarea = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) porTarea.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(HILOS_MAXIMOS, HILOS_MAXIMOS, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(SOLICITUDES_EN_ESPERA_MAXIMAS));
+            // Los hilos ociosos terminan, de modo que un servidor sin tráfico no los retiene
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    /**
+     * Helper privado que envuelve un servicio para que un error inesperado se informe por la salida de error
+     * y se responda con 500 y el cuerpo JSON de error habitual. Sin esto, el servidor del JDK corta la conexión
+     * sin responder y sin dejar rastro del error.
+     */
+    private static HttpHandler protegido(HttpHandler servicio) {
+        return intercambio -> {
+            try {
+                servicio.handle(intercambio);
+            } catch (RuntimeException e) {
+                System.err.println("Error inesperado al atender " + intercambio.getRequestMethod() + " "
+                        + intercambio.getRequestURI() + ": " + e);
+                e.printStackTrace();
+                // Si la respuesta ya empezó a enviarse, solo queda cerrar la conexión
+                if (intercambio.getResponseCode() == -1) {
+                    responderError(intercambio, 500, "Error interno del servidor.");
+                }
+            } finally {
+                intercambio.close();
+            }
+        };
+    }
+
+    // --- Servicios ---
+
+    private void atenderClientes(HttpExchange intercambio) throws IOException {
+        if (!metodoPermitido(intercambio, "GET")) {
+            return;
+        }
+        String dni = ultimoSegmento(intercambio, "/clientes/");
+        Cliente cliente = dni.isEmpty() ? null : gestorCliente.obtenerCliente(dni);
+        if (cliente == null) {
+            responderError(intercambio, 404, "Cliente no encontrado: " + dni);
+            return;
+        }
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"dni\":");
+        texto(json, cliente.getdni());
+        json.append(",\"nombre\":");
+        texto(json, cliente.getNombre());
+        json.append(",\"apellido\":");
+        texto(json, cliente.getApellido());
+        json.append(",\"direccion\":");
+        texto(json, cliente.getDireccion());
+        json.append(",\"telefono\":");
+        texto(json, cliente.getTelefono());
+        json.append(",\"correo\":");
+        texto(json, cliente.getCorreoElectronico());
+        json.append(",\"prestamos\":[");
+        List<Prestamo> prestamos = gestorPrestamo.obtenerPrestamosPorCliente(dni);
+        for (int i = 0; i < prestamos.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            resumenPrestamo(json, prestamos.get(i));
+        }
+        json.append("]}");
+        responder(intercambio, 200, json);
+    }
+
+    private void atenderPrestamos(HttpExchange intercambio) throws IOException {
+        String ruta = intercambio.getRequestURI().getPath();
+        if (ruta.equals("/prestamos") || ruta.equals("/prestamos/")) {
+            String metodo = intercambio.getRequestMethod();
+            if (metodo.equalsIgnoreCase("GET")) {
+                listarPrestamos(intercambio);
+            } else if (metodo.equalsIgnoreCase("POST")) {
+                crearPrestamo(intercambio);
+            } else {
+                responderError(intercambio, 405, "Método no permitido: " + metodo);
+            }
+            return;
+        }
+        if (!metodoPermitido(intercambio, "GET")) {
+            return;
+        }
+        String idPrestamo = ultimoSegmento(intercambio, "/prestamos/");
+        StringBuilder json = gestorPrestamo.leerPrestamo(idPrestamo, ServidorHttp::detallePrestamo);
+        if (json == null) {
+            responderError(intercambio, 404, "Préstamo no encontrado: " + idPrestamo);
+            return;
+        }
+        responder(intercambio, 200, json);
+    }
+
+    private void listarPrestamos(HttpExchange intercambio) throws IOException {
+        Map<String, String> parametros = parametrosConsulta(intercambio);
+        if (parametros == null) {
+            return;
+        }
+        int desde;
+        int limite;
+        try {
+            desde = Math.max(0, Integer.parseInt(parametros.getOrDefault("desde", "0")));
+            limite = Integer.parseInt(parametros.getOrDefault("limite", String.valueOf(LIMITE_LISTADO_POR_DEFECTO)));
+        } catch (NumberFormatException e) {
+            responderError(intercambio, 400, "Parámetros de paginación inválidos.");
+            return;
+        }
+        limite = Math.max(0, Math.min(limite, LIMITE_LISTADO_MAXIMO));
+        String dni = parametros.get("dni");
+        List<Prestamo> prestamos = dni != null
+                ? gestorPrestamo.obtenerPrestamosPorCliente(dni)
+                : gestorPrestamo.listarPrestamos();
+
+        int hasta = (int) Math.min(prestamos.size(), (long) desde + limite);
+        StringBuilder json = new StringBuilder(64 + Math.max(0, hasta - desde) * 200);
+        json.append("{\"total\":").append(prestamos.size())
+                .append(",\"desde\":").append(desde)
+                .append(",\"prestamos\":[");
+        for (int i = desde; i < hasta; i++) {
+            if (i > desde) {
+                json.append(',');
+            }
+            resumenPrestamo(json, prestamos.get(i));
+        }
+        json.append("]}");
+        responder(intercambio, 200, json);
+    }
+
+    private void crearPrestamo(HttpExchange intercambio) throws IOException {
+        Map<String, String> datos = leerCuerpo(intercambio);
+        if (datos == null) {
+            return;
+        }
+        String dni = datos.get("dni");
+        if (dni == null || !gestorCliente.verificarExistenciaCliente(dni)) {
+            responderError(intercambio, 422, "Cliente con DNI " + dni + " no registrado.");
+            return;
+        }
+        long monto;
+        int cuotas;
+        try {
+            monto = Dinero.parsear(datos.getOrDefault("monto", ""));
+            cuotas = Integer.parseInt(datos.getOrDefault("cuotas", ""));
+        } catch (NumberFormatException e) {
+            responderError(intercambio, 400, "Monto o número de cuotas inválido.");
+            return;
+        }
+        if (monto <= 0 || cuotas <= 0) {
+            responderError(intercambio, 422, "El monto y el número de cuotas deben ser positivos.");
+            return;
+        }
+        // El plan de cuotas se genera completo en memoria: un plazo desmedido agotaría la memoria del servidor
+        if (cuotas > CUOTAS_MAXIMAS || monto > MONTO_MAXIMO_CENTAVOS) {
+            responderError(intercambio, 422, "El número de cuotas no puede superar " + CUOTAS_MAXIMAS
+                    + " y el monto no puede superar " + Dinero.aTexto(MONTO_MAXIMO_CENTAVOS) + ".");
+            return;
+        }
+        boolean esHipotecario = Boolean.parseBoolean(datos.get("hipotecario"));
+
+        Prestamo nuevo = gestorPrestamo.otorgarPrestamo(dni, monto, cuotas, esHipotecario, LocalDate.now());
+        StringBuilder json = gestorPrestamo.leerPrestamo(nuevo.getIdPrestamo(), ServidorHttp::detallePrestamo);
+        responder(intercambio, 201, json);
+    }
+
+    private void atenderPagos(HttpExchange intercambio) throws IOException {
+        if (!metodoPermitido(intercambio, "POST")) {
+            return;
+        }
+        Map<String, String> datos = leerCuerpo(intercambio);
+        if (datos == null) {
+            return;
+        }
+        String idPrestamo = datos.get("idPrestamo");
+        long monto;
+        int numeroCuota;
+        try {
+            monto = Dinero.parsear(datos.getOrDefault("monto", ""));
+            numeroCuota = Integer.parseInt(datos.getOrDefault("cuota", ""));
+        } catch (NumberFormatException e) {
+            responderError(intercambio, 400, "Monto o número de cuota inválido.");
+            return;
+        }
+        if (idPrestamo == null || gestorPrestamo.obtenerPrestamo(idPrestamo) == null) {
+            responderError(intercambio, 404, "Préstamo no encontrado: " + idPrestamo);
+            return;
+        }
+        if (monto <= 0) {
+            responderError(intercambio, 422, "El monto a pagar debe ser positivo.");
+            return;
+        }
+
+        switch (gestorPrestamo.registrarPagoConResultado(idPrestamo, numeroCuota, monto)) {
+            case REGISTRADO:
+                break;
+            case PRESTAMO_NO_ENCONTRADO:
+                responderError(intercambio, 404, "Préstamo no encontrado: " + idPrestamo);
+                return;
+            case RECHAZADO:
+                responderError(intercambio, 409, "No se pudo registrar el pago: la cuota no existe o ya está pagada.");
+                return;
+            default:
+                // El pago no quedó aplicado: el cliente puede reintentarlo
+                intercambio.getResponseHeaders().set("Retry-After", "1");
+                responderError(intercambio, 503, "No se pudo guardar el pago; reintente más tarde.");
+                return;
+        }
+        gestorCheckpoint.realizarCheckpointSiCorresponde();
+        StringBuilder json = gestorPrestamo.leerPrestamo(idPrestamo, prestamo -> {
+            StringBuilder sb = new StringBuilder(128);
+            sb.append("{\"idPrestamo\":");
+            texto(sb, idPrestamo);
+            sb.append(",\"cuota\":");
+            cuota(sb, prestamo.getCuota(numeroCuota));
+            sb.append(",\"saldoPendienteTotal\":");
+            Dinero.aTexto(prestamo.calcularSaldoPendienteTotalCentavos(), sb);
+            return sb.append('}');
+        });
+        responder(intercambio, 201, json);
+    }
+
+    private void atenderCartera(HttpExchange intercambio) throws IOException {
+        if (!metodoPermitido(intercambio, "GET")) {
+            return;
+        }
+        ExposicionCartera exposicion = gestorPrestamo.getExposicion();
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"saldoTotal\":");
+        Dinero.aTexto(exposicion.getSaldoTotalCentavos(), json);
+        json.append(",\"saldoEnMora\":");
+        Dinero.aTexto(exposicion.getSaldoEnMoraCentavos(), json);
+        json.append(",\"saldoPersonal\":");
+        Dinero.aTexto(exposicion.getSaldoPersonalCentavos(), json);
+        json.append(",\"saldoHipotecario\":");
+        Dinero.aTexto(exposicion.getSaldoHipotecarioCentavos(), json);
+        json.append('}');
+        responder(intercambio, 200, json);
+    }
+
+    // --- Armado de JSON ---
+
+    private static void resumenPrestamo(StringBuilder json, Prestamo p) {
+        json.append("{\"id\":");
+        texto(json, p.getIdPrestamo());
+        json.append(",\"dni\":");
+        texto(json, p.getDniCliente());
+        json.append(",\"tipo\":");
+        texto(json, p.getTipoPrestamoString());
+        json.append(",\"monto\":");
+        Dinero.aTexto(p.getMontoCentavos(), json);
+        json.append(",\"cuotas\":").append(p.getNumeroCuotas());
+        json.append(",\"fechaInicio\":\"").append(p.getFechaInicio()).append('"');
+        json.append(",\"saldoPendiente\":");
+        Dinero.aTexto(p.calcularSaldoPendienteTotalCentavos(), json);
+        json.append(",\"cuotasEnMora\":").append(p.getCantidadCuotasEnMora());
+        json.append(",\"penalidades\":");
+        Dinero.aTexto(p.getTotalPenalidadesAcumuladasCentavos(), json);
+        json.append('}');
+    }
+
+    private static StringBuilder detallePrestamo(Prestamo p) {
+        StringBuilder json = new StringBuilder(256 + p.getNumeroCuotas() * 160);
+        resumenPrestamo(json, p);
+        json.setLength(json.length() - 1);
+        json.append(",\"detalleCuotas\":[");
+        for (int n = 1; n <= p.getNumeroCuotas(); n++) {
+            if (n > 1) {
+                json.append(',');
+            }
+            cuota(json, p.getCuota(n));
+        }
+        return json.append("]}");
+    }
+
+    private static void cuota(StringBuilder json, Cuota c) {
+        json.append("{\"numero\":").append(c.getNumeroCuota());
+        json.append(",\"vencimiento\":\"").append(c.getFechaVencimiento()).append('"');
+        json.append(",\"estado\":\"").append(c.getEstado()).append('"');
+        json.append(",\"montoOriginal\":");
+        Dinero.aTexto(c.getMontoOriginalCentavos(), json);
+        json.append(",\"montoPagado\":");
+        Dinero.aTexto(c.getMontoPagadoCentavos(), json);
+        json.append(",\"penalidad\":");
+        Dinero.aTexto(c.getMontoPenalidadAcumuladaCentavos(), json);
+        json.append(",\"saldoPendiente\":");
+        Dinero.aTexto(c.getSaldoPendienteCentavos(), json);
+        json.append('}');
+    }
+
+    /** Escribe un texto como cadena JSON, con los caracteres especiales escapados. */
+    private static void texto(StringBuilder json, String valor) {
+        if (valor == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    // --- Lectura de solicitudes ---
+
+    /**
+     * Helper privado que lee el cuerpo de la solicitud como un objeto JSON plano (sin objetos ni arreglos anidados).
+     * Los valores se devuelven como texto: las cadenas sin comillas y los números y booleanos tal como se escribieron.
+     * Si el cuerpo es inválido responde 400 y devuelve {@code null}.
+     */
+    private static Map<String, String> leerCuerpo(HttpExchange intercambio) throws IOException {
+        byte[] bytes;
+        try (InputStream in = intercambio.getRequestBody()) {
+            bytes = in.readNBytes(TAMANIO_MAXIMO_CUERPO + 1);
+        }
+        if (bytes.length > TAMANIO_MAXIMO_CUERPO) {
+            responderError(intercambio, 413, "El cuerpo de la solicitud es demasiado grande.");
+            return null;
+        }
+        try {
+            return new LectorObjetoJson(new String(bytes, StandardCharsets.UTF_8)).leer();
+        } catch (IllegalArgumentException e) {
+            responderError(intercambio, 400, "JSON inválido: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Helper privado que lee los parámetros de la consulta de la URL.
+     * Si algún parámetro está mal codificado (por ejemplo {@code %zz}) responde 400 y devuelve {@code null}.
+     */
+    private static Map<String, String> parametrosConsulta(HttpExchange intercambio) throws IOException {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        try {
+            for (String par : consulta.split("&")) {
+                int igual = par.indexOf('=');
+                String clave = igual < 0 ? par : par.substring(0, igual);
+                String valor = igual < 0 ? "" : par.substring(igual + 1);
+                parametros.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+            }
+        } catch (IllegalArgumentException e) {
+            responderError(intercambio, 400, "Parámetros de consulta mal codificados: " + e.getMessage());
+            return null;
+        }
+        return parametros;
+    }
+
+    private static String ultimoSegmento(HttpExchange intercambio, String prefijo) {
+        String ruta = intercambio.getRequestURI().getPath();
+        String segmento = ruta.length() > prefijo.length() ? ruta.substring(prefijo.length()) : "";
+        return segmento.endsWith("/") ? segmento.substring(0, segmento.length() - 1) : segmento;
+    }
+
+    private static boolean metodoPermitido(HttpExchange intercambio, String metodo) throws IOException {
+        if (intercambio.getRequestMethod().equalsIgnoreCase(metodo)) {
+            return true;
+        }
+        intercambio.getResponseHeaders().set("Allow", metodo);
+        responderError(intercambio, 405, "Método no permitido: " + intercambio.getRequestMethod());
+        return false;
+    }
+
+    // --- Respuestas ---
+
+    private static void responderError(HttpExchange intercambio, int codigo, String mensaje) throws IOException {
+        StringBuilder json = new StringBuilder(mensaje.length() + 16);
+        json.append("{\"error\":");
+        texto(json, mensaje);
+        json.append('}');
+        responder(intercambio, codigo, json);
+    }
+
+    private static void responder(HttpExchange intercambio, int codigo, CharSequence json) throws IOException {
+        byte[] cuerpo = json.toString().getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, cuerpo.length);
+        try (OutputStream out = intercambio.getResponseBody()) {
+            out.write(cuerpo);
+        }
+    }
+
+    /**
+     * Lector mínimo de un objeto JSON plano: {@code {"clave": valor, ...}}, donde cada valor es una cadena,
+     * un número, {@code true}, {@code false} o {@code null}. Alcanza para los cuerpos de los servicios de escritura.
+     */
+    private static final class LectorObjetoJson {
+        private final String texto;
+        private int posicion;
+
+        LectorObjetoJson(String texto) {
+            this.texto = texto;
+        }
+
+        Map<String, String> leer() {
+            Map<String, String> valores = new HashMap<>();
+            esperar('{');
+            saltarEspacios();
+            if (siguienteEs('}')) {
+                posicion++;
+                return valores;
+            }
+            do {
+                saltarEspacios();
+                String clave = leerCadena();
+                esperar(':');
+                saltarEspacios();
+                valores.put(clave, siguienteEs('"') ? leerCadena() : leerLiteral());
+                saltarEspacios();
+            } while (consumirSi(','));
+            esperar('}');
+            saltarEspacios();
+            if (posicion != texto.length()) {
+                throw new IllegalArgumentException("contenido después del objeto");
+            }
+            return valores;
+        }
+
+        private String leerCadena() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (posicion < texto.length()) {
+                char c = texto.charAt(posicion++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    if (posicion >= texto.length()) {
+                        break;
+                    }
+                    char escape = texto.charAt(posicion++);
+                    switch (escape) {
+                        case 'n': sb.append('\n'); break;
+                        case 'r': sb.append('\r'); break;
+                        case 't': sb.append('\t'); break;
+                        case 'b': sb.append('\b'); break;
+                        case 'f': sb.append('\f'); break;
+                        case 'u':
+                            if (posicion + 4 > texto.length()) {
+                                throw new IllegalArgumentException("escape unicode incompleto");
+                            }
+                            try {
+                                sb.append((char) Integer.parseInt(texto.substring(posicion, posicion + 4), 16));
+                            } catch (NumberFormatException e) {
+                                throw new IllegalArgumentException("escape unicode inválido");
+                            }
+                            posicion += 4;
+                            break;
+                        default: sb.append(escape);
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw new IllegalArgumentException("cadena sin cerrar");
+        }
+
+        private String leerLiteral() {
+            int inicio = posicion;
+            while (posicion < texto.length() && ",}] \t\r\n".indexOf(texto.charAt(posicion)) < 0) {
+                posicion++;
+            }
+            if (posicion == inicio) {
+                throw new IllegalArgumentException("falta un valor en la posición " + inicio);
+            }
+            String literal = texto.substring(inicio, posicion);
+            return literal.equals("null") ? null : literal;
+        }
+
+        private void saltarEspacios() {
+            while (posicion < texto.length() && Character.isWhitespace(texto.charAt(posicion))) {
+                posicion++;
+            }
+        }
+
+        private boolean siguienteEs(char c) {
+            return posicion < texto.length() && texto.charAt(posicion) == c;
+        }
+
+        private boolean consumirSi(char c) {
+            if (siguienteEs(c)) {
+                posicion++;
+                return true;
+            }
+            return false;
+        }
+
+        private void esperar(char c) {
+            saltarEspacios();
+            if (!consumirSi(c)) {
+                throw new IllegalArgumentException("se esperaba '" + c + "' en la posición " + posicion);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package clasesgestor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utilidades para forzar a disco los cambios de nombre usados al reemplazar archivos de forma atómica.
+ * Escribir un temporal, forzarlo a disco y renombrarlo sobre el destino no alcanza: el cambio de nombre
+ * es una modificación del directorio, que también debe forzarse para sobrevivir a un corte de energía.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+final class SincronizacionDisco {
+
+    private SincronizacionDisco() {
+    }
+
+    /**
+     * Fuerza a disco el directorio que contiene al archivo indicado, para que los cambios de nombre
+     * y borrados hechos en él sean permanentes. En sistemas que no permiten abrir un directorio
+     * (por ejemplo Windows) no hace nada, porque allí el cambio de nombre ya se escribe de forma síncrona.
+     *
+     * @param archivo Un archivo del directorio a sincronizar.
+     */
+    static void sincronizarDirectorio(File archivo) {
+        File directorio = archivo.getAbsoluteFile().getParentFile();
+        if (directorio == null) {
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(directorio.toPath(), StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // El sistema no permite sincronizar directorios
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package clasesgestor;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dibuja tablas de texto en la consola (ej: | ID  | Monto |), con columnas de ancho fijo.
+ * <p>
+ * Las celdas se rellenan con espacios copiados de un arreglo fijo, sin armar un formato por celda, y
+ * todo se escribe en una salida con un buffer grande que se vuelca a la consola de una vez, en lugar
+ * de una escritura por fila. Para listados largos, {@link Cursor} recorre los elementos de a una página.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class TablaConsola {
+    /** Tamaño del buffer de la salida de consola, en caracteres. */
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    private static final char[] ESPACIOS = new char[256];
+
+    static {
+        Arrays.fill(ESPACIOS, ' ');
+    }
+
+    private final String[] encabezados;
+    private final int[] anchos;
+    private final boolean[] alinearDerecha;
+    private final String separador;
+
+    /**
+     * Constructor de la TablaConsola.
+     * @param encabezados Los títulos de las columnas (siempre alineados a la izquierda).
+     * @param anchos El ancho de cada columna, contando el espacio que la separa del borde izquierdo.
+     * @param alinearDerecha Qué columnas de datos se alinean a la derecha.
+     */
+    public TablaConsola(String[] encabezados, int[] anchos, boolean[] alinearDerecha) {
+        this.encabezados = encabezados;
+        this.anchos = anchos;
+        this.alinearDerecha = alinearDerecha;
+        StringBuilder linea = new StringBuilder("+");
+        for (int ancho : anchos) {
+            linea.append("-".repeat(ancho)).append('+');
+        }
+        this.separador = linea.toString();
+    }
+
+    /**
+     * Crea una salida con buffer sobre la consola, con la misma codificación que {@code System.out}.
+     * El llamador debe hacer {@code flush()} al terminar; no debe cerrarla, porque cerraría la consola.
+     * @return la salida con buffer.
+     */
+    public static PrintWriter abrirSalidaConsola() {
+        String codificacion = System.getProperty("sun.stdout.encoding");
+        Charset charset = codificacion != null ? Charset.forName(codificacion) : Charset.defaultCharset();
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, charset), TAMANIO_BUFFER), false);
+    }
+
+    /**
+     * Escribe la cabecera de la tabla: separador, títulos y separador.
+     * @param salida La salida donde se escribe.
+     */
+    public void escribirEncabezado(PrintWriter salida) {
+        salida.println(separador);
+        escribirCeldas(salida, encabezados, false);
+        salida.println(separador);
+    }
+
+    /**
+     * Escribe una fila de datos.
+     * @param salida La salida donde se escribe.
+     * @param celdas El texto de cada celda.
+     */
+    public void escribirFila(PrintWriter salida, String... celdas) {
+        escribirCeldas(salida, celdas, true);
+    }
+
+    /**
+     * Escribe la línea que cierra la tabla.
+     * @param salida La salida donde se escribe.
+     */
+    public void escribirCierre(PrintWriter salida) {
+        salida.println(separador);
+    }
+
+    /**
+     * Helper privado que escribe una fila. Una celda más larga que su columna se escribe completa,
+     * corriendo el resto de la fila.
+     */
+    private void escribirCeldas(PrintWriter salida, String[] celdas, boolean usarAlineacion) {
+        salida.write('|');
+        for (int i = 0; i < celdas.length; i++) {
+            String celda = String.valueOf(celdas[i]);
+            int relleno = anchos[i] - 1 - celda.length();
+            boolean derecha = usarAlineacion && alinearDerecha != null && i < alinearDerecha.length && alinearDerecha[i];
+            salida.write(' ');
+            if (derecha) {
+                rellenar(salida, relleno);
+            }
+            salida.write(celda);
+            if (!derecha) {
+                rellenar(salida, relleno);
+            }
+            salida.write(" |");
+        }
+        salida.println();
+    }
+
+    private static void rellenar(PrintWriter salida, int cantidad) {
+        while (cantidad > 0) {
+            int tramo = Math.min(cantidad, ESPACIOS.length);
+            salida.write(ESPACIOS, 0, tramo);
+            cantidad -= tramo;
+        }
+    }
+
+    /**
+     * Recorre una lista de a una página por vez, recordando la posición entre páginas.
+     *
+     * @param <T> El tipo de los elementos listados.
+     */
+    public static final class Cursor<T> {
+        private final List<T> elementos;
+        private final int tamanioPagina;
+        private int posicion;
+
+        /**
+         * Constructor del Cursor.
+         * @param elementos Los elementos a recorrer.
+         * @param tamanioPagina La cantidad de elementos por página.
+         */
+        public Cursor(List<T> elementos, int tamanioPagina) {
+            this.elementos = elementos;
+            this.tamanioPagina = Math.max(1, tamanioPagina);
+        }
+
+        /** @return {@code true} si quedan elementos por mostrar. */
+        public boolean hayMas() {
+            return posicion < elementos.size();
+        }
+
+        /**
+         * Avanza el cursor una página.
+         * @return los elementos de la página, como vista de la lista original.
+         */
+        public List<T> siguientePagina() {
+            int desde = posicion;
+            posicion = Math.min(elementos.size(), posicion + tamanioPagina);
+            return elementos.subList(desde, posicion);
+        }
+
+        /** @return la cantidad de elementos ya mostrados. */
+        public int getPosicion() { return posicion; }
+        /** @return la cantidad total de elementos. */
+        public int getTotal() { return elementos.size(); }
+    }
+}
@@ -0,0 +1,213 @@
+package clasesmodelo;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Copia de las cuotas de muchos préstamos en arreglos primitivos contiguos, uno por atributo, para
+ * calcular totales de toda la cartera en una sola pasada: saldo pendiente, penalidades, penalidades que
+ * generaría la mora a una fecha y cobranza proyectada en un período.
+ * <p>
+ * Las cuotas de cada préstamo quedan una a continuación de la otra, en el orden de la lista recibida; el
+ * préstamo {@code p} ocupa las posiciones {@code [inicio[p], inicio[p + 1])}. Los cálculos son bucles
+ * simples sobre esos arreglos, sin objetos ni llamadas por cuota. Si se compiló {@code src-vector/} y la JVM
+ * se inicia con {@code --add-modules jdk.incubator.vector}, los bucles usan instrucciones vectoriales a través
+ * de la Vector API del JDK; si no, son bucles escalares comunes. Dan los mismos resultados que el modelo de objetos
+ * ({@link Prestamo} y {@link Cuota}) al momento de la captura; la copia no se actualiza con cambios posteriores.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public final class CarteraColumnar {
+    private static final KernelsCartera ESCALARES = new KernelsEscalares();
+    /** Los bucles que se usan por defecto: los vectoriales si el módulo está disponible, o los escalares. */
+    private static final KernelsCartera KERNELS = cargarKernels();
+
+    private final KernelsCartera kernels;
+    private final long[] montoOriginal;
+    private final long[] montoPagado;
+    private final long[] penalidad;
+    private final int[] vencimiento;
+    private final byte[] estado;
+    private final int[] inicio;
+
+    private CarteraColumnar(int cantidadPrestamos, int cantidadCuotas) {
+        this.kernels = KERNELS;
+        this.montoOriginal = new long[cantidadCuotas];
+        this.montoPagado = new long[cantidadCuotas];
+        this.penalidad = new long[cantidadCuotas];
+        this.vencimiento = new int[cantidadCuotas];
+        this.estado = new byte[cantidadCuotas];
+        this.inicio = new int[cantidadPrestamos + 1];
+    }
+
+    private CarteraColumnar(CarteraColumnar origen, KernelsCartera kernels) {
+        this.kernels = kernels;
+        this.montoOriginal = origen.montoOriginal;
+        this.montoPagado = origen.montoPagado;
+        this.penalidad = origen.penalidad;
+        this.vencimiento = origen.vencimiento;
+        this.estado = origen.estado;
+        this.inicio = origen.inicio;
+    }
+
+    /**
+     * Helper privado que carga los bucles vectoriales por reflexión, de modo que la clase compile y funcione
+     * sin la clase {@code KernelsCarteraVectoriales} (que se compila aparte) ni el módulo
+     * {@code jdk.incubator.vector}. Si no se pueden cargar, se usan los escalares.
+     */
+    private static KernelsCartera cargarKernels() {
+        try {
+            Method crear = Class.forName("clasesmodelo.KernelsCarteraVectoriales").getDeclaredMethod("crear");
+            KernelsCartera vectoriales = (KernelsCartera) crear.invoke(null);
+            return vectoriales != null ? vectoriales : ESCALARES;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ESCALARES;
+        }
+    }
+
+    /**
+     * Copia las cuotas de los préstamos indicados. El llamador debe asegurar que no se modifiquen
+     * durante la copia (por ejemplo, capturando con acceso exclusivo a la cartera).
+     *
+     * @param prestamos Los préstamos a copiar.
+     * @return la copia en arreglos.
+     */
+    public static CarteraColumnar capturar(List<Prestamo> prestamos) {
+        int total = 0;
+        for (Prestamo p : prestamos) {
+            total = Math.addExact(total, p.getPlan().cantidad());
+        }
+        CarteraColumnar cartera = new CarteraColumnar(prestamos.size(), total);
+        int posicion = 0;
+        for (int p = 0; p < prestamos.size(); p++) {
+            cartera.inicio[p] = posicion;
+            PlanDeCuotas plan = prestamos.get(p).getPlan();
+            plan.copiarEn(posicion, cartera.montoOriginal, cartera.montoPagado, cartera.penalidad,
+                    cartera.vencimiento, cartera.estado);
+            posicion += plan.cantidad();
+        }
+        cartera.inicio[prestamos.size()] = posicion;
+        return cartera;
+    }
+
+    /** @return la cantidad de préstamos copiados. */
+    public int getCantidadPrestamos() { return inicio.length - 1; }
+    /** @return la cantidad total de cuotas copiadas. */
+    public int getCantidadCuotas() { return estado.length; }
+    /** @return {@code true} si los cálculos usan instrucciones vectoriales (Vector API). */
+    public boolean estaVectorizada() { return kernels != ESCALARES; }
+
+    /**
+     * Devuelve la misma copia, sin duplicar los arreglos, pero calculando siempre con los bucles escalares.
+     * Sirve para comparar ambas variantes; los resultados son idénticos.
+     * @return la copia con cálculos escalares.
+     */
+    public CarteraColumnar sinVectorizar() {
+        return kernels == ESCALARES ? this : new CarteraColumnar(this, ESCALARES);
+    }
+
+    /**
+     * Calcula el saldo pendiente de toda la cartera, como la suma de
+     * {@link Prestamo#calcularSaldoPendienteTotalCentavos()} de cada préstamo.
+     * @return el saldo pendiente, en centavos.
+     */
+    public long calcularSaldoPendienteTotal() {
+        return kernels.saldoPendiente(montoOriginal, montoPagado, penalidad, estado, 0, estado.length);
+    }
+
+    /**
+     * Calcula el saldo pendiente de cada préstamo.
+     * @return el saldo pendiente de cada préstamo en centavos, en el orden de la captura.
+     */
+    public long[] calcularSaldoPendientePorPrestamo() {
+        long[] saldos = new long[getCantidadPrestamos()];
+        for (int p = 0; p < saldos.length; p++) {
+            saldos[p] = kernels.saldoPendiente(montoOriginal, montoPagado, penalidad, estado, inicio[p], inicio[p + 1]);
+        }
+        return saldos;
+    }
+
+    /**
+     * Calcula las penalidades ya acumuladas de toda la cartera.
+     * @return la suma de las penalidades, en centavos.
+     */
+    public long calcularPenalidadesTotales() {
+        return kernels.sumar(penalidad);
+    }
+
+    /**
+     * Calcula las penalidades nuevas que generaría el barrido de mora si se ejecutara en la fecha indicada:
+     * el 5% del monto original de cada cuota vencida que todavía no está pagada ni en mora.
+     * No modifica la cartera.
+     *
+     * @param fecha La fecha del barrido proyectado.
+     * @return la suma de las penalidades nuevas, en centavos.
+     */
+    public long proyectarPenalidades(LocalDate fecha) {
+        return kernels.penalidadesNuevas(montoOriginal, vencimiento, estado, fecha.toEpochDay());
+    }
+
+    /**
+     * Calcula la cobranza proyectada de un período: el saldo pendiente de las cuotas no pagadas
+     * que vencen entre las dos fechas, inclusive.
+     *
+     * @param desde La primera fecha del período.
+     * @param hasta La última fecha del período.
+     * @return la cobranza proyectada, en centavos.
+     */
+    public long proyectarCobranza(LocalDate desde, LocalDate hasta) {
+        return kernels.cobranza(montoOriginal, montoPagado, penalidad, vencimiento, estado,
+                desde.toEpochDay(), hasta.toEpochDay());
+    }
+
+    /**
+     * Bucles escalares, sin objetos ni llamadas por cuota, que el compilador JIT puede desenrollar.
+     * Se usan cuando la Vector API no está disponible.
+     */
+    private static final class KernelsEscalares implements KernelsCartera {
+        @Override
+        public long sumar(long[] valores) {
+            long total = 0;
+            for (int i = 0; i < valores.length; i++) {
+                total += valores[i];
+            }
+            return total;
+        }
+
+        @Override
+        public long saldoPendiente(long[] montoOriginal, long[] montoPagado, long[] penalidad, byte[] estado, int desde, int hasta) {
+            long total = 0;
+            for (int i = desde; i < hasta; i++) {
+                long saldo = Math.max(0, montoOriginal[i] + penalidad[i] - montoPagado[i]);
+                total += estado[i] != PAGADA ? saldo : 0;
+            }
+            return total;
+        }
+
+        @Override
+        public long penalidadesNuevas(long[] montoOriginal, int[] vencimiento, byte[] estado, long dia) {
+            long mitad = Dinero.PUNTOS_BASICOS / 2;
+            long total = 0;
+            for (int i = 0; i < estado.length; i++) {
+                boolean entraEnMora = estado[i] != PAGADA && estado[i] != MORA && dia > vencimiento[i];
+                // Igual a Dinero.porcentaje para montos no negativos, sin la verificación de desborde por cuota
+                long penalidadNueva = (montoOriginal[i] * Cuota.PENALIDAD_MORA_PUNTOS_BASICOS + mitad) / Dinero.PUNTOS_BASICOS;
+                total += entraEnMora ? penalidadNueva : 0;
+            }
+            return total;
+        }
+
+        @Override
+        public long cobranza(long[] montoOriginal, long[] montoPagado, long[] penalidad, int[] vencimiento, byte[] estado,
+                             long primerDia, long ultimoDia) {
+            long total = 0;
+            for (int i = 0; i < estado.length; i++) {
+                boolean enPeriodo = estado[i] != PAGADA && vencimiento[i] >= primerDia && vencimiento[i] <= ultimoDia;
+                total += enPeriodo ? Math.max(0, montoOriginal[i] + penalidad[i] - montoPagado[i]) : 0;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package clasesmodelo;
+
+import java.time.LocalDate;
+
+/**
+ * Cronograma de amortización de un préstamo: para cada cuota, la parte que amortiza capital, la parte
+ * de interés, el saldo de capital que queda después de pagarla y su vencimiento. Todos los montos están
+ * en centavos. Se obtiene con {@link MotorAmortizacion} y no se modifica después de creado.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public final class CronogramaAmortizacion {
+    private final long cuotaCentavos;
+    private final long[] capital;
+    private final long[] interes;
+    private final long[] saldoRestante;
+    private final long[] vencimientos;
+
+    CronogramaAmortizacion(long cuotaCentavos, long[] capital, long[] interes, long[] saldoRestante, long[] vencimientos) {
+        this.cuotaCentavos = cuotaCentavos;
+        this.capital = capital;
+        this.interes = interes;
+        this.saldoRestante = saldoRestante;
+        this.vencimientos = vencimientos;
+    }
+
+    /** @return la cantidad de cuotas del cronograma. */
+    public int getCantidadCuotas() { return capital.length; }
+    /** @return el valor fijo de cada cuota, en centavos. */
+    public long getCuotaCentavos() { return cuotaCentavos; }
+
+    /**
+     * @param numeroCuota El número de la cuota, empezando en 1.
+     * @return la parte de la cuota que amortiza capital, en centavos.
+     */
+    public long getCapitalCentavos(int numeroCuota) { return capital[indice(numeroCuota)]; }
+
+    /**
+     * @param numeroCuota El número de la cuota, empezando en 1.
+     * @return la parte de la cuota que corresponde a interés, en centavos.
+     */
+    public long getInteresCentavos(int numeroCuota) { return interes[indice(numeroCuota)]; }
+
+    /**
+     * @param numeroCuota El número de la cuota, empezando en 1.
+     * @return el monto de la cuota (capital más interés), en centavos. Es la cuota fija salvo en la última,
+     *         que puede superarla en los centavos de redondeo acumulados.
+     */
+    public long getMontoCentavos(int numeroCuota) {
+        int i = indice(numeroCuota);
+        return capital[i] + interes[i];
+    }
+
+    /**
+     * @param numeroCuota El número de la cuota, empezando en 1.
+     * @return el saldo de capital que queda después de pagar la cuota, en centavos.
+     */
+    public long getSaldoRestanteCentavos(int numeroCuota) { return saldoRestante[indice(numeroCuota)]; }
+
+    /**
+     * @param numeroCuota El número de la cuota, empezando en 1.
+     * @return la fecha de vencimiento de la cuota.
+     */
+    public LocalDate getVencimiento(int numeroCuota) { return LocalDate.ofEpochDay(vencimientos[indice(numeroCuota)]); }
+
+    /** @return el total de intereses del préstamo, en centavos. */
+    public long getInteresTotalCentavos() {
+        long total = 0;
+        for (long i : interes) {
+            total += i;
+        }
+        return total;
+    }
+
+    private int indice(int numeroCuota) {
+        if (numeroCuota <= 0 || numeroCuota > capital.length) {
+            throw new IndexOutOfBoundsException("Cuota " + numeroCuota + " fuera de rango del cronograma");
+        }
+        return numeroCuota - 1;
+    }
+}
@@ -1,12 +1,13 @@
 package clasesmodelo;
 
 import java.time.LocalDate;
-import java.text.NumberFormat;
-import java.util.Locale;
 
 /**
  * Modela una cuota individual de un préstamo. Contiene información sobre su monto,
  * estado (pendiente, pagada, etc.), fecha de vencimiento y penalidades por mora.
+ * <p>
+ * Los datos se guardan en el {@link PlanDeCuotas} del préstamo; cada Cuota es una vista liviana
+ * sobre una posición de ese plan, por lo que los cambios se reflejan en todas las vistas de la misma cuota.
  *
  * @author Tu Nombre
  * @version 1.2
@@ -27,98 +28,109 @@ public class Cuota {
         PAGO_INCOMPLETO
     }
 
+    /** Penalidad por mora en puntos básicos (500 = 5%) sobre el monto original de la cuota. */
+    public static final int PENALIDAD_MORA_PUNTOS_BASICOS = 500;
     /** Porcentaje de penalidad (5%) que se aplica sobre el monto original en caso de mora. */
-    public static final double PORCENTAJE_PENALIDAD_MORA = 0.05;
+    public static final double PORCENTAJE_PENALIDAD_MORA = PENALIDAD_MORA_PUNTOS_BASICOS / (double) Dinero.PUNTOS_BASICOS;
 
-    private String idPrestamo;
-    private int numeroCuota;
-    private double montoOriginal;
-    private double montoPagado;
-    private LocalDate fechaVencimiento;
-    private EstadoCuota estado;
-    private double montoPenalidadAcumulada;
+    private final PlanDeCuotas plan;
+    private final int indice;
 
     /**
      * Construye una nueva instancia de Cuota.
      *
      * @param idPrestamo El ID del préstamo al que pertenece.
      * @param numeroCuota El número secuencial de la cuota (ej. 1, 2, 3...).
-     * @param montoOriginal El monto original a pagar para esta cuota.
+     * @param montoOriginal El monto original a pagar para esta cuota, en centavos.
      * @param fechaVencimiento La fecha límite para pagar sin incurrir en mora.
      */
-    public Cuota(String idPrestamo, int numeroCuota, double montoOriginal, LocalDate fechaVencimiento) {
-        this.idPrestamo = idPrestamo;
-        this.numeroCuota = numeroCuota;
-        this.montoOriginal = montoOriginal;
-        this.fechaVencimiento = fechaVencimiento;
-        this.montoPagado = 0.0;
-        this.estado = EstadoCuota.PENDIENTE;
-        this.montoPenalidadAcumulada = 0.0;
+    public Cuota(String idPrestamo, int numeroCuota, long montoOriginal, LocalDate fechaVencimiento) {
+        // Una cuota creada por fuera de un préstamo tiene su propio plan de una sola posición
+        this.plan = new PlanDeCuotas(idPrestamo, numeroCuota, 1);
+        this.indice = 0;
+        plan.establecer(0, montoOriginal, 0, 0, fechaVencimiento, EstadoCuota.PENDIENTE);
+    }
+
+    /**
+     * Crea una vista sobre una posición del plan de cuotas de un préstamo.
+     *
+     * @param plan El plan que almacena los datos de la cuota.
+     * @param indice La posición de la cuota dentro del plan.
+     */
+    Cuota(PlanDeCuotas plan, int indice) {
+        this.plan = plan;
+        this.indice = indice;
     }
 
     // --- Getters y Setters ---
 
     /** @return El ID del préstamo al que pertenece la cuota. */
-    public String getIdPrestamo() { return idPrestamo; }
+    public String getIdPrestamo() { return plan.getIdPrestamo(); }
     /** @return El número de esta cuota dentro del plan de pagos. */
-    public int getNumeroCuota() { return numeroCuota; }
-    /** @return El monto original de la cuota, sin contar penalidades. */
-    public double getMontoOriginal() { return montoOriginal; }
-    /** @return El monto total que ha sido pagado para esta cuota. */
-    public double getMontoPagado() { return montoPagado; }
+    public int getNumeroCuota() { return plan.numeroCuota(indice); }
+    /** @return El monto original de la cuota en pesos, sin contar penalidades. */
+    public double getMontoOriginal() { return Dinero.aDouble(plan.montoOriginal(indice)); }
+    /** @return El monto original de la cuota en centavos, sin contar penalidades. */
+    public long getMontoOriginalCentavos() { return plan.montoOriginal(indice); }
+    /** @return El monto total que ha sido pagado para esta cuota, en pesos. */
+    public double getMontoPagado() { return Dinero.aDouble(plan.montoPagado(indice)); }
+    /** @return El monto total que ha sido pagado para esta cuota, en centavos. */
+    public long getMontoPagadoCentavos() { return plan.montoPagado(indice); }
     /** @return La fecha de vencimiento de la cuota. */
-    public LocalDate getFechaVencimiento() { return fechaVencimiento; }
+    public LocalDate getFechaVencimiento() { return plan.vencimiento(indice); }
     /** @return El estado actual de la cuota (PENDIENTE, PAGADA, etc.). */
-    public EstadoCuota getEstado() { return estado; }
-    /** @return El monto total de las penalidades acumuladas por mora. */
-    public double getMontoPenalidadAcumulada() { return montoPenalidadAcumulada; }
+    public EstadoCuota getEstado() { return plan.estado(indice); }
+    /** @return El monto total de las penalidades acumuladas por mora, en pesos. */
+    public double getMontoPenalidadAcumulada() { return Dinero.aDouble(plan.penalidad(indice)); }
+    /** @return El monto total de las penalidades acumuladas por mora, en centavos. */
+    public long getMontoPenalidadAcumuladaCentavos() { return plan.penalidad(indice); }
     /** @param estado El nuevo estado para la cuota. */
-    public void setEstado(EstadoCuota estado) { this.estado = estado; }
-    /** @param montoPagado El nuevo valor para el monto pagado. */
-    public void setMontoPagado(double montoPagado) { this.montoPagado = montoPagado; }
+    public void setEstado(EstadoCuota estado) { plan.setEstado(indice, estado); }
+    /** @param montoPagado El nuevo valor para el monto pagado, en centavos. */
+    public void setMontoPagado(long montoPagado) { plan.setMontoPagado(indice, montoPagado); }
+
+    /**
+     * Reemplaza el estado de pago de la cuota por uno previamente persistido (por ejemplo, un checkpoint).
+     *
+     * @param montoPagado El monto pagado registrado, en centavos.
+     * @param montoPenalidadAcumulada Las penalidades acumuladas registradas, en centavos.
+     * @param estado El estado registrado.
+     */
+    public void restaurarEstado(long montoPagado, long montoPenalidadAcumulada, EstadoCuota estado) {
+        plan.restaurarEstado(indice, montoPagado, montoPenalidadAcumulada, estado);
+    }
 
     /**
      * Calcula el saldo restante a pagar para esta cuota.
      * La fórmula es (monto original + penalidades) - monto pagado.
      *
-     * @return El saldo pendiente de la cuota.
+     * @return El saldo pendiente de la cuota, en pesos.
      */
     public double getSaldoPendiente() {
-        return Math.max(0, montoOriginal + montoPenalidadAcumulada - montoPagado);
+        return Dinero.aDouble(getSaldoPendienteCentavos());
+    }
+
+    /**
+     * Calcula el saldo restante a pagar para esta cuota, en centavos.
+     * Una cuota pagada puede haber cubierto penalidades que luego se saldan, por eso el saldo nunca es negativo.
+     *
+     * @return El saldo pendiente de la cuota, en centavos.
+     */
+    public long getSaldoPendienteCentavos() {
+        return plan.saldoPendiente(indice);
     }
 
     /**
      * Aplica un monto de pago a esta cuota.
      * Actualiza el monto pagado y el estado de la cuota (PAGO_INCOMPLETO o PAGADA).
+     * Si el pago cubre el saldo, la cuota queda PAGADA y su penalidad se salda; si no,
+     * pasa a PAGO_INCOMPLETO, salvo que esté en MORA, en cuyo caso permanece en mora.
      *
-     * @param pago El monto a abonar.
+     * @param pago El monto a abonar, en centavos.
      * @return {@code true} si el pago fue válido y se aplicó, {@code false} en caso contrario.
      */
-    public boolean aplicarPago(double pago) {
-        if (estado == EstadoCuota.PAGADA) {
-            //System.out.println("La cuota #" + numeroCuota + " ya está completamente pagada.");
-            return false;
-        }
-
-        double saldoAntes = getSaldoPendiente();
-        if (pago <= 0) {
-            //System.out.println("Error: El monto del pago debe ser positivo.");
-            return false;
-        }
-
-        if (pago >= saldoAntes) {
-            this.montoPagado += saldoAntes;
-            this.estado = EstadoCuota.PAGADA;
-            this.montoPenalidadAcumulada = 0.0; // Se salda la penalidad al pagar completamente
-        } else {
-            this.montoPagado += pago;
-            // Solo cambia el estado a PAGO_INCOMPLETO si la cuota no estaba ya en MORA.
-            // Si ya estaba en mora, debe permanecer en mora.
-            if (this.estado != EstadoCuota.MORA) {
-                this.estado = EstadoCuota.PAGO_INCOMPLETO;
-            }
-        }
-        return true;
+    public boolean aplicarPago(long pago) {
+        return plan.aplicarPago(indice, pago);
     }
 
     /**
@@ -126,35 +138,30 @@ public class Cuota {
      * y aplica la penalidad correspondiente si es la primera vez que se detecta.
      *
      * @param fechaActual La fecha actual para comparar contra la fecha de vencimiento.
+     * @return {@code true} si la cuota entró en mora con esta verificación.
      */
-    public void verificarYAplicarMora(LocalDate fechaActual) {
-        if (this.estado != EstadoCuota.PAGADA && fechaActual.isAfter(this.fechaVencimiento)) {
-            if (this.estado != EstadoCuota.MORA) {
-                this.estado = EstadoCuota.MORA;
-                double penalidadCalculada = montoOriginal * PORCENTAJE_PENALIDAD_MORA;
-                this.montoPenalidadAcumulada += penalidadCalculada;
-            }
-        }
+    public boolean verificarYAplicarMora(LocalDate fechaActual) {
+        return plan.verificarYAplicarMora(indice, fechaActual.toEpochDay());
     }
 
     /** @return El monto original formateado como moneda local. */
     public String getMontoOriginalFormateado() {
-        return NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(montoOriginal);
+        return FormatoMoneda.formatear(getMontoOriginalCentavos());
     }
 
     /** @return El monto pagado formateado como moneda local. */
     public String getMontoPagadoFormateado() {
-        return NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(montoPagado);
+        return FormatoMoneda.formatear(getMontoPagadoCentavos());
     }
 
     /** @return El saldo pendiente formateado como moneda local. */
     public String getSaldoPendienteFormateado() {
-        return NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(getSaldoPendiente());
+        return FormatoMoneda.formatear(getSaldoPendienteCentavos());
     }
 
     /** @return El monto de penalidad acumulada formateado como moneda local. */
     public String getMontoPenalidadAcumuladaFormateado() {
-        return NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(montoPenalidadAcumulada);
+        return FormatoMoneda.formatear(getMontoPenalidadAcumuladaCentavos());
     }
 
     /**
@@ -164,16 +171,35 @@ public class Cuota {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        sb.append("  Cuota #").append(numeroCuota)
+        sb.append("  Cuota #").append(getNumeroCuota())
                 .append(" | Monto Original: ").append(getMontoOriginalFormateado())
                 .append(" | Monto Pagado: ").append(getMontoPagadoFormateado())
                 .append(" | Saldo Pendiente: ").append(getSaldoPendienteFormateado());
 
-        if (montoPenalidadAcumulada > 0) {
+        if (getMontoPenalidadAcumuladaCentavos() > 0) {
             sb.append(" | Penalidad Acumulada: ").append(getMontoPenalidadAcumuladaFormateado());
         }
-        sb.append(" | Vencimiento: ").append(fechaVencimiento)
-                .append(" | Estado: ").append(estado);
+        sb.append(" | Vencimiento: ").append(getFechaVencimiento())
+                .append(" | Estado: ").append(getEstado());
         return sb.toString();
     }
+
+    /**
+     * Dos cuotas son iguales si son vistas sobre la misma posición del mismo plan de cuotas.
+     * @param o El objeto a comparar.
+     * @return {@code true} si ambas representan la misma cuota.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Cuota)) return false;
+        Cuota otra = (Cuota) o;
+        return plan == otra.plan && indice == otra.indice;
+    }
+
+    /** @return un código hash coherente con {@link #equals(Object)}. */
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(plan) + indice;
+    }
 }
\ No newline at end of file
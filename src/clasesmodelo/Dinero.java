@@ -0,0 +1,201 @@
+package clasesmodelo;
+
+/**
+ * Operaciones sobre montos de dinero representados en centavos con un {@code long}.
+ * Todos los importes del modelo (cuotas, pagos, penalidades y préstamos) se guardan y operan
+ * en centavos, por lo que sumas y comparaciones son exactas y no crean objetos.
+ * <p>
+ * Reglas de redondeo: los valores que llegan como {@code double} (por ejemplo el resultado de la
+ * fórmula de amortización) y los porcentajes se redondean al centavo más cercano, con las
+ * mitades hacia arriba (alejándose de cero).
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public final class Dinero {
+
+    /** Cantidad de centavos en un peso. */
+    public static final long CENTAVOS_POR_PESO = 100;
+    /** Base de los porcentajes expresados en puntos básicos (10000 = 100%). */
+    public static final int PUNTOS_BASICOS = 10_000;
+
+    private Dinero() {
+    }
+
+    /**
+     * Convierte un monto en pesos expresado como {@code double} a centavos, redondeando al centavo más cercano
+     * y con las mitades alejándose de cero, igual que {@link #porcentaje(long, int)}.
+     * @param pesos El monto en pesos.
+     * @return el monto en centavos.
+     */
+    public static long deDouble(double pesos) {
+        double centavos = pesos * CENTAVOS_POR_PESO;
+        // Math.round lleva las mitades hacia +infinito; para los negativos se redondea el valor absoluto
+        return centavos >= 0 ? Math.round(centavos) : -Math.round(-centavos);
+    }
+
+    /**
+     * Convierte un monto en centavos a pesos, para presentación o fórmulas en punto flotante.
+     * @param centavos El monto en centavos.
+     * @return el monto en pesos.
+     */
+    public static double aDouble(long centavos) {
+        return centavos / (double) CENTAVOS_POR_PESO;
+    }
+
+    /**
+     * Calcula un porcentaje de un monto, redondeando al centavo más cercano.
+     * @param centavos El monto base en centavos.
+     * @param puntosBasicos El porcentaje en puntos básicos (por ejemplo 500 = 5%).
+     * @return el porcentaje del monto, en centavos.
+     */
+    public static long porcentaje(long centavos, int puntosBasicos) {
+        long producto = Math.multiplyExact(centavos, puntosBasicos);
+        long mitad = PUNTOS_BASICOS / 2;
+        return producto >= 0 ? (producto + mitad) / PUNTOS_BASICOS : -((-producto + mitad) / PUNTOS_BASICOS);
+    }
+
+    /**
+     * Convierte un monto en centavos al texto decimal usado en los archivos CSV (por ejemplo "1234.56").
+     * @param centavos El monto en centavos.
+     * @return el texto con exactamente dos decimales.
+     */
+    public static String aTexto(long centavos) {
+        return aTexto(centavos, new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Escribe un monto en centavos como texto decimal con dos decimales en el StringBuilder indicado.
+     * @param centavos El monto en centavos.
+     * @param destino El StringBuilder donde se escribe el texto.
+     * @return el mismo StringBuilder recibido.
+     */
+    public static StringBuilder aTexto(long centavos, StringBuilder destino) {
+        if (centavos < 0) {
+            destino.append('-');
+        }
+        long absoluto = Math.abs(centavos);
+        long resto = absoluto % CENTAVOS_POR_PESO;
+        destino.append(absoluto / CENTAVOS_POR_PESO).append('.');
+        if (resto < 10) {
+            destino.append('0');
+        }
+        return destino.append(resto);
+    }
+
+    /**
+     * Convierte un texto decimal a centavos de forma exacta, sin pasar por {@code double}.
+     * Acepta signo, parte decimal con punto y exponente (por ejemplo "150000.0", "1234.56" o "1.85E7").
+     * Los dígitos más allá del centavo se redondean con las mitades hacia arriba.
+     *
+     * @param texto El texto a convertir. Se ignoran los espacios al principio y al final.
+     * @return el monto en centavos.
+     * @throws NumberFormatException Si el texto no es un número decimal válido o no entra en un {@code long}.
+     */
+    public static long parsear(CharSequence texto) {
+        int inicio = 0;
+        int fin = texto.length();
+        while (inicio < fin && texto.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fin > inicio && texto.charAt(fin - 1) <= ' ') {
+            fin--;
+        }
+
+        int i = inicio;
+        boolean negativo = false;
+        if (i < fin && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) {
+            negativo = texto.charAt(i) == '-';
+            i++;
+        }
+        int inicioDigitos = i;
+        int digitosEnteros = 0;
+        while (i < fin && esDigito(texto.charAt(i))) {
+            i++;
+            digitosEnteros++;
+        }
+        int digitosTotales = digitosEnteros;
+        int puntoDecimal = -1;
+        if (i < fin && texto.charAt(i) == '.') {
+            puntoDecimal = i;
+            i++;
+            while (i < fin && esDigito(texto.charAt(i))) {
+                i++;
+                digitosTotales++;
+            }
+        }
+        int finDigitos = i;
+        if (digitosTotales == 0) {
+            throw error(texto);
+        }
+
+        long exponente = 0;
+        if (i < fin && (texto.charAt(i) == 'e' || texto.charAt(i) == 'E')) {
+            i++;
+            boolean exponenteNegativo = false;
+            if (i < fin && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) {
+                exponenteNegativo = texto.charAt(i) == '-';
+                i++;
+            }
+            int inicioExponente = i;
+            while (i < fin && esDigito(texto.charAt(i))) {
+                exponente = Math.min(exponente * 10 + (texto.charAt(i) - '0'), 100_000);
+                i++;
+            }
+            if (i == inicioExponente) {
+                throw error(texto);
+            }
+            if (exponenteNegativo) {
+                exponente = -exponente;
+            }
+        }
+        if (i != fin) {
+            throw error(texto);
+        }
+
+        // Cantidad de dígitos (contando desde el primero) que quedan a la izquierda del centavo inclusive
+        long digitosHastaCentavo = digitosEnteros + exponente + 2;
+        long centavos = 0;
+        int indiceDigito = 0;
+        boolean redondearArriba = false;
+        for (int j = inicioDigitos; j < finDigitos; j++) {
+            if (j == puntoDecimal) {
+                continue;
+            }
+            int digito = texto.charAt(j) - '0';
+            if (indiceDigito < digitosHastaCentavo) {
+                centavos = agregarDigito(centavos, digito, texto);
+            } else if (indiceDigito == digitosHastaCentavo) {
+                redondearArriba = digito >= 5;
+                break;
+            }
+            indiceDigito++;
+        }
+        // Ceros implícitos cuando el exponente desplaza la coma más allá de los dígitos escritos
+        for (long k = Math.max(indiceDigito, 0); k < digitosHastaCentavo; k++) {
+            if (centavos == 0) {
+                break;
+            }
+            centavos = agregarDigito(centavos, 0, texto);
+        }
+        if (redondearArriba) {
+            centavos = Math.addExact(centavos, 1);
+        }
+        return negativo ? -centavos : centavos;
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static long agregarDigito(long acumulado, int digito, CharSequence texto) {
+        if (acumulado > (Long.MAX_VALUE - digito) / 10) {
+            throw error(texto);
+        }
+        return acumulado * 10 + digito;
+    }
+
+    private static NumberFormatException error(CharSequence texto) {
+        return new NumberFormatException("Monto inválido: \"" + texto + "\"");
+    }
+}
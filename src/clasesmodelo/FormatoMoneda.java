@@ -0,0 +1,157 @@
+package clasesmodelo;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Formatea montos como moneda argentina (por ejemplo "$ 1.234,56", con un espacio no separable
+ * después del signo "$"), con el mismo texto que produce
+ * {@code NumberFormat.getCurrencyInstance(new Locale("es", "AR"))} pero sin crear un formateador por valor.
+ * <p>
+ * Los métodos escriben directamente en un {@link StringBuilder} o en un arreglo de caracteres del
+ * llamador. La clase no tiene estado, por lo que puede usarse desde varios hilos sin sincronización.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public final class FormatoMoneda {
+
+    /** Longitud máxima del texto de un monto: signo, "$", espacio, 17 dígitos enteros, 5 puntos, coma y 2 decimales. */
+    public static final int LONGITUD_MAXIMA = 28;
+
+    /** Espacio no separable que el formato es-AR coloca entre el signo "$" y el número. */
+    private static final char ESPACIO_NO_SEPARABLE = '\u00A0';
+    /** Por encima de este valor en pesos un {@code double} ya no distingue centavos de forma confiable. */
+    private static final double LIMITE_DOUBLE_EXACTO = 1e13;
+    private static final long[] POTENCIAS_DE_DIEZ = new long[19];
+
+    static {
+        long potencia = 1;
+        for (int i = 0; i < POTENCIAS_DE_DIEZ.length; i++) {
+            POTENCIAS_DE_DIEZ[i] = potencia;
+            potencia *= 10;
+        }
+    }
+
+    private FormatoMoneda() {
+    }
+
+    /**
+     * Formatea un monto en centavos como moneda local.
+     * @param centavos El monto en centavos.
+     * @return el texto formateado, por ejemplo "$ 1.234,56".
+     */
+    public static String formatear(long centavos) {
+        char[] buffer = new char[LONGITUD_MAXIMA];
+        int longitud = formatear(centavos, buffer, 0);
+        return new String(buffer, 0, longitud);
+    }
+
+    /**
+     * Escribe un monto en centavos formateado como moneda local en el StringBuilder indicado.
+     * @param centavos El monto en centavos.
+     * @param destino El StringBuilder donde se escribe el texto.
+     * @return el mismo StringBuilder recibido.
+     */
+    public static StringBuilder formatear(long centavos, StringBuilder destino) {
+        if (centavos < 0) {
+            destino.append('-');
+        }
+        destino.append('$').append(ESPACIO_NO_SEPARABLE);
+        // Se trabaja con el valor negativo para que Long.MIN_VALUE no desborde al cambiar de signo
+        long negativo = centavos < 0 ? centavos : -centavos;
+        long pesos = -(negativo / Dinero.CENTAVOS_POR_PESO);
+        int resto = (int) -(negativo % Dinero.CENTAVOS_POR_PESO);
+        int digitos = contarDigitos(pesos);
+        for (int i = digitos - 1; i >= 0; i--) {
+            destino.append((char) ('0' + (int) ((pesos / POTENCIAS_DE_DIEZ[i]) % 10)));
+            if (i > 0 && i % 3 == 0) {
+                destino.append('.');
+            }
+        }
+        return destino.append(',').append((char) ('0' + resto / 10)).append((char) ('0' + resto % 10));
+    }
+
+    /**
+     * Escribe un monto en centavos formateado como moneda local en un arreglo de caracteres.
+     * @param centavos El monto en centavos.
+     * @param destino El arreglo donde se escribe el texto; debe tener al menos {@link #LONGITUD_MAXIMA} posiciones libres desde {@code desde}.
+     * @param desde La posición del arreglo donde comienza el texto.
+     * @return la posición siguiente al último carácter escrito.
+     */
+    public static int formatear(long centavos, char[] destino, int desde) {
+        int i = desde;
+        if (centavos < 0) {
+            destino[i++] = '-';
+        }
+        destino[i++] = '$';
+        destino[i++] = ESPACIO_NO_SEPARABLE;
+        long negativo = centavos < 0 ? centavos : -centavos;
+        long pesos = -(negativo / Dinero.CENTAVOS_POR_PESO);
+        int resto = (int) -(negativo % Dinero.CENTAVOS_POR_PESO);
+        int digitos = contarDigitos(pesos);
+        int separadores = (digitos - 1) / 3;
+        // Los dígitos de la parte entera se escriben de derecha a izquierda
+        int posicion = i + digitos + separadores - 1;
+        for (int d = 0; d < digitos; d++) {
+            if (d > 0 && d % 3 == 0) {
+                destino[posicion--] = '.';
+            }
+            destino[posicion--] = (char) ('0' + pesos % 10);
+            pesos /= 10;
+        }
+        i += digitos + separadores;
+        destino[i++] = ',';
+        destino[i++] = (char) ('0' + resto / 10);
+        destino[i++] = (char) ('0' + resto % 10);
+        return i;
+    }
+
+    /**
+     * Formatea un monto en pesos expresado como {@code double} (por ejemplo la cuota teórica de la
+     * fórmula de amortización). Igual que {@code NumberFormat}, redondea el valor binario exacto al
+     * centavo con las mitades hacia el par.
+     * @param pesos El monto en pesos.
+     * @return el texto formateado.
+     */
+    public static String formatear(double pesos) {
+        return formatear(pesos, new StringBuilder(LONGITUD_MAXIMA)).toString();
+    }
+
+    /**
+     * Escribe un monto en pesos expresado como {@code double} formateado como moneda local en el StringBuilder indicado.
+     * @param pesos El monto en pesos.
+     * @param destino El StringBuilder donde se escribe el texto.
+     * @return el mismo StringBuilder recibido.
+     */
+    public static StringBuilder formatear(double pesos, StringBuilder destino) {
+        if (Double.isNaN(pesos) || Math.abs(pesos) >= LIMITE_DOUBLE_EXACTO) {
+            // Fuera del rango de centavos exactos en un long se delega en el formateador del JDK
+            return destino.append(NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(pesos));
+        }
+        // El producto exacto pesos * 100 es escalado + error; ambos términos son exactos
+        double escalado = pesos * Dinero.CENTAVOS_POR_PESO;
+        double error = Math.fma(pesos, Dinero.CENTAVOS_POR_PESO, -escalado);
+        double candidato = Math.rint(escalado);
+        double diferencia = escalado - candidato;
+        if (diferencia == 0.5 && (error > 0 || (error == 0 && candidato % 2 != 0))) {
+            candidato += 1;
+        } else if (diferencia == -0.5 && (error < 0 || (error == 0 && candidato % 2 != 0))) {
+            candidato -= 1;
+        }
+        long centavos = (long) candidato;
+        if (centavos == 0 && (pesos < 0 || 1 / pesos < 0)) {
+            // NumberFormat conserva el signo de los negativos que redondean a cero
+            return formatear(0, destino.append('-'));
+        }
+        return formatear(centavos, destino);
+    }
+
+    private static int contarDigitos(long valor) {
+        int digitos = 1;
+        while (digitos < POTENCIAS_DE_DIEZ.length && valor >= POTENCIAS_DE_DIEZ[digitos]) {
+            digitos++;
+        }
+        return digitos;
+    }
+}
@@ -0,0 +1,38 @@
+package clasesmodelo;
+
+/**
+ * Bucles de cálculo de {@link CarteraColumnar} sobre sus arreglos de cuotas. Hay una implementación
+ * escalar, siempre disponible, y otra con la Vector API del JDK ({@code KernelsCarteraVectoriales}, en
+ * {@code src-vector/}), que se usa solo si se compiló aparte y el módulo {@code jdk.incubator.vector} está
+ * presente al ejecutar. Ambas dan exactamente los mismos resultados.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+interface KernelsCartera {
+    /** Estado de una cuota pagada, tal como se guarda en el arreglo de estados. */
+    byte PAGADA = (byte) Cuota.EstadoCuota.PAGADA.ordinal();
+    /** Estado de una cuota en mora, tal como se guarda en el arreglo de estados. */
+    byte MORA = (byte) Cuota.EstadoCuota.MORA.ordinal();
+
+    /**
+     * @return la suma de todos los valores del arreglo.
+     */
+    long sumar(long[] valores);
+
+    /**
+     * @return la suma del saldo pendiente de las cuotas no pagadas en las posiciones {@code [desde, hasta)}.
+     */
+    long saldoPendiente(long[] montoOriginal, long[] montoPagado, long[] penalidad, byte[] estado, int desde, int hasta);
+
+    /**
+     * @return la suma de la penalidad por mora de las cuotas vencidas al día indicado que no están pagadas ni en mora.
+     */
+    long penalidadesNuevas(long[] montoOriginal, int[] vencimiento, byte[] estado, long dia);
+
+    /**
+     * @return la suma del saldo pendiente de las cuotas no pagadas que vencen entre los dos días, inclusive.
+     */
+    long cobranza(long[] montoOriginal, long[] montoPagado, long[] penalidad, int[] vencimiento, byte[] estado,
+                  long primerDia, long ultimoDia);
+}
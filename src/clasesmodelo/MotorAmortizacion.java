@@ -0,0 +1,209 @@
+package clasesmodelo;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Cálculos del sistema de amortización francés: cuota fija y cronograma de cada cuota con su
+ * separación en capital e interés.
+ * <p>
+ * El factor {@code (1 + i)^n} de cada combinación de tasa y plazo se calcula una sola vez y queda
+ * guardado, ya que la cartera usa pocas tasas y pocos plazos distintos. El resultado de la cuota es
+ * idéntico al de la fórmula sin caché. Es seguro usar la clase desde varios hilos.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public final class MotorAmortizacion {
+
+    /** Plazo máximo, en cuotas, cuyo factor se guarda. */
+    private static final int PLAZO_MAXIMO_CACHEADO = 1200;
+    /** Cantidad máxima de tasas distintas cuyos factores se guardan. */
+    private static final int TASAS_MAXIMAS_CACHEADAS = 16;
+
+    /**
+     * Factores ya calculados, uno por tasa. El arreglo se reemplaza entero al agregar una tasa, por lo que
+     * las lecturas no necesitan sincronización.
+     */
+    private static volatile FactoresDeTasa[] factoresPorTasa = new FactoresDeTasa[0];
+
+    private MotorAmortizacion() {
+    }
+
+    /**
+     * Calcula la cuota mensual del sistema francés.
+     *
+     * @param montoCentavos El capital prestado, en centavos.
+     * @param tasaPorcentual La tasa de interés mensual, en porcentaje (por ejemplo 15.5).
+     * @param plazo La cantidad de cuotas.
+     * @return el valor de la cuota mensual, en pesos y sin redondear.
+     */
+    public static double calcularCuotaMensual(long montoCentavos, double tasaPorcentual, int plazo) {
+        double tasaMensual = (tasaPorcentual / 100.0);
+        double monto = Dinero.aDouble(montoCentavos);
+
+        if (tasaMensual == 0) return monto / plazo;
+
+        // Fórmula del sistema francés: C = (V * i) / (1 - (1 + i)^-n)
+        // La implementacion usa una variante algebráicamente equivalente.
+        double factor = factor(tasaMensual, plazo);
+        return (monto * tasaMensual * factor) / (factor - 1);
+    }
+
+    /**
+     * Calcula la cuota mensual del sistema francés redondeada al centavo, el valor que tienen todas las cuotas del plan.
+     *
+     * @param montoCentavos El capital prestado, en centavos.
+     * @param tasaPorcentual La tasa de interés mensual, en porcentaje.
+     * @param plazo La cantidad de cuotas.
+     * @return el valor de la cuota mensual, en centavos.
+     */
+    public static long calcularCuotaMensualCentavos(long montoCentavos, double tasaPorcentual, int plazo) {
+        return Dinero.deDouble(calcularCuotaMensual(montoCentavos, tasaPorcentual, plazo));
+    }
+
+    /**
+     * Genera el cronograma completo de un préstamo. Cada cuota tiene el valor fijo redondeado al centavo.
+     * El interés de cada mes es la tasa sobre el saldo teórico de capital al comienzo del mes, redondeado
+     * al centavo, y el resto de la cuota amortiza capital. Usar el saldo teórico evita que el redondeo de la
+     * cuota se acumule mes a mes. La última cuota cancela el capital que queda, por lo que la diferencia
+     * de redondeo acumulada (algunos centavos) queda en su interés. Si esa diferencia supera al interés
+     * (por ejemplo, con tasa 0 el capital pendiente puede exceder a la cuota), el interés de la última
+     * cuota queda en 0 y su capital supera a la cuota fija en esos centavos; el monto de cada cuota
+     * se consulta con {@link CronogramaAmortizacion#getMontoCentavos(int)}.
+     *
+     * @param montoCentavos El capital prestado, en centavos.
+     * @param tasaPorcentual La tasa de interés mensual, en porcentaje.
+     * @param plazo La cantidad de cuotas.
+     * @param fechaInicio La fecha en que se otorga el préstamo; la primera cuota vence un mes después.
+     * @return el cronograma de amortización.
+     */
+    public static CronogramaAmortizacion calcularCronograma(long montoCentavos, double tasaPorcentual, int plazo, LocalDate fechaInicio) {
+        int cantidad = Math.max(plazo, 0);
+        long cuota = calcularCuotaMensualCentavos(montoCentavos, tasaPorcentual, plazo);
+        double tasaMensual = tasaPorcentual / 100.0;
+        double factorTotal = tasaMensual == 0 ? 0 : factor(tasaMensual, plazo);
+        long[] capital = new long[cantidad];
+        long[] interes = new long[cantidad];
+        long[] saldoRestante = new long[cantidad];
+        long[] vencimientos = new long[cantidad];
+
+        long saldo = montoCentavos;
+        // (1 + i)^k al comienzo de cada mes; el saldo teórico es V * ((1 + i)^n - (1 + i)^k) / ((1 + i)^n - 1)
+        double factorMes = 1;
+        LocalDate vencimientoActual = fechaInicio.plusMonths(1);
+        for (int i = 0; i < cantidad; i++) {
+            long interesMes;
+            long capitalMes;
+            if (i == cantidad - 1) {
+                capitalMes = saldo;
+                interesMes = Math.max(0, cuota - saldo);
+            } else {
+                double saldoTeorico = montoCentavos * (factorTotal - factorMes) / (factorTotal - 1);
+                interesMes = Math.round(saldoTeorico * tasaMensual);
+                capitalMes = cuota - interesMes;
+            }
+            saldo -= capitalMes;
+            capital[i] = capitalMes;
+            interes[i] = interesMes;
+            saldoRestante[i] = saldo;
+            vencimientos[i] = vencimientoActual.toEpochDay();
+            factorMes *= 1 + tasaMensual;
+            // Se avanza mes a mes desde el vencimiento anterior, igual que el plan de cuotas del préstamo
+            vencimientoActual = vencimientoActual.plusMonths(1);
+        }
+        return new CronogramaAmortizacion(cuota, capital, interes, saldoRestante, vencimientos);
+    }
+
+    /**
+     * Genera el cronograma de un préstamo según su monto, tipo, plazo y fecha de inicio.
+     *
+     * @param prestamo El préstamo.
+     * @return el cronograma de amortización.
+     */
+    public static CronogramaAmortizacion calcularCronograma(Prestamo prestamo) {
+        return calcularCronograma(prestamo.getMontoCentavos(), prestamo.getTasaInteres(),
+                prestamo.getNumeroCuotas(), prestamo.getFechaInicio());
+    }
+
+    /**
+     * Genera los cronogramas de muchos préstamos a la vez, repartiendo el trabajo entre los
+     * núcleos disponibles.
+     *
+     * @param prestamos Los préstamos.
+     * @return los cronogramas, en el mismo orden que los préstamos.
+     */
+    public static CronogramaAmortizacion[] calcularCronogramas(List<Prestamo> prestamos) {
+        CronogramaAmortizacion[] cronogramas = new CronogramaAmortizacion[prestamos.size()];
+        IntStream.range(0, cronogramas.length).parallel()
+                .forEach(i -> cronogramas[i] = calcularCronograma(prestamos.get(i)));
+        return cronogramas;
+    }
+
+    /**
+     * Helper privado que devuelve (1 + i)^n, calculándolo solo la primera vez para cada tasa y plazo.
+     */
+    private static double factor(double tasaMensual, int plazo) {
+        if (plazo < 0 || plazo > PLAZO_MAXIMO_CACHEADO) {
+            return Math.pow(1 + tasaMensual, plazo);
+        }
+        for (FactoresDeTasa factores : factoresPorTasa) {
+            if (Double.compare(factores.tasaMensual, tasaMensual) == 0) {
+                return factores.factor(plazo);
+            }
+        }
+        FactoresDeTasa factores = agregarTasa(tasaMensual);
+        return factores != null ? factores.factor(plazo) : Math.pow(1 + tasaMensual, plazo);
+    }
+
+    /**
+     * Helper privado que agrega una tasa al caché, si no estaba y hay lugar.
+     * @return los factores de la tasa, o {@code null} si el caché de tasas está lleno.
+     */
+    private static synchronized FactoresDeTasa agregarTasa(double tasaMensual) {
+        FactoresDeTasa[] actuales = factoresPorTasa;
+        for (FactoresDeTasa factores : actuales) {
+            if (Double.compare(factores.tasaMensual, tasaMensual) == 0) {
+                return factores;
+            }
+        }
+        if (actuales.length >= TASAS_MAXIMAS_CACHEADAS) {
+            return null;
+        }
+        FactoresDeTasa nuevos = new FactoresDeTasa(tasaMensual);
+        FactoresDeTasa[] ampliado = Arrays.copyOf(actuales, actuales.length + 1);
+        ampliado[actuales.length] = nuevos;
+        factoresPorTasa = ampliado;
+        return nuevos;
+    }
+
+    /**
+     * Factores (1 + i)^n de una tasa, indexados por plazo. Un valor 0 indica que el factor de ese plazo
+     * todavía no se calculó. Al calcular uno nuevo se publica una copia del arreglo, por lo que los
+     * lectores nunca ven un arreglo a medio modificar.
+     */
+    private static final class FactoresDeTasa {
+        private final double tasaMensual;
+        private volatile double[] valores = new double[0];
+
+        FactoresDeTasa(double tasaMensual) {
+            this.tasaMensual = tasaMensual;
+        }
+
+        double factor(int plazo) {
+            double[] actuales = valores;
+            if (plazo < actuales.length && actuales[plazo] != 0) {
+                return actuales[plazo];
+            }
+            double factor = Math.pow(1 + tasaMensual, plazo);
+            synchronized (this) {
+                double[] copia = Arrays.copyOf(valores, Math.max(valores.length, plazo + 1));
+                copia[plazo] = factor;
+                valores = copia;
+            }
+            return factor;
+        }
+    }
+}
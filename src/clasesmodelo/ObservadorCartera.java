@@ -0,0 +1,20 @@
+package clasesmodelo;
+
+/**
+ * Recibe los cambios de saldo de los préstamos a medida que ocurren (pagos, moras, restauraciones),
+ * para mantener agregados de toda la cartera sin recorrer los préstamos.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public interface ObservadorCartera {
+
+    /**
+     * Se invoca después de cada modificación que cambia los saldos de un préstamo.
+     *
+     * @param prestamo El préstamo modificado.
+     * @param variacionSaldo La variación del saldo pendiente total del préstamo, en centavos.
+     * @param variacionSaldoEnMora La variación del saldo pendiente de sus cuotas en mora, en centavos.
+     */
+    void saldosCambiados(Prestamo prestamo, long variacionSaldo, long variacionSaldoEnMora);
+}
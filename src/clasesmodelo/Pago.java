@@ -1,8 +1,6 @@
 package clasesmodelo;
 
 import java.time.LocalDate;
-import java.text.NumberFormat;
-import java.util.Locale;
 
 /**
  * Representa una transacción de pago única y atómica.
@@ -15,7 +13,7 @@ import java.util.Locale;
 public class Pago {
     private String idPrestamo;
     private int numeroCuota;
-    private double montoPagado;
+    private long montoPagado;
     private LocalDate fechaPago;
 
     /**
@@ -23,10 +21,10 @@ public class Pago {
      *
      * @param idPrestamo El ID del préstamo al que corresponde el pago.
      * @param numeroCuota El número de la cuota a la que se imputa el pago.
-     * @param montoPagado El monto de dinero transferido en esta transacción.
+     * @param montoPagado El monto de dinero transferido en esta transacción, en centavos.
      * @param fechaPago La fecha en que se realizó el pago.
      */
-    public Pago(String idPrestamo, int numeroCuota, double montoPagado, LocalDate fechaPago) {
+    public Pago(String idPrestamo, int numeroCuota, long montoPagado, LocalDate fechaPago) {
         this.idPrestamo = idPrestamo;
         this.numeroCuota = numeroCuota;
         this.montoPagado = montoPagado;
@@ -52,10 +50,18 @@ public class Pago {
     }
 
     /**
-     * Obtiene el monto exacto de esta transacción de pago.
+     * Obtiene el monto de esta transacción de pago, en pesos.
      * @return el monto pagado.
      */
     public double getMontoPagado() {
+        return Dinero.aDouble(montoPagado);
+    }
+
+    /**
+     * Obtiene el monto exacto de esta transacción de pago, en centavos.
+     * @return el monto pagado en centavos.
+     */
+    public long getMontoPagadoCentavos() {
         return montoPagado;
     }
 
@@ -72,8 +78,8 @@ public class Pago {
      * @return El monto pagado formateado como un String con el símbolo de moneda.
      */
     public String getMontoPagadoFormateado() {
-        // Usa Locale para Argentina para formato de moneda (ej. $1.234,56)
-        return NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(montoPagado);
+        // Formato de moneda para Argentina (ej. $ 1.234,56)
+        return FormatoMoneda.formatear(montoPagado);
     }
 
     /**
@@ -0,0 +1,275 @@
+package clasesmodelo;
+
+import java.time.LocalDate;
+
+/**
+ * Almacena el plan de cuotas de un préstamo en arreglos primitivos, uno por atributo:
+ * montos originales, montos pagados y penalidades en centavos, vencimientos como día epoch
+ * y el estado como el ordinal de {@link Cuota.EstadoCuota}.
+ * <p>
+ * Un préstamo a 30 años ocupa así cinco arreglos en lugar de 360 objetos Cuota con su LocalDate y su String,
+ * y los recorridos sobre el plan (por ejemplo el saldo pendiente total) son bucles sobre memoria contigua.
+ * Las instancias de {@link Cuota} son vistas livianas sobre una posición de este plan.
+ * <p>
+ * El plan mantiene además totales acumulados (saldo pendiente, saldo en mora, cuotas en mora,
+ * cuotas pagadas y penalidades), que se consultan en O(1). Toda modificación de una cuota pasa por este plan: antes del
+ * cambio se resta el aporte de la cuota a los totales y después se suma el aporte nuevo. Si hay un
+ * {@link ObservadorCartera} registrado, se le informa la variación de los saldos.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+final class PlanDeCuotas {
+
+    private static final Cuota.EstadoCuota[] ESTADOS = Cuota.EstadoCuota.values();
+    private static final byte PAGADA = (byte) Cuota.EstadoCuota.PAGADA.ordinal();
+    private static final byte MORA = (byte) Cuota.EstadoCuota.MORA.ordinal();
+    private static final byte PAGO_INCOMPLETO = (byte) Cuota.EstadoCuota.PAGO_INCOMPLETO.ordinal();
+
+    private final String idPrestamo;
+    private final int numeroPrimeraCuota;
+    private final long[] montoOriginal;
+    private final long[] montoPagado;
+    private final long[] penalidad;
+    private final int[] vencimiento;
+    private final byte[] estado;
+
+    private long saldoPendienteTotal;
+    private long penalidadesTotales;
+    private long saldoEnMora;
+    private int cuotasEnMora;
+    private int cuotasPagadas;
+
+    private Prestamo prestamo;
+    private ObservadorCartera observador;
+
+    /**
+     * Crea un plan con todas las cuotas pendientes y sin pagos.
+     *
+     * @param idPrestamo El ID del préstamo al que pertenecen las cuotas.
+     * @param numeroPrimeraCuota El número de la primera cuota del plan (normalmente 1).
+     * @param cantidad La cantidad de cuotas.
+     */
+    PlanDeCuotas(String idPrestamo, int numeroPrimeraCuota, int cantidad) {
+        this.idPrestamo = idPrestamo;
+        this.numeroPrimeraCuota = numeroPrimeraCuota;
+        this.montoOriginal = new long[cantidad];
+        this.montoPagado = new long[cantidad];
+        this.penalidad = new long[cantidad];
+        this.vencimiento = new int[cantidad];
+        this.estado = new byte[cantidad];
+    }
+
+    /**
+     * Crea un plan que usa como almacenamiento los arreglos indicados, sin copiarlos; el llamador no
+     * debe modificarlos después. Los arreglos deben tener la misma longitud.
+     *
+     * @param idPrestamo El ID del préstamo al que pertenecen las cuotas.
+     * @param numeroPrimeraCuota El número de la primera cuota del plan (normalmente 1).
+     * @param montoOriginal Los montos originales, en centavos.
+     * @param montoPagado Los montos pagados, en centavos.
+     * @param penalidad Las penalidades acumuladas, en centavos.
+     * @param vencimiento Los vencimientos, como día epoch.
+     * @param estado Los estados, como ordinal de {@link Cuota.EstadoCuota}.
+     * @throws IllegalArgumentException Si las longitudes no coinciden o algún estado no es válido.
+     */
+    PlanDeCuotas(String idPrestamo, int numeroPrimeraCuota, long[] montoOriginal, long[] montoPagado,
+                 long[] penalidad, int[] vencimiento, byte[] estado) {
+        int cantidad = estado.length;
+        if (montoOriginal.length != cantidad || montoPagado.length != cantidad
+                || penalidad.length != cantidad || vencimiento.length != cantidad) {
+            throw new IllegalArgumentException("Los arreglos del plan de cuotas tienen longitudes distintas");
+        }
+        this.idPrestamo = idPrestamo;
+        this.numeroPrimeraCuota = numeroPrimeraCuota;
+        this.montoOriginal = montoOriginal;
+        this.montoPagado = montoPagado;
+        this.penalidad = penalidad;
+        this.vencimiento = vencimiento;
+        this.estado = estado;
+        for (int i = 0; i < cantidad; i++) {
+            if (estado[i] < 0 || estado[i] >= ESTADOS.length) {
+                throw new IllegalArgumentException("Estado de cuota inválido: " + estado[i]);
+            }
+            sumarAporte(i);
+        }
+    }
+
+    /**
+     * Carga los datos de una cuota en la posición indicada.
+     */
+    void establecer(int indice, long montoOriginal, long montoPagado, long penalidad,
+                    LocalDate vencimiento, Cuota.EstadoCuota estado) {
+        long saldoAntes = saldoPendienteTotal;
+        long moraAntes = saldoEnMora;
+        quitarAporte(indice);
+        this.montoOriginal[indice] = montoOriginal;
+        this.montoPagado[indice] = montoPagado;
+        this.penalidad[indice] = penalidad;
+        this.vencimiento[indice] = Math.toIntExact(vencimiento.toEpochDay());
+        this.estado[indice] = (byte) estado.ordinal();
+        sumarAporte(indice);
+        notificar(saldoAntes, moraAntes);
+    }
+
+    /** @return la cantidad de cuotas del plan. */
+    int cantidad() { return estado.length; }
+    /** @return el ID del préstamo al que pertenecen las cuotas. */
+    String getIdPrestamo() { return idPrestamo; }
+    /** @return el número de la cuota ubicada en la posición indicada. */
+    int numeroCuota(int indice) { return numeroPrimeraCuota + indice; }
+    long montoOriginal(int indice) { return montoOriginal[indice]; }
+    long montoPagado(int indice) { return montoPagado[indice]; }
+    long penalidad(int indice) { return penalidad[indice]; }
+    LocalDate vencimiento(int indice) { return LocalDate.ofEpochDay(vencimiento[indice]); }
+    Cuota.EstadoCuota estado(int indice) { return ESTADOS[estado[indice]]; }
+
+    /**
+     * Copia todas las cuotas del plan en los arreglos indicados, a partir de la posición {@code desde}.
+     */
+    void copiarEn(int desde, long[] montosOriginales, long[] montosPagados, long[] penalidades,
+                  int[] vencimientos, byte[] estados) {
+        int n = cantidad();
+        System.arraycopy(montoOriginal, 0, montosOriginales, desde, n);
+        System.arraycopy(montoPagado, 0, montosPagados, desde, n);
+        System.arraycopy(penalidad, 0, penalidades, desde, n);
+        System.arraycopy(vencimiento, 0, vencimientos, desde, n);
+        System.arraycopy(estado, 0, estados, desde, n);
+    }
+
+    /** @return la suma de los saldos pendientes de las cuotas no pagadas, en centavos. */
+    long saldoPendienteTotal() { return saldoPendienteTotal; }
+    /** @return la suma de las penalidades acumuladas de todas las cuotas, en centavos. */
+    long penalidadesTotales() { return penalidadesTotales; }
+    /** @return la suma de los saldos pendientes de las cuotas en estado MORA, en centavos. */
+    long saldoEnMora() { return saldoEnMora; }
+    /** @return la cantidad de cuotas en estado MORA. */
+    int cuotasEnMora() { return cuotasEnMora; }
+
+    /**
+     * Registra quién debe ser avisado cuando cambian los saldos del plan.
+     * @param prestamo El préstamo dueño del plan, que se informa en cada aviso.
+     * @param observador El observador, o {@code null} para dejar de avisar.
+     */
+    void setObservador(Prestamo prestamo, ObservadorCartera observador) {
+        this.prestamo = prestamo;
+        this.observador = observador;
+    }
+    /** @return la cantidad de cuotas en estado PAGADA. */
+    int cuotasPagadas() { return cuotasPagadas; }
+
+    void setEstado(int indice, Cuota.EstadoCuota nuevoEstado) {
+        long saldoAntes = saldoPendienteTotal;
+        long moraAntes = saldoEnMora;
+        quitarAporte(indice);
+        estado[indice] = (byte) nuevoEstado.ordinal();
+        sumarAporte(indice);
+        notificar(saldoAntes, moraAntes);
+    }
+
+    void setMontoPagado(int indice, long monto) {
+        long saldoAntes = saldoPendienteTotal;
+        long moraAntes = saldoEnMora;
+        quitarAporte(indice);
+        montoPagado[indice] = monto;
+        sumarAporte(indice);
+        notificar(saldoAntes, moraAntes);
+    }
+
+    void restaurarEstado(int indice, long monto, long penalidadAcumulada, Cuota.EstadoCuota nuevoEstado) {
+        long saldoAntes = saldoPendienteTotal;
+        long moraAntes = saldoEnMora;
+        quitarAporte(indice);
+        montoPagado[indice] = monto;
+        penalidad[indice] = penalidadAcumulada;
+        estado[indice] = (byte) nuevoEstado.ordinal();
+        sumarAporte(indice);
+        notificar(saldoAntes, moraAntes);
+    }
+
+    /**
+     * @return el saldo pendiente de la cuota, en centavos. Nunca es negativo.
+     */
+    long saldoPendiente(int indice) {
+        return Math.max(0, montoOriginal[indice] + penalidad[indice] - montoPagado[indice]);
+    }
+
+    /**
+     * Aplica un pago a la cuota indicada, con las reglas descriptas en {@link Cuota#aplicarPago(long)}.
+     */
+    boolean aplicarPago(int indice, long pago) {
+        if (estado[indice] == PAGADA || pago <= 0) {
+            return false;
+        }
+        long saldoCuota = saldoPendiente(indice);
+        long saldoAntes = saldoPendienteTotal;
+        long moraAntes = saldoEnMora;
+        quitarAporte(indice);
+        if (pago >= saldoCuota) {
+            montoPagado[indice] += saldoCuota;
+            estado[indice] = PAGADA;
+            penalidad[indice] = 0; // Se salda la penalidad al pagar completamente
+        } else {
+            montoPagado[indice] += pago;
+            // Si ya estaba en mora, debe permanecer en mora.
+            if (estado[indice] != MORA) {
+                estado[indice] = PAGO_INCOMPLETO;
+            }
+        }
+        sumarAporte(indice);
+        notificar(saldoAntes, moraAntes);
+        return true;
+    }
+
+    /**
+     * Marca la cuota en mora y aplica la penalidad si venció y todavía no estaba en mora,
+     * con las reglas descriptas en {@link Cuota#verificarYAplicarMora(LocalDate)}.
+     *
+     * @return {@code true} si la cuota entró en mora con esta verificación.
+     */
+    boolean verificarYAplicarMora(int indice, long diaActual) {
+        if (estado[indice] == PAGADA || estado[indice] == MORA || diaActual <= vencimiento[indice]) {
+            return false;
+        }
+        long saldoAntes = saldoPendienteTotal;
+        long moraAntes = saldoEnMora;
+        quitarAporte(indice);
+        estado[indice] = MORA;
+        penalidad[indice] += Dinero.porcentaje(montoOriginal[indice], Cuota.PENALIDAD_MORA_PUNTOS_BASICOS);
+        sumarAporte(indice);
+        notificar(saldoAntes, moraAntes);
+        return true;
+    }
+
+    /** Informa al observador la variación de los saldos del plan causada por una modificación. */
+    private void notificar(long saldoAntes, long moraAntes) {
+        ObservadorCartera o = observador;
+        if (o != null && (saldoAntes != saldoPendienteTotal || moraAntes != saldoEnMora)) {
+            o.saldosCambiados(prestamo, saldoPendienteTotal - saldoAntes, saldoEnMora - moraAntes);
+        }
+    }
+
+    /** Resta de los totales el aporte actual de la cuota, antes de modificarla. */
+    private void quitarAporte(int indice) {
+        acumularAporte(indice, -1);
+    }
+
+    /** Suma a los totales el aporte de la cuota, después de modificarla. */
+    private void sumarAporte(int indice) {
+        acumularAporte(indice, 1);
+    }
+
+    private void acumularAporte(int indice, int signo) {
+        byte e = estado[indice];
+        if (e != PAGADA) {
+            saldoPendienteTotal += signo * saldoPendiente(indice);
+        } else {
+            cuotasPagadas += signo;
+        }
+        if (e == MORA) {
+            cuotasEnMora += signo;
+            saldoEnMora += signo * saldoPendiente(indice);
+        }
+        penalidadesTotales += signo * penalidad[indice];
+    }
+}
@@ -1,8 +1,6 @@
 package clasesmodelo;
 
-import java.text.NumberFormat;
 import java.time.LocalDate;
-import java.util.Locale;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,11 +16,11 @@ public class Prestamo {
 
     private String idPrestamo;
     private String dniCliente;
-    private double monto;
+    private long monto;
     private int numeroCuotas;
     private boolean esHipotecario;
     private LocalDate fechaInicio;
-    private List<Cuota> cuotas;
+    private PlanDeCuotas plan;
 
     /** Tasa de interés fija para préstamos de tipo Personal. */
     public static final double TASA_PERSONAL = 15.5;
@@ -34,12 +32,12 @@ public class Prestamo {
      *
      * @param idPrestamo El identificador único del préstamo.
      * @param dniCliente El DNI del cliente al que se le otorga el préstamo.
-     * @param monto El monto total del capital prestado.
+     * @param monto El monto total del capital prestado, en centavos.
      * @param numeroCuotas El número de cuotas para devolver el préstamo.
      * @param esHipotecario {@code true} si es un préstamo hipotecario, {@code false} si es personal.
      * @param fechaInicio La fecha en que se otorga el préstamo.
      */
-    public Prestamo(String idPrestamo, String dniCliente, double monto,
+    public Prestamo(String idPrestamo, String dniCliente, long monto,
                     int numeroCuotas, boolean esHipotecario, LocalDate fechaInicio) {
         this.idPrestamo = idPrestamo;
         this.dniCliente = dniCliente;
@@ -47,10 +45,37 @@ public class Prestamo {
         this.numeroCuotas = numeroCuotas;
         this.esHipotecario = esHipotecario;
         this.fechaInicio = fechaInicio;
-        this.cuotas = new ArrayList<>();
         generarCuotas();
     }
 
+    /**
+     * Reconstruye un Préstamo con un plan de cuotas ya materializado, sin regenerarlo.
+     * Se utiliza al restaurar un snapshot persistido. Los arreglos tienen una posición por cuota, en orden,
+     * y pasan a ser el almacenamiento del plan sin copiarse: el llamador no debe modificarlos después.
+     *
+     * @param idPrestamo El identificador único del préstamo.
+     * @param dniCliente El DNI del cliente al que se le otorgó el préstamo.
+     * @param monto El monto total del capital prestado, en centavos.
+     * @param esHipotecario {@code true} si es un préstamo hipotecario, {@code false} si es personal.
+     * @param fechaInicio La fecha en que se otorgó el préstamo.
+     * @param montosOriginales El monto original de cada cuota, en centavos.
+     * @param montosPagados El monto pagado de cada cuota, en centavos.
+     * @param penalidades La penalidad acumulada de cada cuota, en centavos.
+     * @param vencimientos El vencimiento de cada cuota, como día epoch ({@link LocalDate#toEpochDay()}).
+     * @param estados El estado de cada cuota, como ordinal de {@link Cuota.EstadoCuota}.
+     * @throws IllegalArgumentException Si las longitudes de los arreglos no coinciden o algún estado no es válido.
+     */
+    public Prestamo(String idPrestamo, String dniCliente, long monto, boolean esHipotecario, LocalDate fechaInicio,
+                    long[] montosOriginales, long[] montosPagados, long[] penalidades, int[] vencimientos, byte[] estados) {
+        this.idPrestamo = idPrestamo;
+        this.dniCliente = dniCliente;
+        this.monto = monto;
+        this.numeroCuotas = estados.length;
+        this.esHipotecario = esHipotecario;
+        this.fechaInicio = fechaInicio;
+        this.plan = new PlanDeCuotas(idPrestamo, 1, montosOriginales, montosPagados, penalidades, vencimientos, estados);
+    }
+
     /**
      * Procesa todas las cuotas del préstamo para verificar si alguna ha entrado en mora
      * según la fecha actual y aplica las penalidades correspondientes.
@@ -58,8 +83,9 @@ public class Prestamo {
      * @param fechaActual La fecha contra la cual se compara el vencimiento de las cuotas.
      */
     public void verificarMoraDeCuotas(LocalDate fechaActual) {
-        for (Cuota cuota : cuotas) {
-            cuota.verificarYAplicarMora(fechaActual);
+        long diaActual = fechaActual.toEpochDay();
+        for (int i = 0; i < plan.cantidad(); i++) {
+            plan.verificarYAplicarMora(i, diaActual);
         }
     }
 
@@ -67,62 +93,103 @@ public class Prestamo {
      * Calcula la deuda total pendiente del préstamo.
      * Suma el saldo pendiente de todas las cuotas no pagadas, incluyendo penalidades.
      *
-     * @return El monto total del saldo pendiente.
+     * @return El monto total del saldo pendiente, en pesos.
      */
     public double calcularSaldoPendienteTotal() {
-        return cuotas.stream()
-                .filter(c -> c.getEstado() != Cuota.EstadoCuota.PAGADA)
-                .mapToDouble(Cuota::getSaldoPendiente)
-                .sum();
+        return Dinero.aDouble(calcularSaldoPendienteTotalCentavos());
+    }
+
+    /**
+     * Calcula la deuda total pendiente del préstamo en centavos, de forma exacta.
+     * El total se mantiene actualizado a medida que cambian las cuotas, por lo que la consulta es O(1).
+     *
+     * @return El monto total del saldo pendiente, en centavos.
+     */
+    public long calcularSaldoPendienteTotalCentavos() {
+        return plan.saldoPendienteTotal();
     }
 
     /**
      * Registra un monto de pago en una cuota específica.
      *
      * @param numeroCuota El número de la cuota a la que se aplicará el pago.
-     * @param montoPagado El monto que se desea pagar.
+     * @param montoPagado El monto que se desea pagar, en centavos.
      * @return {@code true} si el pago pudo ser aplicado, {@code false} en caso contrario.
      */
-    public boolean registrarPagoEnCuota(int numeroCuota, double montoPagado) {
-        if (numeroCuota <= 0 || numeroCuota > this.cuotas.size()) {
+    public boolean registrarPagoEnCuota(int numeroCuota, long montoPagado) {
+        if (numeroCuota <= 0 || numeroCuota > plan.cantidad()) {
             System.err.println("Error: Número de cuota " + numeroCuota + " fuera de rango para el préstamo " + idPrestamo + ".");
             return false;
         }
 
-        Cuota cuota = this.cuotas.get(numeroCuota - 1);
-        return cuota.aplicarPago(montoPagado);
+        return plan.aplicarPago(numeroCuota - 1, montoPagado);
     }
 
     /**
-     * Genera el plan de pagos completo, creando todas las instancias de Cuota
+     * Genera el plan de pagos completo, cargando todas las cuotas en el plan
      * para este préstamo. Este método es privado y se llama desde el constructor.
      */
     private void generarCuotas() {
-        double cuotaMensual = calcularCuotaMensual();
+        // La cuota se redondea al centavo una sola vez; todas las cuotas del plan tienen el mismo valor
+        long cuotaMensual = MotorAmortizacion.calcularCuotaMensualCentavos(monto, getTasaInteres(), numeroCuotas);
         LocalDate vencimientoActual = fechaInicio.plusMonths(1);
+        this.plan = new PlanDeCuotas(idPrestamo, 1, numeroCuotas);
 
         for (int i = 1; i <= numeroCuotas; i++) {
-            Cuota nuevaCuota = new Cuota(this.idPrestamo, i, cuotaMensual, vencimientoActual);
-            this.cuotas.add(nuevaCuota);
+            plan.establecer(i - 1, cuotaMensual, 0, 0, vencimientoActual, Cuota.EstadoCuota.PENDIENTE);
             vencimientoActual = vencimientoActual.plusMonths(1);
         }
     }
 
+    /** @return el plan de cuotas del préstamo, para los cálculos en bloque del paquete. */
+    PlanDeCuotas getPlan() {
+        return plan;
+    }
+
+    /**
+     * Registra un observador que será avisado cada vez que cambien los saldos de este préstamo.
+     *
+     * @param observador El observador, o {@code null} para dejar de avisar.
+     */
+    public void setObservadorCartera(ObservadorCartera observador) {
+        plan.setObservador(this, observador);
+    }
+
     /**
      * Calcula el valor de la cuota mensual utilizando la fórmula del sistema de amortización francés.
      *
-     * @return el valor de la cuota mensual calculada.
+     * @return el valor de la cuota mensual calculada, en pesos y sin redondear.
      */
     public double calcularCuotaMensual() {
-        double tasaMensual = (getTasaInteres() / 100.0);
-        int n = numeroCuotas;
+        return MotorAmortizacion.calcularCuotaMensual(monto, getTasaInteres(), numeroCuotas);
+    }
 
-        if (tasaMensual == 0) return monto / numeroCuotas;
+    /**
+     * Genera el cronograma de amortización del préstamo, con la separación de capital e interés de cada cuota.
+     *
+     * @return el cronograma de amortización.
+     */
+    public CronogramaAmortizacion calcularCronograma() {
+        return MotorAmortizacion.calcularCronograma(this);
+    }
 
-        // Fórmula del sistema francés: C = (V * i) / (1 - (1 + i)^-n)
-        // La implementacion usa una variante algebráicamente equivalente.
-        double factor = Math.pow(1 + tasaMensual, n);
-        return (monto * tasaMensual * factor) / (factor - 1);
+    /**
+     * Crea una copia independiente del préstamo con el estado actual de sus cuotas. Los cambios posteriores
+     * sobre cualquiera de los dos no afectan al otro, y la copia no avisa a ningún observador de la cartera.
+     * El llamador debe asegurar que el préstamo no se modifique durante la copia.
+     *
+     * @return la copia del préstamo.
+     */
+    public Prestamo copiar() {
+        int n = plan.cantidad();
+        long[] montosOriginales = new long[n];
+        long[] montosPagados = new long[n];
+        long[] penalidades = new long[n];
+        int[] vencimientos = new int[n];
+        byte[] estados = new byte[n];
+        plan.copiarEn(0, montosOriginales, montosPagados, penalidades, vencimientos, estados);
+        return new Prestamo(idPrestamo, dniCliente, monto, esHipotecario, fechaInicio,
+                montosOriginales, montosPagados, penalidades, vencimientos, estados);
     }
 
     // --- Getters ---
@@ -131,8 +198,10 @@ public class Prestamo {
     public String getIdPrestamo() { return idPrestamo; }
     /** @return el DNI del cliente asociado. */
     public String getDniCliente() { return dniCliente; }
-    /** @return el monto original del préstamo. */
-    public double getMonto() { return monto; }
+    /** @return el monto original del préstamo, en pesos. */
+    public double getMonto() { return Dinero.aDouble(monto); }
+    /** @return el monto original del préstamo, en centavos. */
+    public long getMontoCentavos() { return monto; }
     /** @return el número total de cuotas. */
     public int getNumeroCuotas() { return numeroCuotas; }
     /** @return {@code true} si el préstamo es hipotecario. */
@@ -141,18 +210,43 @@ public class Prestamo {
     public LocalDate getFechaInicio() { return fechaInicio; }
     /** @return la tasa de interés aplicable según el tipo de préstamo. */
     public double getTasaInteres() { return esHipotecario ? TASA_HIPOTECARIO : TASA_PERSONAL; }
-    /** @return una copia de la lista de cuotas para evitar modificaciones externas. */
-    public List<Cuota> getCuotas() { return new ArrayList<>(this.cuotas); }
+    /** @return una lista nueva con una vista de cada cuota, en orden; modificar la lista no afecta al préstamo. */
+    public List<Cuota> getCuotas() {
+        List<Cuota> cuotas = new ArrayList<>(plan.cantidad());
+        for (int i = 0; i < plan.cantidad(); i++) {
+            cuotas.add(new Cuota(plan, i));
+        }
+        return cuotas;
+    }
+    /**
+     * @param numeroCuota El número de la cuota, empezando en 1.
+     * @return una vista de la cuota indicada.
+     * @throws IndexOutOfBoundsException Si el número está fuera del plan de cuotas.
+     */
+    public Cuota getCuota(int numeroCuota) {
+        if (numeroCuota <= 0 || numeroCuota > plan.cantidad()) {
+            throw new IndexOutOfBoundsException("Cuota " + numeroCuota + " fuera de rango para el préstamo " + idPrestamo);
+        }
+        return new Cuota(plan, numeroCuota - 1);
+    }
     /** @return una lista de las cuotas que se encuentran en estado de mora. */
-    public List<Cuota> getCuotasEnMora() { return cuotas.stream().filter(c -> c.getEstado() == Cuota.EstadoCuota.MORA).collect(Collectors.toList()); }
-    /** @return la suma de todas las penalidades acumuladas en las cuotas. */
-    public double getTotalPenalidadesAcumuladas() { return cuotas.stream().mapToDouble(Cuota::getMontoPenalidadAcumulada).sum(); }
+    public List<Cuota> getCuotasEnMora() { return getCuotas().stream().filter(c -> c.getEstado() == Cuota.EstadoCuota.MORA).collect(Collectors.toList()); }
+    /** @return el saldo pendiente de las cuotas en mora (incl. penalidades), en centavos. */
+    public long getSaldoEnMoraCentavos() { return plan.saldoEnMora(); }
+    /** @return la cantidad de cuotas en estado de mora, sin recorrer el plan. */
+    public int getCantidadCuotasEnMora() { return plan.cuotasEnMora(); }
+    /** @return la cantidad de cuotas completamente pagadas, sin recorrer el plan. */
+    public int getCantidadCuotasPagadas() { return plan.cuotasPagadas(); }
+    /** @return la suma de todas las penalidades acumuladas en las cuotas, en pesos. */
+    public double getTotalPenalidadesAcumuladas() { return Dinero.aDouble(getTotalPenalidadesAcumuladasCentavos()); }
+    /** @return la suma de todas las penalidades acumuladas en las cuotas, en centavos. */
+    public long getTotalPenalidadesAcumuladasCentavos() { return plan.penalidadesTotales(); }
     /** @return el tipo de préstamo como un String ("Hipotecario" o "Personal"). */
     public String getTipoPrestamoString() { return esHipotecario ? "Hipotecario" : "Personal"; }
     /** @return el monto original del préstamo formateado como moneda. */
-    public String getMontoFormateado() { return NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(monto); }
+    public String getMontoFormateado() { return FormatoMoneda.formatear(monto); }
     /** @return el valor de la cuota mensual formateado como moneda. */
-    public String getCuotaMensualFormateada() { return NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(calcularCuotaMensual()); }
+    public String getCuotaMensualFormateada() { return FormatoMoneda.formatear(calcularCuotaMensual()); }
 
     /**
      * Devuelve una representación textual detallada del préstamo y sus cuotas.
@@ -170,23 +264,22 @@ public class Prestamo {
         sb.append("  Fecha Inicio: ").append(fechaInicio).append("\n");
         sb.append("  Cuota Mensual Teórica: ").append(getCuotaMensualFormateada()).append("\n");
 
-        double saldoPendienteTotal = calcularSaldoPendienteTotal();
-        List<Cuota> cuotasEnMora = getCuotasEnMora();
-        double totalPenalidades = getTotalPenalidadesAcumuladas();
+        long saldoPendienteTotal = calcularSaldoPendienteTotalCentavos();
+        long totalPenalidades = getTotalPenalidadesAcumuladasCentavos();
 
 
         sb.append("  --- Estado del Préstamo ---\n");
-        sb.append("  Saldo Pendiente Total (incl. penalidades): ").append(NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(saldoPendienteTotal)).append("\n");
-        sb.append("  Cuotas en Mora: ").append(cuotasEnMora.size()).append("\n");
+        FormatoMoneda.formatear(saldoPendienteTotal, sb.append("  Saldo Pendiente Total (incl. penalidades): ")).append("\n");
+        sb.append("  Cuotas en Mora: ").append(getCantidadCuotasEnMora()).append("\n");
         if (totalPenalidades > 0) {
-            sb.append("  Penalidades Acumuladas: ").append(NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(totalPenalidades)).append("\n");
+            FormatoMoneda.formatear(totalPenalidades, sb.append("  Penalidades Acumuladas: ")).append("\n");
         }
 
         sb.append("  --- Cuotas Detalle ---\n");
-        if (cuotas.isEmpty()) {
+        if (plan.cantidad() == 0) {
             sb.append("    No hay cuotas generadas aún.\n");
         } else {
-            for (Cuota c : cuotas) {
+            for (Cuota c : getCuotas()) {
                 sb.append(c.toString()).append("\n");
             }
         }
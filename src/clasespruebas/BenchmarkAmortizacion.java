@@ -0,0 +1,139 @@
+package clasespruebas;
+
+import clasesmodelo.CronogramaAmortizacion;
+import clasesmodelo.Dinero;
+import clasesmodelo.MotorAmortizacion;
+import clasesmodelo.Prestamo;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark del motor de amortización ({@link MotorAmortizacion}) sobre un millón de cronogramas.
+ * Mide, para la misma cartera sintética:
+ * <ul>
+ *   <li>la cuota con la fórmula original, que calcula {@code (1 + i)^n} con {@code Math.pow} en cada llamada;</li>
+ *   <li>la cuota con los factores guardados del motor;</li>
+ *   <li>los cronogramas completos generados de a uno;</li>
+ *   <li>los cronogramas generados en bloque con {@link MotorAmortizacion#calcularCronogramas(List)}, por lotes;
+ *       el armado de los préstamos de cada lote no se incluye en la medición.</li>
+ * </ul>
+ * Los cronogramas no se conservan (no entrarían en memoria): de cada uno se suma el interés total, que
+ * además sirve para comprobar que las variantes coinciden.
+ * <pre>
+ *   java -cp out clasespruebas.BenchmarkAmortizacion [cronogramas] [repeticiones]
+ * </pre>
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class BenchmarkAmortizacion {
+    private static final int CALENTAMIENTO = 1;
+    private static final int TAMANIO_LOTE = 50_000;
+
+    /** Tiempo de armado de los lotes de préstamos en la repetición en curso, que no se incluye en la medición. */
+    private static long nanosPreparacion;
+
+    /**
+     * Punto de entrada del benchmark.
+     * @param args Opcionalmente: cantidad de cronogramas y repeticiones medidas de cada variante.
+     */
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Random azar = new Random(42);
+        int[] plazosPosibles = {6, 12, 24, 36, 60};
+        long[] montos = new long[cantidad];
+        double[] tasas = new double[cantidad];
+        int[] plazos = new int[cantidad];
+        boolean[] hipotecarios = new boolean[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            montos[i] = 10_000_000L + azar.nextInt(500_000_000);
+            hipotecarios[i] = azar.nextBoolean();
+            tasas[i] = hipotecarios[i] ? Prestamo.TASA_HIPOTECARIO : Prestamo.TASA_PERSONAL;
+            plazos[i] = plazosPosibles[azar.nextInt(plazosPosibles.length)];
+        }
+        LocalDate inicio = LocalDate.of(2024, 1, 15);
+
+        System.out.println("Motor de amortización sobre " + cantidad + " préstamos, "
+                + Runtime.getRuntime().availableProcessors() + " procesadores disponibles.");
+        System.out.printf("%-28s %14s %14s %12s %20s%n", "Variante", "Mediana (ms)", "Mínimo (ms)", "ns/préstamo", "Control");
+
+        medir("Cuota (Math.pow)", cantidad, repeticiones, () -> {
+            long suma = 0;
+            for (int i = 0; i < cantidad; i++) {
+                suma += cuotaSinCache(montos[i], tasas[i], plazos[i]);
+            }
+            return suma;
+        });
+        medir("Cuota (factores guardados)", cantidad, repeticiones, () -> {
+            long suma = 0;
+            for (int i = 0; i < cantidad; i++) {
+                suma += MotorAmortizacion.calcularCuotaMensualCentavos(montos[i], tasas[i], plazos[i]);
+            }
+            return suma;
+        });
+        medir("Cronogramas de a uno", cantidad, repeticiones, () -> {
+            long suma = 0;
+            for (int i = 0; i < cantidad; i++) {
+                suma += MotorAmortizacion.calcularCronograma(montos[i], tasas[i], plazos[i], inicio).getInteresTotalCentavos();
+            }
+            return suma;
+        });
+        medir("Cronogramas en bloque", cantidad, repeticiones, () -> {
+            long suma = 0;
+            for (int desde = 0; desde < cantidad; desde += TAMANIO_LOTE) {
+                int hasta = Math.min(cantidad, desde + TAMANIO_LOTE);
+                long inicioPreparacion = System.nanoTime();
+                List<Prestamo> lote = new ArrayList<>(hasta - desde);
+                for (int i = desde; i < hasta; i++) {
+                    lote.add(new Prestamo(String.valueOf(i), "30111222", montos[i], plazos[i], hipotecarios[i], inicio));
+                }
+                nanosPreparacion += System.nanoTime() - inicioPreparacion;
+                for (CronogramaAmortizacion cronograma : MotorAmortizacion.calcularCronogramas(lote)) {
+                    suma += cronograma.getInteresTotalCentavos();
+                }
+            }
+            return suma;
+        });
+    }
+
+    /**
+     * Helper privado que ejecuta una variante con calentamiento e imprime su fila. La columna de control
+     * es la suma que devuelve la variante: debe coincidir entre las dos cuotas y entre los dos cronogramas.
+     */
+    private static void medir(String nombre, int cantidad, int repeticiones, Variante variante) {
+        double[] tiempos = new double[repeticiones];
+        long control = 0;
+        for (int r = -CALENTAMIENTO; r < repeticiones; r++) {
+            nanosPreparacion = 0;
+            long inicio = System.nanoTime();
+            control = variante.ejecutar();
+            double ms = (System.nanoTime() - inicio - nanosPreparacion) / 1e6;
+            if (r >= 0) {
+                tiempos[r] = ms;
+            }
+        }
+        Arrays.sort(tiempos);
+        double mediana = tiempos[tiempos.length / 2];
+        System.out.printf("%-28s %14.1f %14.1f %12.1f %20d%n", nombre, mediana, tiempos[0], mediana * 1e6 / cantidad, control);
+    }
+
+    /**
+     * Helper privado con la fórmula de la cuota tal como estaba antes del motor, como referencia.
+     */
+    private static long cuotaSinCache(long montoCentavos, double tasaPorcentual, int plazo) {
+        double tasaMensual = tasaPorcentual / 100.0;
+        double monto = Dinero.aDouble(montoCentavos);
+        if (tasaMensual == 0) return Dinero.deDouble(monto / plazo);
+        double factor = Math.pow(1 + tasaMensual, plazo);
+        return Dinero.deDouble((monto * tasaMensual * factor) / (factor - 1));
+    }
+
+    private interface Variante {
+        long ejecutar();
+    }
+}
@@ -0,0 +1,115 @@
+package clasespruebas;
+
+import clasesgestor.GestorPago;
+import clasesgestor.GestorPrestamo;
+import clasesgestor.ResumenMora;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark de escalabilidad del barrido de mora en paralelo
+ * ({@link GestorPrestamo#verificarYAplicarMoraATodosLosPrestamos(LocalDate)}).
+ * Genera una cartera sintética con préstamos otorgados en los últimos tres años y mide el barrido
+ * sobre ForkJoinPools con distinta cantidad de hilos: las tareas del barrido se ejecutan en el pool
+ * desde el que se invoca. Como el barrido modifica la cartera, cada repetición parte de una carga nueva,
+ * que no se incluye en la medición. Informa la mediana de cada paralelismo y la aceleración respecto de un hilo.
+ * <p>
+ * Solo lee de {@code data/}; la cartera sintética se escribe en un archivo temporal.
+ * <pre>
+ *   java -cp out clasespruebas.BenchmarkBarridoMora [prestamos] [repeticiones] [hilos,hilos,...]
+ * </pre>
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class BenchmarkBarridoMora {
+    private static final int CALENTAMIENTO = 2;
+
+    /**
+     * Punto de entrada del benchmark.
+     * @param args Opcionalmente: cantidad de préstamos, repeticiones medidas por paralelismo y lista de paralelismos.
+     * @throws Exception Si no se puede escribir la cartera sintética o falla el barrido.
+     */
+    public static void main(String[] args) throws Exception {
+        int cantidadPrestamos = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int[] paralelismos = args.length > 2 ? parsearLista(args[2]) : potenciasDeDosHasta(Runtime.getRuntime().availableProcessors());
+
+        LocalDate hoy = LocalDate.now();
+        Path cartera = Files.createTempFile("cartera-mora", ".csv");
+        cartera.toFile().deleteOnExit();
+        escribirCartera(cartera, cantidadPrestamos, hoy);
+
+        System.out.println("Barrido de mora sobre " + cantidadPrestamos + " préstamos, "
+                + Runtime.getRuntime().availableProcessors() + " procesadores disponibles.");
+        System.out.printf("%8s %14s %14s %12s %10s%n", "Hilos", "Mediana (ms)", "Mínimo (ms)", "Cuotas", "Acelerac.");
+        double medianaUnHilo = 0;
+        for (int paralelismo : paralelismos) {
+            ForkJoinPool pool = new ForkJoinPool(paralelismo);
+            double[] tiempos = new double[repeticiones];
+            int cuotas = 0;
+            for (int r = -CALENTAMIENTO; r < repeticiones; r++) {
+                GestorPrestamo gestor = new GestorPrestamo(new GestorPago(false), false);
+                gestor.setMensajesEnConsola(false);
+                gestor.cargarDesdeArchivoCSV(cartera.toString());
+
+                long inicio = System.nanoTime();
+                ResumenMora resumen = pool.submit(() -> gestor.verificarYAplicarMoraATodosLosPrestamos(hoy)).get();
+                double ms = (System.nanoTime() - inicio) / 1e6;
+                if (r >= 0) {
+                    tiempos[r] = ms;
+                }
+                cuotas = resumen.getCantidadCuotas();
+            }
+            pool.shutdown();
+
+            Arrays.sort(tiempos);
+            double mediana = tiempos[tiempos.length / 2];
+            if (medianaUnHilo == 0) {
+                medianaUnHilo = mediana;
+            }
+            System.out.printf("%8d %14.1f %14.1f %12d %9.2fx%n", paralelismo, mediana, tiempos[0], cuotas, medianaUnHilo / mediana);
+        }
+    }
+
+    /**
+     * Helper privado que escribe la cartera sintética en el formato de prestamos.csv.
+     * Se usa una semilla fija para que todas las ejecuciones midan la misma cartera.
+     */
+    private static void escribirCartera(Path destino, int cantidadPrestamos, LocalDate hoy) throws IOException {
+        Random azar = new Random(42);
+        int[] plazos = {6, 12, 24, 36, 60};
+        try (BufferedWriter bw = Files.newBufferedWriter(destino, Charset.defaultCharset())) {
+            bw.write("ID_Prestamo;ID_Cliente;Monto;Cuotas;Tipo;Fecha_Inicio");
+            bw.newLine();
+            for (int i = 1; i <= cantidadPrestamos; i++) {
+                bw.write(String.format("%07d;%08d;%d.00;%d;%s;%s", i, 30_000_000 + azar.nextInt(1_000_000),
+                        100_000 + azar.nextInt(5_000_000), plazos[azar.nextInt(plazos.length)],
+                        azar.nextBoolean() ? "hipotecario" : "personal", hoy.minusDays(azar.nextInt(3 * 365))));
+                bw.newLine();
+            }
+        }
+    }
+
+    private static int[] potenciasDeDosHasta(int maximo) {
+        List<Integer> valores = new ArrayList<>();
+        for (int p = 1; p < maximo; p *= 2) {
+            valores.add(p);
+        }
+        valores.add(maximo);
+        return valores.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] parsearLista(String lista) {
+        return Arrays.stream(lista.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+    }
+}
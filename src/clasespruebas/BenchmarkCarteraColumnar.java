@@ -0,0 +1,158 @@
+package clasespruebas;
+
+import clasesmodelo.CarteraColumnar;
+import clasesmodelo.Cuota;
+import clasesmodelo.Dinero;
+import clasesmodelo.Prestamo;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark de los cálculos de cartera en bloque ({@link CarteraColumnar}). Para cada cálculo compara el
+ * modelo de objetos ({@link Prestamo} y {@link Cuota}), los bucles escalares y los bucles con la Vector API,
+ * y verifica que los tres den el mismo resultado.
+ * <p>
+ * Los bucles vectoriales solo se usan si se compiló {@code src-vector/} y el módulo incubado está presente;
+ * si no, la columna vectorial repite los bucles escalares y la salida lo indica:
+ * <pre>
+ *   javac --add-modules jdk.incubator.vector -cp out -d out src-vector/clasesmodelo/*.java
+ *   java --add-modules jdk.incubator.vector -cp out clasespruebas.BenchmarkCarteraColumnar [prestamos] [repeticiones]
+ * </pre>
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class BenchmarkCarteraColumnar {
+    private static final int CALENTAMIENTO = 5;
+
+    /**
+     * Punto de entrada del benchmark.
+     * @param args Opcionalmente: cantidad de préstamos y repeticiones medidas de cada cálculo.
+     */
+    public static void main(String[] args) {
+        int cantidadPrestamos = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        LocalDate hoy = LocalDate.now();
+        List<Prestamo> prestamos = carteraSintetica(cantidadPrestamos, hoy);
+        CarteraColumnar vectorial = CarteraColumnar.capturar(prestamos);
+        CarteraColumnar escalar = vectorial.sinVectorizar();
+        LocalDate proyeccion = hoy.plusDays(30);
+        LocalDate finCobranza = hoy.plusDays(90);
+
+        System.out.println("Cartera de " + cantidadPrestamos + " préstamos y " + vectorial.getCantidadCuotas()
+                + " cuotas. Vector API: " + (vectorial.estaVectorizada() ? "sí" : "no (falta compilar src-vector/ o --add-modules jdk.incubator.vector)"));
+        System.out.printf("%-22s %12s %12s %12s %10s %10s%n", "Cálculo", "Objetos (ms)", "Escalar (ms)", "Vector (ms)", "Acelerac.", "Coinciden");
+        int fallas = 0;
+        fallas += comparar("Saldo pendiente", repeticiones,
+                () -> prestamos.stream().mapToLong(Prestamo::calcularSaldoPendienteTotalCentavos).sum(),
+                escalar::calcularSaldoPendienteTotal, vectorial::calcularSaldoPendienteTotal);
+        fallas += comparar("Saldo por préstamo", repeticiones,
+                () -> Arrays.hashCode(prestamos.stream().mapToLong(Prestamo::calcularSaldoPendienteTotalCentavos).toArray()),
+                () -> Arrays.hashCode(escalar.calcularSaldoPendientePorPrestamo()),
+                () -> Arrays.hashCode(vectorial.calcularSaldoPendientePorPrestamo()));
+        fallas += comparar("Penalidades", repeticiones,
+                () -> prestamos.stream().mapToLong(Prestamo::getTotalPenalidadesAcumuladasCentavos).sum(),
+                escalar::calcularPenalidadesTotales, vectorial::calcularPenalidadesTotales);
+        fallas += comparar("Penalidades a 30 días", repeticiones,
+                () -> penalidadesProyectadasConObjetos(prestamos, proyeccion),
+                () -> escalar.proyectarPenalidades(proyeccion), () -> vectorial.proyectarPenalidades(proyeccion));
+        fallas += comparar("Cobranza a 90 días", repeticiones,
+                () -> cobranzaConObjetos(prestamos, hoy, finCobranza),
+                () -> escalar.proyectarCobranza(hoy, finCobranza), () -> vectorial.proyectarCobranza(hoy, finCobranza));
+        if (fallas > 0) {
+            System.err.println("Error: " + fallas + " cálculos no coinciden con el modelo de objetos.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Helper privado que arma la cartera sintética: préstamos otorgados en los últimos tres años, con parte
+     * de las cuotas pagadas y el barrido de mora aplicado hasta hoy. Se usa una semilla fija para que todas
+     * las ejecuciones midan la misma cartera.
+     */
+    private static List<Prestamo> carteraSintetica(int cantidad, LocalDate hoy) {
+        Random azar = new Random(42);
+        int[] plazos = {6, 12, 24, 36, 60};
+        List<Prestamo> prestamos = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            int plazo = plazos[azar.nextInt(plazos.length)];
+            Prestamo p = new Prestamo(String.format("%07d", i), "30111222", 10_000_000L + azar.nextInt(500_000_000),
+                    plazo, azar.nextBoolean(), hoy.minusDays(azar.nextInt(3 * 365)));
+            for (int c = 1, pagadas = azar.nextInt(plazo + 1); c <= pagadas; c++) {
+                p.registrarPagoEnCuota(c, p.getCuota(c).getSaldoPendienteCentavos());
+            }
+            p.verificarMoraDeCuotas(hoy);
+            prestamos.add(p);
+        }
+        return prestamos;
+    }
+
+    private static long penalidadesProyectadasConObjetos(List<Prestamo> prestamos, LocalDate fecha) {
+        long total = 0;
+        for (Prestamo p : prestamos) {
+            for (Cuota c : p.getCuotas()) {
+                if (c.getEstado() != Cuota.EstadoCuota.PAGADA && c.getEstado() != Cuota.EstadoCuota.MORA
+                        && fecha.isAfter(c.getFechaVencimiento())) {
+                    total += Dinero.porcentaje(c.getMontoOriginalCentavos(), Cuota.PENALIDAD_MORA_PUNTOS_BASICOS);
+                }
+            }
+        }
+        return total;
+    }
+
+    private static long cobranzaConObjetos(List<Prestamo> prestamos, LocalDate desde, LocalDate hasta) {
+        long total = 0;
+        for (Prestamo p : prestamos) {
+            for (Cuota c : p.getCuotas()) {
+                if (c.getEstado() != Cuota.EstadoCuota.PAGADA && !c.getFechaVencimiento().isBefore(desde)
+                        && !c.getFechaVencimiento().isAfter(hasta)) {
+                    total += c.getSaldoPendienteCentavos();
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Helper privado que mide las tres variantes de un cálculo, imprime su fila y devuelve 1 si no coinciden.
+     */
+    private static int comparar(String nombre, int repeticiones, Calculo objetos, Calculo escalar, Calculo vectorial) {
+        long esperado = objetos.calcular();
+        double msObjetos = medir(objetos, Math.max(1, repeticiones / 10));
+        double msEscalar = medir(escalar, repeticiones);
+        double msVectorial = medir(vectorial, repeticiones);
+        boolean coinciden = escalar.calcular() == esperado && vectorial.calcular() == esperado;
+        System.out.printf("%-22s %12.2f %12.2f %12.2f %9.2fx %10s%n", nombre, msObjetos, msEscalar, msVectorial,
+                msEscalar / msVectorial, coinciden ? "sí" : "NO");
+        return coinciden ? 0 : 1;
+    }
+
+    /**
+     * Helper privado que devuelve la mediana en milisegundos, después del calentamiento.
+     */
+    private static double medir(Calculo calculo, int repeticiones) {
+        double[] tiempos = new double[repeticiones];
+        long control = 0;
+        for (int r = -CALENTAMIENTO; r < repeticiones; r++) {
+            long inicio = System.nanoTime();
+            control += calculo.calcular();
+            double ms = (System.nanoTime() - inicio) / 1e6;
+            if (r >= 0) {
+                tiempos[r] = ms;
+            }
+        }
+        if (control == 42) {
+            System.out.print(""); // Evita que el JIT descarte los cálculos
+        }
+        Arrays.sort(tiempos);
+        return tiempos[tiempos.length / 2];
+    }
+
+    private interface Calculo {
+        long calcular();
+    }
+}
@@ -0,0 +1,257 @@
+package clasespruebas;
+
+import clasesgestor.GestorReportes;
+import clasesmodelo.Cliente;
+import clasesmodelo.Cuota;
+import clasesmodelo.Prestamo;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Benchmark del motor de reportes PDF: compara el tiempo de generación y el tamaño del archivo de
+ * {@link GestorReportes} con el renderizado original (una fuente nueva por cada texto, cabeceras de tabla
+ * redibujadas en cada tabla y celdas trazadas de a una, sin compresión explícita), que se conserva aquí
+ * solo como referencia. Ambos renderizan el mismo cliente sintético con cientos de préstamos.
+ * <p>
+ * Los PDF se escriben en un directorio temporal.
+ * <pre>
+ *   java -cp out:lib/* clasespruebas.BenchmarkReportes [prestamos] [repeticiones]
+ * </pre>
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class BenchmarkReportes {
+    private static final int CALENTAMIENTO = 2;
+
+    /**
+     * Punto de entrada del benchmark.
+     * @param args Opcionalmente: cantidad de préstamos del cliente y repeticiones medidas de cada renderizado.
+     * @throws IOException Si no se puede escribir algún PDF.
+     */
+    public static void main(String[] args) throws IOException {
+        int cantidadPrestamos = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int repeticiones = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Cliente cliente = new Cliente("30111222", "Cliente", "Sintético", "Av. Siempre Viva 742", "1144445555", "cliente@prueba.com");
+        List<Prestamo> prestamos = carteraSintetica(cliente.getdni(), cantidadPrestamos);
+        int cuotas = prestamos.stream().mapToInt(Prestamo::getNumeroCuotas).sum();
+        File directorio = Files.createTempDirectory("benchmark-reportes").toFile();
+        File actual = new File(directorio, "actual.pdf");
+        File original = new File(directorio, "original.pdf");
+        GestorReportes gestorReportes = new GestorReportes();
+
+        System.out.println("Reporte de un cliente con " + cantidadPrestamos + " préstamos y " + cuotas + " cuotas.");
+        double[] tiemposOriginal = new double[repeticiones];
+        double[] tiemposActual = new double[repeticiones];
+        for (int r = -CALENTAMIENTO; r < repeticiones; r++) {
+            long inicio = System.nanoTime();
+            new ReporteOriginal().escribir(cliente, prestamos, original);
+            double msOriginal = (System.nanoTime() - inicio) / 1e6;
+
+            inicio = System.nanoTime();
+            gestorReportes.escribirReporteCliente(cliente, prestamos, actual);
+            double msActual = (System.nanoTime() - inicio) / 1e6;
+            if (r >= 0) {
+                tiemposOriginal[r] = msOriginal;
+                tiemposActual[r] = msActual;
+            }
+        }
+
+        System.out.printf("%-12s %14s %14s %16s%n", "Motor", "Mediana (ms)", "Mínimo (ms)", "Tamaño (bytes)");
+        imprimirFila("Original", tiemposOriginal, original.length());
+        imprimirFila("Actual", tiemposActual, actual.length());
+        System.out.printf("Tiempo: %.2fx   Tamaño: %.1f%% del original%n",
+                mediana(tiemposOriginal) / mediana(tiemposActual), 100.0 * actual.length() / original.length());
+        System.out.println("PDF generados en " + directorio);
+    }
+
+    /**
+     * Helper privado que arma los préstamos del cliente sintético, con plazos variados (hasta 360 cuotas)
+     * y fechas de inicio en los últimos años, de modo que parte de las cuotas esté en mora.
+     * Se usa una semilla fija para que todas las ejecuciones rendericen el mismo contenido.
+     */
+    private static List<Prestamo> carteraSintetica(String dni, int cantidad) {
+        Random azar = new Random(42);
+        int[] plazos = {12, 24, 36, 60, 120, 240, 360};
+        LocalDate hoy = LocalDate.now();
+        List<Prestamo> prestamos = new ArrayList<>();
+        for (int i = 1; i <= cantidad; i++) {
+            Prestamo p = new Prestamo(String.format("%04d", i), dni, 10_000_000L + azar.nextInt(500_000_000),
+                    plazos[azar.nextInt(plazos.length)], azar.nextBoolean(), hoy.minusDays(azar.nextInt(4 * 365)));
+            p.verificarMoraDeCuotas(hoy);
+            prestamos.add(p);
+        }
+        return prestamos;
+    }
+
+    private static void imprimirFila(String motor, double[] tiempos, long tamanio) {
+        double[] ordenados = tiempos.clone();
+        Arrays.sort(ordenados);
+        System.out.printf("%-12s %14.1f %14.1f %16d%n", motor, mediana(tiempos), ordenados[0], tamanio);
+    }
+
+    private static double mediana(double[] tiempos) {
+        double[] ordenados = tiempos.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+
+    /**
+     * Renderizado del reporte de cliente tal como lo hacía GestorReportes antes de compartir fuentes y
+     * cabeceras: referencia fija para el benchmark, no debe usarse para generar reportes.
+     */
+    private static final class ReporteOriginal {
+        private static final float MARGIN_X = 50;
+        private static final float START_Y = 750;
+        private static final float BOTTOM_MARGIN = 50;
+        private static final float TABLE_ROW_HEIGHT = 20f;
+        private static final float CELL_MARGIN = 5f;
+
+        private PDDocument document;
+        private PDPageContentStream contentStream;
+        private float yPosition;
+
+        void escribir(Cliente cliente, List<Prestamo> prestamos, File destino) throws IOException {
+            try (PDDocument doc = new PDDocument()) {
+                this.document = doc;
+                startNewPage();
+
+                writeLine(cliente.getNombre() + " " + cliente.getApellido(), 22, true);
+                yPosition -= 15;
+                writeLine("Reporte Financiero - Generado el " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), 14, false);
+                yPosition -= 25;
+
+                writeSectionTitle("Datos Personales");
+                writeLine("DNI: " + cliente.getdni(), 12, false);
+                writeLine("Dirección: " + cliente.getDireccion(), 12, false);
+                writeLine("Teléfono: " + cliente.getTelefono(), 12, false);
+                writeLine("Correo Electrónico: " + cliente.getCorreoElectronico(), 12, false);
+                yPosition -= 25;
+
+                writeSectionTitle("Resumen de Préstamos y Detalle de Cuotas");
+                for (Prestamo p : prestamos) {
+                    checkPageBreak();
+
+                    String[] prestamoHeaders = {"ID Préstamo", "Tipo", "Monto Original", "Fecha Inicio", "Saldo Pendiente"};
+                    List<String[]> prestamoData = new ArrayList<>();
+                    prestamoData.add(new String[]{
+                            p.getIdPrestamo(), p.getTipoPrestamoString(), p.getMontoFormateado(),
+                            p.getFechaInicio().toString(),
+                            NumberFormat.getCurrencyInstance(new Locale("es", "AR")).format(p.calcularSaldoPendienteTotal())
+                    });
+                    drawTable(prestamoHeaders, prestamoData, new float[]{0.15f, 0.15f, 0.25f, 0.2f, 0.25f});
+                    yPosition -= 10;
+
+                    String[] cuotasHeaders = {"#", "Vencimiento", "Estado", "Saldo Pendiente", "Penalidad"};
+                    List<String[]> cuotasData = new ArrayList<>();
+                    for (Cuota c : p.getCuotas()) {
+                        String penalidad = c.getMontoPenalidadAcumulada() > 0 ? c.getMontoPenalidadAcumuladaFormateado() : "-";
+                        cuotasData.add(new String[]{
+                                String.valueOf(c.getNumeroCuota()),
+                                c.getFechaVencimiento().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                                c.getEstado().toString(), c.getSaldoPendienteFormateado(), penalidad
+                        });
+                    }
+                    drawTable(cuotasHeaders, cuotasData, new float[]{0.05f, 0.25f, 0.25f, 0.25f, 0.20f});
+                    yPosition -= 25;
+                }
+
+                contentStream.close();
+                document.save(destino);
+            }
+        }
+
+        private void writeLine(String text, int fontSize, boolean isBold) throws IOException {
+            contentStream.beginText();
+            contentStream.setFont(isBold ? new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD) : new PDType1Font(Standard14Fonts.FontName.HELVETICA), fontSize);
+            contentStream.newLineAtOffset(MARGIN_X, yPosition);
+            contentStream.showText(text);
+            contentStream.endText();
+            yPosition -= (fontSize * 1.5f);
+        }
+
+        private void writeCellText(String text, int fontSize, boolean isBold, float xPosition) throws IOException {
+            float y = yPosition + (TABLE_ROW_HEIGHT - fontSize) / 2;
+            contentStream.beginText();
+            contentStream.setFont(isBold ? new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD) : new PDType1Font(Standard14Fonts.FontName.HELVETICA), fontSize);
+            contentStream.newLineAtOffset(xPosition, y);
+            contentStream.showText(text != null ? text : "");
+            contentStream.endText();
+        }
+
+        private void drawTable(String[] headers, List<String[]> data, float[] colWidthsPorcentajes) throws IOException {
+            float tableWidth = PDRectangle.A4.getWidth() - (MARGIN_X * 2);
+            float[] colWidths = new float[colWidthsPorcentajes.length];
+            for (int i = 0; i < colWidthsPorcentajes.length; i++) {
+                colWidths[i] = tableWidth * colWidthsPorcentajes[i];
+            }
+            drawRow(headers, colWidths, true);
+            for (String[] rowData : data) {
+                drawRow(rowData, colWidths, false);
+            }
+        }
+
+        private void drawRow(String[] rowData, float[] colWidths, boolean isHeader) throws IOException {
+            checkPageBreak();
+            float x = MARGIN_X;
+            if (isHeader) {
+                contentStream.setNonStrokingColor(Color.LIGHT_GRAY);
+                contentStream.addRect(x, yPosition, PDRectangle.A4.getWidth() - (MARGIN_X * 2), TABLE_ROW_HEIGHT);
+                contentStream.fill();
+                contentStream.setNonStrokingColor(Color.BLACK);
+            }
+            for (int i = 0; i < rowData.length; i++) {
+                contentStream.addRect(x, yPosition, colWidths[i], TABLE_ROW_HEIGHT);
+                writeCellText(rowData[i], 10, isHeader, x + CELL_MARGIN);
+                x += colWidths[i];
+            }
+            contentStream.stroke();
+            yPosition -= TABLE_ROW_HEIGHT;
+        }
+
+        private void writeSectionTitle(String title) throws IOException {
+            checkPageBreak();
+            writeLine(title, 16, true);
+            yPosition -= 5;
+            contentStream.setStrokingColor(0, 0, 0);
+            contentStream.setLineWidth(1);
+            contentStream.moveTo(MARGIN_X, yPosition);
+            contentStream.lineTo(MARGIN_X + 500, yPosition);
+            contentStream.stroke();
+            yPosition -= 15;
+        }
+
+        private void checkPageBreak() throws IOException {
+            if (yPosition <= BOTTOM_MARGIN) {
+                contentStream.close();
+                startNewPage();
+            }
+        }
+
+        private void startNewPage() throws IOException {
+            PDPage newPage = new PDPage(PDRectangle.A4);
+            document.addPage(newPage);
+            contentStream = new PDPageContentStream(document, newPage);
+            yPosition = START_Y;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package clasespruebas;
+
+import clasesgestor.GestorCheckpoint;
+import clasesgestor.GestorCliente;
+import clasesgestor.GestorPago;
+import clasesgestor.GestorPrestamo;
+import clasesgestor.ServidorHttp;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Prueba de carga local del modo servidor ({@link ServidorHttp}).
+ * Levanta el servidor en un puerto libre sobre una cartera sintética y simula terminales de sucursal
+ * que, durante un tiempo fijo, envían solicitudes sin pausa: pagos, detalle de préstamos, listados
+ * de la cartera y consultas de clientes. Al terminar informa el rendimiento (solicitudes por segundo),
+ * la latencia p50, p99 y máxima por tipo de solicitud y la cantidad de respuestas por código HTTP.
+ * <p>
+ * Escribe en {@code data/} del directorio de trabajo, por lo que debe ejecutarse desde un directorio vacío:
+ * <pre>
+ *   java -cp out clasespruebas.PruebaCargaServidor [terminales] [segundos] [prestamos]
+ * </pre>
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class PruebaCargaServidor {
+    private static final String DNI_PRUEBA = "30111222";
+    private static final String[] TIPOS = {"POST /pagos", "GET /prestamos/{id}", "GET /prestamos", "GET /clientes/{dni}"};
+    /** Porcentaje acumulado de cada tipo de solicitud: 50% pagos, 30% detalle, 10% listado, 10% cliente. */
+    private static final int[] MEZCLA = {50, 80, 90, 100};
+
+    /**
+     * Punto de entrada de la prueba.
+     * @param args Opcionalmente: cantidad de terminales, duración en segundos y cantidad de préstamos.
+     * @throws Exception Si el servidor no puede iniciarse o se interrumpe la espera de las terminales.
+     */
+    public static void main(String[] args) throws Exception {
+        int terminales = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int cantidadPrestamos = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        if (new File("data").exists()) {
+            System.err.println("Error: Ya existe el directorio data/. Ejecute la prueba desde un directorio vacío.");
+            System.exit(2);
+        }
+
+        // La preparación informa cada alta por consola; se descarta esa salida
+        PrintStream salida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        GestorPago gestorPago = new GestorPago();
+        GestorPrestamo gestorPrestamo = new GestorPrestamo(gestorPago);
+        GestorCliente gestorCliente = new GestorCliente(gestorPrestamo);
+        GestorCheckpoint gestorCheckpoint = new GestorCheckpoint(gestorPrestamo, gestorPago);
+        gestorCliente.crearCliente(DNI_PRUEBA, "Prueba", "Carga", "Sucursal 1", "1144445555", "carga@prueba.com");
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < cantidadPrestamos; i++) {
+            ids.add(gestorPrestamo.otorgarPrestamo(DNI_PRUEBA, 100_000_000L, 36, i % 2 == 0, LocalDate.now()).getIdPrestamo());
+        }
+        gestorPrestamo.setMensajesEnConsola(false);
+        ServidorHttp servidor = new ServidorHttp(gestorCliente, gestorPrestamo, gestorCheckpoint, 0);
+        servidor.iniciar();
+        System.setOut(salida);
+
+        String base = "http://127.0.0.1:" + servidor.getPuerto();
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.println("Carga: " + terminales + " terminales durante " + segundos + " s sobre "
+                + cantidadPrestamos + " préstamos...");
+        Registro[] registros = new Registro[terminales];
+        AtomicLongArray codigos = new AtomicLongArray(600);
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+        List<Thread> hilos = new ArrayList<>();
+        for (int t = 0; t < terminales; t++) {
+            Registro registro = new Registro();
+            registros[t] = registro;
+            hilos.add(new Thread(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                while (System.nanoTime() < fin) {
+                    int sorteo = azar.nextInt(100);
+                    int tipo = 0;
+                    while (sorteo >= MEZCLA[tipo]) {
+                        tipo++;
+                    }
+                    HttpRequest solicitud = armarSolicitud(base, tipo, ids.get(azar.nextInt(ids.size())), azar);
+                    long inicio = System.nanoTime();
+                    int codigo;
+                    try {
+                        codigo = cliente.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        codigo = 599; // Error de conexión
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    registro.agregar(tipo, System.nanoTime() - inicio);
+                    codigos.incrementAndGet(codigo);
+                }
+            }, "terminal-" + t));
+        }
+        long inicioCarga = System.nanoTime();
+        hilos.forEach(Thread::start);
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        double duracion = (System.nanoTime() - inicioCarga) / 1e9;
+        servidor.detener(1);
+
+        long total = 0;
+        System.out.printf("%-22s %10s %10s %10s %10s%n", "Solicitud", "Cantidad", "p50 (ms)", "p99 (ms)", "Máx (ms)");
+        List<long[]> todas = new ArrayList<>();
+        for (int tipo = 0; tipo < TIPOS.length; tipo++) {
+            long[] latencias = Registro.combinar(registros, tipo);
+            todas.add(latencias);
+            total += latencias.length;
+            imprimirFila(TIPOS[tipo], latencias);
+        }
+        long[] combinadas = new long[(int) total];
+        int posicion = 0;
+        for (long[] latencias : todas) {
+            System.arraycopy(latencias, 0, combinadas, posicion, latencias.length);
+            posicion += latencias.length;
+        }
+        Arrays.sort(combinadas);
+        imprimirFila("Total", combinadas);
+        System.out.printf("Rendimiento: %.0f solicitudes/s (%d en %.1f s)%n", total / duracion, total, duracion);
+        StringBuilder resumenCodigos = new StringBuilder("Códigos HTTP:");
+        for (int c = 0; c < codigos.length(); c++) {
+            if (codigos.get(c) > 0) {
+                resumenCodigos.append(' ').append(c).append('=').append(codigos.get(c));
+            }
+        }
+        System.out.println(resumenCodigos);
+    }
+
+    /**
+     * Helper privado que arma una solicitud del tipo indicado sobre el préstamo elegido.
+     */
+    private static HttpRequest armarSolicitud(String base, int tipo, String idPrestamo, ThreadLocalRandom azar) {
+        switch (tipo) {
+            case 0:
+                String cuerpo = "{\"idPrestamo\":\"" + idPrestamo + "\",\"cuota\":" + (1 + azar.nextInt(36)) + ",\"monto\":1.00}";
+                return HttpRequest.newBuilder(URI.create(base + "/pagos"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                        .build();
+            case 1:
+                return HttpRequest.newBuilder(URI.create(base + "/prestamos/" + idPrestamo)).GET().build();
+            case 2:
+                return HttpRequest.newBuilder(URI.create(base + "/prestamos?desde=" + azar.nextInt(1000) + "&limite=50")).GET().build();
+            default:
+                return HttpRequest.newBuilder(URI.create(base + "/clientes/" + DNI_PRUEBA)).GET().build();
+        }
+    }
+
+    /**
+     * Helper privado que imprime la cantidad y los percentiles de latencia de un grupo de solicitudes ya ordenado.
+     */
+    private static void imprimirFila(String nombre, long[] latenciasOrdenadas) {
+        if (latenciasOrdenadas.length == 0) {
+            System.out.printf("%-22s %10d %10s %10s %10s%n", nombre, 0, "-", "-", "-");
+            return;
+        }
+        System.out.printf("%-22s %10d %10.2f %10.2f %10.2f%n", nombre, latenciasOrdenadas.length,
+                percentil(latenciasOrdenadas, 50) / 1e6, percentil(latenciasOrdenadas, 99) / 1e6,
+                latenciasOrdenadas[latenciasOrdenadas.length - 1] / 1e6);
+    }
+
+    private static long percentil(long[] ordenadas, int percentil) {
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)];
+    }
+
+    /**
+     * Latencias registradas por una terminal, separadas por tipo de solicitud.
+     * Cada terminal escribe solo en su registro, por lo que no hace falta sincronizarlo.
+     */
+    private static final class Registro {
+        private final long[][] latencias = new long[TIPOS.length][1024];
+        private final int[] cantidades = new int[TIPOS.length];
+
+        void agregar(int tipo, long nanos) {
+            if (cantidades[tipo] == latencias[tipo].length) {
+                latencias[tipo] = Arrays.copyOf(latencias[tipo], latencias[tipo].length * 2);
+            }
+            latencias[tipo][cantidades[tipo]++] = nanos;
+        }
+
+        static long[] combinar(Registro[] registros, int tipo) {
+            int total = 0;
+            for (Registro r : registros) {
+                total += r.cantidades[tipo];
+            }
+            long[] combinadas = new long[total];
+            int posicion = 0;
+            for (Registro r : registros) {
+                System.arraycopy(r.latencias[tipo], 0, combinadas, posicion, r.cantidades[tipo]);
+                posicion += r.cantidades[tipo];
+            }
+            Arrays.sort(combinadas);
+            return combinadas;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package clasespruebas;
+
+import clasesgestor.GestorCheckpoint;
+import clasesgestor.GestorPago;
+import clasesgestor.GestorPrestamo;
+import clasesgestor.ResumenMora;
+import clasesmodelo.Cuota;
+import clasesmodelo.Dinero;
+import clasesmodelo.Prestamo;
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Prueba de estrés del registro concurrente de pagos.
+ * Varios hilos registran pagos sobre los mismos préstamos mientras otros hilos ejecutan el barrido de mora,
+ * realizan checkpoints y dan de alta y de baja préstamos. Al terminar se verifica que cada pago aceptado
+ * esté aplicado exactamente una vez y que ninguna cuota haya recibido la penalidad por mora dos veces;
+ * luego se vuelve a cargar todo desde disco, como en un reinicio, y se repiten las verificaciones.
+ * <p>
+ * Escribe en {@code data/} del directorio de trabajo, por lo que debe ejecutarse desde un directorio vacío:
+ * <pre>
+ *   java -cp out clasespruebas.PruebaEstresPagos [hilos] [pagosPorHilo] [prestamos]
+ * </pre>
+ * Termina con código 1 si alguna verificación falla.
+ *
+ * @author Grupo4
+ * @version 1.0
+ */
+public class PruebaEstresPagos {
+    private static final String DNI_PRUEBA = "30111222";
+    private static final long MONTO_PRESTAMO = 100_000_000L; // $1.000.000,00
+    private static final int CUOTAS_PRESTAMO = 36;
+    private static final long MONTO_PAGO = 100L; // $1,00: ninguna cuota llega a saldarse
+
+    private static int fallas = 0;
+
+    /**
+     * Punto de entrada de la prueba.
+     * @param args Opcionalmente: cantidad de hilos de pago, pagos por hilo y cantidad de préstamos.
+     * @throws InterruptedException Si se interrumpe la espera de los hilos.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int pagosPorHilo = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int cantidadPrestamos = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+        if (new File("data").exists()) {
+            System.err.println("Error: Ya existe el directorio data/. Ejecute la prueba desde un directorio vacío.");
+            System.exit(2);
+        }
+
+        GestorPago gestorPago = new GestorPago();
+        GestorPrestamo gestorPrestamo = new GestorPrestamo(gestorPago);
+        gestorPrestamo.setMensajesEnConsola(false);
+        GestorCheckpoint gestorCheckpoint = new GestorCheckpoint(gestorPrestamo, gestorPago);
+
+        // Préstamos otorgados hace dos años: alrededor de 24 cuotas de cada uno ya vencieron
+        LocalDate hoy = LocalDate.now();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < cantidadPrestamos; i++) {
+            ids.add(gestorPrestamo.otorgarPrestamo(DNI_PRUEBA, MONTO_PRESTAMO, CUOTAS_PRESTAMO, i % 2 == 0, hoy.minusYears(2)).getIdPrestamo());
+        }
+
+        AtomicLongArray pagadoPorPrestamo = new AtomicLongArray(cantidadPrestamos);
+        AtomicLong pagosAceptados = new AtomicLong();
+        AtomicLong penalidadesInformadas = new AtomicLong();
+        Set<String> cuotasPenalizadas = new HashSet<>();
+        AtomicBoolean terminado = new AtomicBoolean(false);
+
+        List<Thread> cajas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            cajas.add(new Thread(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int n = 0; n < pagosPorHilo; n++) {
+                    int indice = azar.nextInt(cantidadPrestamos);
+                    int cuota = 1 + azar.nextInt(CUOTAS_PRESTAMO);
+                    if (gestorPrestamo.registrarPago(ids.get(indice), cuota, MONTO_PAGO)) {
+                        pagadoPorPrestamo.addAndGet(indice, MONTO_PAGO);
+                        pagosAceptados.incrementAndGet();
+                    }
+                }
+            }, "caja-" + h));
+        }
+
+        List<Thread> auxiliares = new ArrayList<>();
+        auxiliares.add(new Thread(() -> {
+            while (!terminado.get()) {
+                ResumenMora resumen = gestorPrestamo.verificarYAplicarMoraATodosLosPrestamos(hoy);
+                penalidadesInformadas.addAndGet(resumen.getPenalidadesAplicadasCentavos());
+                for (ResumenMora.CuotaEnMora c : resumen.getCuotas()) {
+                    if (!cuotasPenalizadas.add(c.getIdPrestamo() + "#" + c.getNumeroCuota())) {
+                        fallar("La cuota " + c.getNumeroCuota() + " del préstamo " + c.getIdPrestamo()
+                                + " entró en mora en dos barridos.");
+                    }
+                }
+            }
+        }, "barrido-mora"));
+        auxiliares.add(new Thread(() -> {
+            while (!terminado.get()) {
+                gestorCheckpoint.realizarCheckpoint();
+                dormir(200);
+            }
+        }, "checkpoint"));
+        auxiliares.add(new Thread(() -> {
+            // Altas y bajas de préstamos ajenos a la prueba, que compiten por la estructura con los pagos
+            while (!terminado.get()) {
+                Prestamo temporal = gestorPrestamo.otorgarPrestamo(DNI_PRUEBA, 10_000L, 1, false, hoy);
+                gestorPrestamo.registrarPagoConExcedente(temporal.getIdPrestamo(), 1, 1_000_000L);
+                if (!gestorPrestamo.eliminarPrestamo(temporal.getIdPrestamo())) {
+                    fallar("No se pudo eliminar el préstamo saldado " + temporal.getIdPrestamo() + ".");
+                }
+                gestorPrestamo.listarPrestamos();
+            }
+        }, "altas-bajas"));
+
+        long inicio = System.nanoTime();
+        auxiliares.forEach(Thread::start);
+        cajas.forEach(Thread::start);
+        for (Thread caja : cajas) {
+            caja.join();
+        }
+        terminado.set(true);
+        for (Thread auxiliar : auxiliares) {
+            auxiliar.join();
+        }
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        // Un último barrido por si el hilo de mora terminó antes de evaluar algún préstamo
+        penalidadesInformadas.addAndGet(gestorPrestamo.verificarYAplicarMoraATodosLosPrestamos(hoy).getPenalidadesAplicadasCentavos());
+
+        System.out.println("Pagos aceptados: " + pagosAceptados.get() + " de " + (long) hilos * pagosPorHilo
+                + " en " + duracionMs + " ms con " + hilos + " hilos.");
+
+        System.out.println("Verificando el estado en memoria...");
+        verificarCartera(gestorPrestamo, ids, pagadoPorPrestamo, hoy);
+        long penalidadesEsperadas = penalidadesEsperadas(gestorPrestamo, ids, hoy);
+        if (penalidadesInformadas.get() != penalidadesEsperadas) {
+            fallar("Los barridos informaron " + Dinero.aTexto(penalidadesInformadas.get())
+                    + " de penalidades y se esperaban " + Dinero.aTexto(penalidadesEsperadas) + ".");
+        }
+        if (!gestorPrestamo.verificarExposicion()) {
+            fallar("La exposición de la cartera no coincidía con los préstamos.");
+        }
+
+        // Reinicio sin cierre ordenado: el journal no se compacta y el estado se reconstruye desde disco
+        System.out.println("Verificando el estado después de reiniciar desde disco...");
+        GestorPago pagoReiniciado = new GestorPago();
+        GestorPrestamo prestamoReiniciado = new GestorPrestamo(pagoReiniciado);
+        prestamoReiniciado.setMensajesEnConsola(false);
+        GestorCheckpoint checkpointReiniciado = new GestorCheckpoint(prestamoReiniciado, pagoReiniciado);
+        checkpointReiniciado.recuperarCheckpointPendiente();
+        checkpointReiniciado.aplicarCheckpoint();
+        prestamoReiniciado.aplicarPagosCargadosACuotas();
+        prestamoReiniciado.verificarYAplicarMoraATodosLosPrestamos(hoy);
+        verificarCartera(prestamoReiniciado, ids, pagadoPorPrestamo, hoy);
+
+        if (fallas > 0) {
+            System.out.println("FALLÓ: " + fallas + " verificaciones no se cumplieron.");
+            System.exit(1);
+        }
+        System.out.println("OK: ningún pago perdido ni duplicado, ninguna penalidad aplicada dos veces.");
+    }
+
+    /**
+     * Helper privado que compara cada préstamo de la prueba con los pagos aceptados y con la mora esperada:
+     * cada cuota vencida tiene exactamente una penalidad y las demás ninguna.
+     */
+    private static void verificarCartera(GestorPrestamo gestor, List<String> ids, AtomicLongArray pagadoPorPrestamo, LocalDate hoy) {
+        for (int i = 0; i < ids.size(); i++) {
+            Prestamo prestamo = gestor.obtenerPrestamo(ids.get(i));
+            if (prestamo == null) {
+                fallar("Falta el préstamo " + ids.get(i) + ".");
+                continue;
+            }
+            long pagado = 0;
+            for (Cuota cuota : prestamo.getCuotas()) {
+                pagado += cuota.getMontoPagadoCentavos();
+                boolean vencida = cuota.getFechaVencimiento().isBefore(hoy);
+                long penalidadEsperada = vencida
+                        ? Dinero.porcentaje(cuota.getMontoOriginalCentavos(), Cuota.PENALIDAD_MORA_PUNTOS_BASICOS)
+                        : 0;
+                if (cuota.getMontoPenalidadAcumuladaCentavos() != penalidadEsperada) {
+                    fallar("Préstamo " + ids.get(i) + ", cuota " + cuota.getNumeroCuota() + ": penalidad "
+                            + Dinero.aTexto(cuota.getMontoPenalidadAcumuladaCentavos()) + ", se esperaba "
+                            + Dinero.aTexto(penalidadEsperada) + ".");
+                }
+            }
+            if (pagado != pagadoPorPrestamo.get(i)) {
+                fallar("Préstamo " + ids.get(i) + ": pagado " + Dinero.aTexto(pagado) + ", se aceptaron "
+                        + Dinero.aTexto(pagadoPorPrestamo.get(i)) + ".");
+            }
+        }
+    }
+
+    /**
+     * Helper privado que calcula la suma de penalidades que deben tener los préstamos de la prueba.
+     */
+    private static long penalidadesEsperadas(GestorPrestamo gestor, List<String> ids, LocalDate hoy) {
+        long total = 0;
+        for (String id : ids) {
+            for (Cuota cuota : gestor.obtenerPrestamo(id).getCuotas()) {
+                if (cuota.getFechaVencimiento().isBefore(hoy)) {
+                    total += Dinero.porcentaje(cuota.getMontoOriginalCentavos(), Cuota.PENALIDAD_MORA_PUNTOS_BASICOS);
+                }
+            }
+        }
+        return total;
+    }
+
+    private static synchronized void fallar(String mensaje) {
+        fallas++;
+        System.out.println("  FALLA: " + mensaje);
+    }
+
+    private static void dormir(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}